@@ -0,0 +1,58 @@
+package com.acme.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for a client call made through {@link ApiRequestExecutor},
+ * covering all of its attempts.
+ * <p>
+ * The event is disabled by default, and costs almost nothing when disabled or when no
+ * recording is running. Enable it by {@link #NAME name} in a custom JFR settings file, or with
+ * {@code recording.enable(ApiCallEvent.NAME)} when starting a recording in code.
+ */
+@Name(ApiCallEvent.NAME)
+@Label("API Call")
+@Description("A call made by an API client, including any retries")
+@Category({"Acme", "HTTP Client"})
+@Enabled(false)
+@StackTrace(false)
+public final class ApiCallEvent extends Event {
+
+    public static final String NAME = "com.acme.client.ApiCall";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Endpoint")
+    @Description("The base URI of the endpoint used for the last attempt")
+    String endpoint;
+
+    @Label("Status")
+    @Description("The response status of the last attempt, or 0 if there was no response")
+    int status;
+
+    @Label("Response Bytes")
+    @Description("The length of the response body of the last attempt, or -1 if unknown")
+    @DataAmount
+    long responseBytes = -1;
+
+    @Label("Retry Count")
+    int retryCount;
+
+    @Label("Wait Time")
+    @Description("Time spent waiting to send requests, such as the backoff between attempts")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+    @Label("Failure")
+    @Description("The class of the exception thrown by the call, if any")
+    String failure;
+}
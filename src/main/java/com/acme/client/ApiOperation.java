@@ -0,0 +1,25 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotBlank;
+
+/**
+ * Identifies a client operation, e.g. {@code getById} or {@code add}, for per-operation
+ * configuration such as timeouts.
+ *
+ * @param name       the operation name
+ * @param idempotent whether the operation can safely be retried
+ */
+public record ApiOperation(String name, boolean idempotent) {
+
+    public ApiOperation {
+        checkArgumentNotBlank(name, "name must not be blank");
+    }
+
+    public static ApiOperation idempotent(String name) {
+        return new ApiOperation(name, true);
+    }
+
+    public static ApiOperation nonIdempotent(String name) {
+        return new ApiOperation(name, false);
+    }
+}
@@ -0,0 +1,446 @@
+package com.acme.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNullElseGet;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+
+import com.acme.client.latency.AdaptiveTimeouts;
+import com.acme.client.loadbalance.Endpoint;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.client.priority.PriorityRequestScheduler;
+import com.acme.client.priority.RequestPriority;
+import com.acme.client.ratelimit.OperationRateLimiter;
+import com.acme.client.ratelimit.RateLimitExceededException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.glassfish.jersey.client.ClientProperties;
+import org.kiwiproject.jaxrs.KiwiResponses;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Executes requests on behalf of the API clients.
+ * <p>
+ * Each request is sent to an endpoint chosen by a {@link LoadBalancer}, and its outcome
+ * is reported back to the endpoint so that unhealthy endpoints can be ejected. Server
+ * errors and {@link ProcessingException}s (e.g. connection failures) count as failures.
+ * <p>
+ * Each call has an optional deadline: the earlier of the caller's {@link Deadline} and the
+ * {@link OperationTimeouts timeout} for the operation. When there is a deadline, socket
+ * timeouts are limited to the time remaining, the remaining time is sent in the
+ * {@link Deadline#HEADER_NAME} header, and no request or retry is started once the deadline
+ * has passed. Idempotent operations are retried according to the {@link RetryPolicy}.
+ * With {@link AdaptiveTimeouts}, the read timeout of each request is instead derived from the
+ * latencies observed for its operation, still limited by the time remaining.
+ * <p>
+ * Each attempt first takes a permit from the {@link OperationRateLimiter}, if one is configured,
+ * either waiting for it or failing fast with a {@link RateLimitExceededException}. The status
+ * and {@code Retry-After} header of each response are fed back to the rate limiter. It then
+ * takes a slot from the {@link PriorityRequestScheduler}, if one is configured, using the
+ * {@link RequestPriority} attached to the calling thread. The slot is held until the response
+ * has been handled, but not while backing off between attempts.
+ * <p>
+ * The response is always closed after the response handler returns or throws, so handlers
+ * must not return the response or an unread entity stream. {@link ResponseLeakDetector} can
+ * be registered with the client to find code that does not close responses. Before an
+ * error response is closed, a small unread remainder of its body is skipped so the connection
+ * can be reused, as configured by {@link ErrorBodyLimits}. Error bodies are never read in full;
+ * response handlers should use {@link #readErrorBody(Response)} to include them in messages.
+ */
+@Slf4j
+public class ApiRequestExecutor {
+
+    private final Client client;
+    private final LoadBalancer loadBalancer;
+    private final ErrorBodyLimits errorBodyLimits;
+    private final OperationTimeouts operationTimeouts;
+    private final RetryPolicy retryPolicy;
+    private final OperationRateLimiter rateLimiter;
+    private final PriorityRequestScheduler scheduler;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+
+    public ApiRequestExecutor(Client client, LoadBalancer loadBalancer) {
+        this(client, loadBalancer, null, null, null, null, null, null);
+    }
+
+    @Builder
+    public ApiRequestExecutor(Client client,
+                              LoadBalancer loadBalancer,
+                              ErrorBodyLimits errorBodyLimits,
+                              OperationTimeouts operationTimeouts,
+                              RetryPolicy retryPolicy,
+                              OperationRateLimiter rateLimiter,
+                              PriorityRequestScheduler scheduler,
+                              AdaptiveTimeouts adaptiveTimeouts) {
+        this.client = requireNotNull(client, "client must not be null");
+        this.loadBalancer = requireNotNull(loadBalancer, "loadBalancer must not be null");
+        this.errorBodyLimits = requireNonNullElseGet(errorBodyLimits, ErrorBodyLimits::defaults);
+        this.operationTimeouts = requireNonNullElseGet(operationTimeouts, OperationTimeouts::none);
+        this.retryPolicy = requireNonNullElseGet(retryPolicy, RetryPolicy::none);
+        this.rateLimiter = requireNonNullElseGet(rateLimiter, OperationRateLimiter::none);
+        this.scheduler = requireNonNullElseGet(scheduler, PriorityRequestScheduler::unlimited);
+        this.adaptiveTimeouts = requireNonNullElseGet(adaptiveTimeouts, AdaptiveTimeouts::disabled);
+    }
+
+    /**
+     * Create an executor that sends all requests to a single base URI.
+     */
+    public static ApiRequestExecutor of(Client client, URI baseUri) {
+        return new ApiRequestExecutor(client, LoadBalancer.singleEndpoint(baseUri));
+    }
+
+    /**
+     * Send a request and handle its response.
+     *
+     * @param operation       the operation being performed
+     * @param request         builds the request using the target for the selected endpoint
+     * @param method          invokes the request, e.g. {@code SyncInvoker::get}
+     * @param responseHandler converts the response into the result
+     * @param <T>             the result type
+     * @return the result of the response handler
+     * @throws DeadlineExceededException  if the deadline passes before the call completes
+     * @throws RateLimitExceededException if the rate limiter fails fast instead of waiting for a permit
+     */
+    public <T> T execute(ApiOperation operation,
+                         Function<WebTarget, Invocation.Builder> request,
+                         Function<Invocation.Builder, Response> method,
+                         Function<Response, T> responseHandler) {
+
+        var event = new ApiCallEvent();
+        event.begin();
+        try {
+            return executeAttempts(operation, request, method, responseHandler, event);
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.name();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Make attempts until one succeeds, the attempts are exhausted, or the deadline is reached.
+     * The JFR event fields are plain field writes, so recording them costs almost nothing when
+     * the event is disabled.
+     */
+    private <T> T executeAttempts(ApiOperation operation,
+                                  Function<WebTarget, Invocation.Builder> request,
+                                  Function<Invocation.Builder, Response> method,
+                                  Function<Response, T> responseHandler,
+                                  ApiCallEvent event) {
+
+        var deadline = deadlineFor(operation);
+        var maxAttempts = operation.idempotent() ? retryPolicy.maxAttempts() : 1;
+
+        Duration backoff = null;
+        for (var attempt = 1; ; attempt++) {
+            if (backoff != null) {
+                sleep(backoff);
+                event.waitTime += backoff.toNanos();
+                backoff = null;
+            }
+
+            checkNotExpired(deadline, operation);
+            event.waitTime += acquirePermit(operation, deadline);
+            var slot = acquireSlot(operation, deadline);
+            event.waitTime += slot.waitNanos();
+
+            // Backoff happens at the top of the next iteration, after the slot has been released
+            try {
+                var endpoint = loadBalancer.select();
+                endpoint.requestStarted();
+                event.retryCount = attempt - 1;
+                event.endpoint = endpoint.uri().toString();
+                event.status = 0;
+                event.responseBytes = -1;
+
+                Response response;
+                var sendStart = System.nanoTime();
+                try {
+                    response = method.apply(newRequest(operation, endpoint, request, deadline));
+                    adaptiveTimeouts.record(operation.name(), System.nanoTime() - sendStart);
+                } catch (ProcessingException e) {
+                    if (e.getCause() instanceof SocketTimeoutException) {
+                        adaptiveTimeouts.recordTimeout(operation.name(), System.nanoTime() - sendStart);
+                    }
+                    endpoint.requestCompleted(true);
+                    backoff = backoffBeforeRetry(attempt, maxAttempts, deadline)
+                            .orElseThrow(() -> expiredOrOriginal(deadline, operation, e));
+                    continue;
+                }
+
+                // Everything after this point is inside the try, so the response is always closed
+                var failed = KiwiResponses.serverError(response);
+                try {
+                    event.status = response.getStatus();
+                    event.responseBytes = response.getLength();
+                    rateLimiter.onResponse(operation.name(), response.getStatus(), response.getHeaderString(HttpHeaders.RETRY_AFTER));
+
+                    if (retryPolicy.isRetryableStatus(response.getStatus())) {
+                        backoff = backoffBeforeRetry(attempt, maxAttempts, deadline).orElse(null);
+                        if (backoff != null) {
+                            continue;
+                        }
+                    }
+
+                    return responseHandler.apply(response);
+                } finally {
+                    closeResponse(response);
+                    endpoint.requestCompleted(failed);
+                }
+            } finally {
+                slot.release();
+            }
+        }
+    }
+
+    /**
+     * Warm up the client so that the first real calls are not slowed down by lazy initialization.
+     * <p>
+     * Each sample is written and read back through the client's providers, which initializes
+     * the Jersey client runtime and the (de)serializers for the sample types. This requires the
+     * client to have a {@link WarmUpFilter}, and is skipped with a warning otherwise. Then
+     * {@code connectionsPerEndpoint} concurrent HEAD requests are sent to each endpoint to open
+     * connections that later calls can reuse, if the connector keeps connections alive. The
+     * responses to the HEAD requests are ignored, and failures are logged but not thrown.
+     *
+     * @param samples                the sample entities to read and write
+     * @param connectionsPerEndpoint the number of connections to open to each endpoint; may be zero
+     */
+    public void warmUp(List<WarmUpSample> samples, int connectionsPerEndpoint) {
+        requireNotNull(samples, "samples must not be null");
+        checkArgument(connectionsPerEndpoint >= 0, "connectionsPerEndpoint must not be negative");
+
+        var start = System.nanoTime();
+        primeProviders(samples);
+        openConnections(connectionsPerEndpoint);
+        log.info("Warmed up client in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void primeProviders(List<WarmUpSample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        if (!client.getConfiguration().isRegistered(WarmUpFilter.class)) {
+            log.warn("Skipping provider warm-up because {} is not registered with the client",
+                    WarmUpFilter.class.getSimpleName());
+            return;
+        }
+
+        var uri = loadBalancer.endpoints().get(0).uri();
+        for (var sample : samples) {
+            try (var response = client.target(uri)
+                    .request(sample.entity().getMediaType())
+                    .property(WarmUpFilter.SAMPLE_ENTITY_PROPERTY, sample.entity())
+                    .get()) {
+                response.readEntity(sample.responseType());
+            }
+        }
+    }
+
+    private void openConnections(int connectionsPerEndpoint) {
+        if (connectionsPerEndpoint == 0) {
+            return;
+        }
+
+        var endpoints = loadBalancer.endpoints();
+        var threadFactory = new ThreadFactoryBuilder().setNameFormat("client-warm-up-%d").setDaemon(true).build();
+        var warmUpExecutor = Executors.newFixedThreadPool(endpoints.size() * connectionsPerEndpoint, threadFactory);
+        try {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (var endpoint : endpoints) {
+                for (var i = 0; i < connectionsPerEndpoint; i++) {
+                    futures.add(CompletableFuture.runAsync(() -> openConnection(endpoint), warmUpExecutor));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            warmUpExecutor.shutdown();
+        }
+    }
+
+    private void openConnection(Endpoint endpoint) {
+        try (var response = client.target(endpoint.uri()).request().head()) {
+            log.trace("Warm-up HEAD request to {} returned {}", endpoint.uri(), response.getStatus());
+        } catch (ProcessingException e) {
+            log.warn("Warm-up HEAD request to {} failed", endpoint.uri(), e);
+        }
+    }
+
+    /**
+     * Read the body of an error response for use in an exception message, reading at most
+     * {@link ErrorBodyLimits#maxPrefixBytes()} bytes. Longer bodies are truncated, and end
+     * with {@code ...[truncated]}. The unread remainder, if at most
+     * {@link ErrorBodyLimits#maxDrainBytes()}, is skipped so the connection can be reused.
+     */
+    public String readErrorBody(Response response) {
+        return ErrorBodies.readPrefix(response, errorBodyLimits.maxPrefixBytes(), errorBodyLimits.maxDrainBytes());
+    }
+
+    private Deadline deadlineFor(ApiOperation operation) {
+        var callerDeadline = Deadline.current().orElse(null);
+        var operationDeadline = operationTimeouts.timeoutFor(operation).map(Deadline::after).orElse(null);
+
+        if (isNull(callerDeadline)) {
+            return operationDeadline;
+        } else if (isNull(operationDeadline)) {
+            return callerDeadline;
+        }
+        return callerDeadline.earlierOf(operationDeadline);
+    }
+
+    private static void checkNotExpired(Deadline deadline, ApiOperation operation) {
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(f("Deadline exceeded before {} request could start", operation.name()));
+        }
+    }
+
+    /**
+     * Take a rate limit permit for the operation, waiting for it if necessary.
+     *
+     * @return the number of nanoseconds spent waiting
+     */
+    private long acquirePermit(ApiOperation operation, Deadline deadline) {
+        var maxWaitNanos = isNull(deadline) ? Long.MAX_VALUE : Math.max(0, deadline.remaining().toNanos());
+        var waitNanos = rateLimiter.tryAcquire(operation.name(), maxWaitNanos);
+        if (waitNanos < 0) {
+            throw new DeadlineExceededException(
+                    f("Deadline would be exceeded waiting for a rate limit permit for {}", operation.name()));
+        }
+
+        if (waitNanos > 0) {
+            sleep(Duration.ofNanos(waitNanos));
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Take a scheduler slot for the current thread's priority, waiting for it if necessary.
+     */
+    private PriorityRequestScheduler.Permit acquireSlot(ApiOperation operation, Deadline deadline) {
+        var maxWaitNanos = isNull(deadline) ? Long.MAX_VALUE : Math.max(0, deadline.remaining().toNanos());
+        var priority = RequestPriority.current();
+        PriorityRequestScheduler.Permit slot;
+        try {
+            slot = scheduler.acquire(priority, maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(f("Interrupted while waiting to send {} request", operation.name()), e);
+        }
+
+        if (isNull(slot)) {
+            throw new DeadlineExceededException(
+                    f("Deadline exceeded waiting for a {} request slot for {}", priority, operation.name()));
+        }
+        return slot;
+    }
+
+    private Invocation.Builder newRequest(ApiOperation operation,
+                                          Endpoint endpoint,
+                                          Function<WebTarget, Invocation.Builder> request,
+                                          Deadline deadline) {
+        var target = client.target(endpoint.uri());
+        var adaptiveReadTimeout = adaptiveTimeouts.readTimeoutFor(operation.name());
+        if (isNull(deadline) && adaptiveReadTimeout.isEmpty()) {
+            return request.apply(target);
+        }
+
+        // Set request properties rather than target properties, since changing a target's
+        // configuration makes Jersey create a new client runtime for it
+        var remainingMillis = isNull(deadline) ? Long.MAX_VALUE : Math.max(1, ceilMillis(deadline.remaining()));
+        var readTimeoutMillis = adaptiveReadTimeout
+                .map(timeout -> (int) Math.min(Math.max(1, ceilMillis(timeout)), Math.min(remainingMillis, Integer.MAX_VALUE)))
+                .orElseGet(() -> timeoutMillis(ClientProperties.READ_TIMEOUT, remainingMillis));
+        var builder = request.apply(target).property(ClientProperties.READ_TIMEOUT, readTimeoutMillis);
+        if (isNull(deadline)) {
+            return builder;
+        }
+
+        return builder
+                .property(ClientProperties.CONNECT_TIMEOUT, timeoutMillis(ClientProperties.CONNECT_TIMEOUT, remainingMillis))
+                .header(Deadline.HEADER_NAME, remainingMillis);
+    }
+
+    /**
+     * Round up, so that a timeout computed from the remaining time never fires before the deadline.
+     */
+    private static long ceilMillis(Duration duration) {
+        return (duration.toNanos() + 999_999L) / 1_000_000L;
+    }
+
+    /**
+     * Use the remaining time as the timeout, unless the client is configured with a shorter one.
+     * A configured timeout of zero means "no timeout".
+     */
+    private int timeoutMillis(String property, long remainingMillis) {
+        var configured = client.getConfiguration().getProperty(property);
+        var remaining = (int) Math.min(remainingMillis, Integer.MAX_VALUE);
+        if (configured instanceof Number number && number.intValue() > 0) {
+            return Math.min(number.intValue(), remaining);
+        }
+        return remaining;
+    }
+
+    /**
+     * Get the time to wait before the next attempt, or an empty Optional if there are no more
+     * attempts or the backoff would end after the deadline.
+     */
+    private Optional<Duration> backoffBeforeRetry(int attempt, int maxAttempts, Deadline deadline) {
+        if (attempt >= maxAttempts) {
+            return Optional.empty();
+        }
+
+        var backoff = retryPolicy.backoff(attempt);
+        if (deadline != null && backoff.compareTo(deadline.remaining()) >= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(backoff);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private static RuntimeException expiredOrOriginal(Deadline deadline,
+                                                      ApiOperation operation,
+                                                      ProcessingException e) {
+        if (deadline != null && deadline.isExpired()) {
+            return new DeadlineExceededException(f("Deadline exceeded during {} request", operation.name()), e);
+        }
+        return e;
+    }
+
+    private void closeResponse(Response response) {
+        if (!KiwiResponses.successful(response)) {
+            ErrorBodies.drainQuietly(response, errorBodyLimits.maxDrainBytes());
+        }
+        response.close();
+    }
+}
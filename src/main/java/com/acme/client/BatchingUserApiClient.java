@@ -0,0 +1,248 @@
+package com.acme.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.stream.Collectors.toMap;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+
+import com.acme.client.priority.RequestPriority;
+import com.acme.model.User;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.ws.rs.client.Client;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * A {@link UserApiClient} that transparently batches {@link #getById(long)} calls.
+ * <p>
+ * Calls made within a short window are collected and sent as a single
+ * {@link #getByIds(java.util.Collection) bulk request}, and each caller receives its own
+ * result. A batch is sent when the window, which starts with the first call in the batch,
+ * elapses, or as soon as it reaches the maximum batch size, so the added latency of any
+ * call is at most the window. Calls for the same id within a batch share one lookup.
+ * <p>
+ * As with {@link UserApiClient#getById(long)}, an error response returns an empty Optional,
+ * here to every call in the batch, while a failure to send the request, such as a connection
+ * failure, is thrown to every call in the batch.
+ * <p>
+ * Each batch is sent with the latest {@link Deadline} of its callers (or none, if any caller
+ * has none) and the most urgent {@link RequestPriority} of its callers attached, so it is
+ * neither cut short for, nor deprioritized below, any of them. {@link #getById(long)} still
+ * throws {@link DeadlineExceededException} once its own caller's deadline passes. At most
+ * {@value #MAX_CONCURRENT_BATCHES} batches are sent at once; further batches wait their turn.
+ * <p>
+ * Existing code can use this class wherever it uses a {@code UserApiClient}, since only
+ * the construction changes. Close it when done to send pending calls and stop its threads.
+ */
+@Slf4j
+public class BatchingUserApiClient extends UserApiClient implements Closeable {
+
+    static final int MAX_CONCURRENT_BATCHES = 4;
+
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService batchExecutor;
+
+    private Batch pending = new Batch();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    public BatchingUserApiClient(Client client, URI baseUri, Duration batchWindow, int maxBatchSize) {
+        this(ApiRequestExecutor.of(client, baseUri), batchWindow, maxBatchSize);
+    }
+
+    public BatchingUserApiClient(ApiRequestExecutor executor, Duration batchWindow, int maxBatchSize) {
+        super(executor);
+        this.batchWindow = requireNotNull(batchWindow, "batchWindow must not be null");
+        checkArgument(!batchWindow.isNegative() && !batchWindow.isZero(), "batchWindow must be positive");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("user-batch-scheduler-%d"));
+        this.batchExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_BATCHES, daemonThreadFactory("user-batch-%d"));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+    }
+
+    /**
+     * GET /users/{id}, batched with other calls made within the batch window.
+     * <p>
+     * Blocks until the batch containing this call completes, or until the deadline attached
+     * to the current thread passes.
+     *
+     * @throws DeadlineExceededException if the current thread's deadline passes first
+     */
+    @Override
+    public Optional<User> getById(long id) {
+        var future = getByIdAsync(id);
+        var deadline = Deadline.current().orElse(null);
+        try {
+            return deadline == null ? future.join() : future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(f("Deadline passed waiting for batched getById of user {}", id), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(f("Interrupted waiting for batched getById of user {}", id), e);
+        } catch (CompletionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking version of {@link #getById(long)}. The returned future does not time out
+     * at the current thread's deadline; use {@link CompletableFuture#orTimeout} if needed.
+     */
+    public CompletableFuture<Optional<User>> getByIdAsync(long id) {
+        synchronized (this) {
+            checkState(!closed, "client is closed");
+
+            var result = pending.add(id, Deadline.current().orElse(null), RequestPriority.current());
+            if (pending.size() >= maxBatchSize) {
+                send(takePending());
+            } else if (scheduledFlush == null) {
+                var batch = pending;
+                scheduledFlush = scheduler.schedule(() -> flush(batch), batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Send the given batch, unless it was already sent. A flush can start just before its batch
+     * fills up and is sent, too late to be cancelled, and must not then send the next batch early.
+     */
+    private synchronized void flush(Batch batch) {
+        if (pending == batch) {
+            send(takePending());
+        }
+    }
+
+    private Batch takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        var batch = pending;
+        pending = new Batch();
+        return batch;
+    }
+
+    /**
+     * Must be called while holding the lock, so that no batch is submitted after
+     * {@link #close()} has shut down the batch executor.
+     */
+    private void send(Batch batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+
+        try {
+            batchExecutor.execute(() -> lookUp(batch));
+        } catch (RejectedExecutionException e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void lookUp(Batch batch) {
+        try (var ignoredPriority = batch.priority.attach(); var ignoredDeadline = batch.attachDeadline()) {
+            var usersById = getByIds(batch.futures.keySet()).stream()
+                    .collect(toMap(User::id, Function.identity(), (first, second) -> first));
+            batch.futures.forEach((id, future) -> future.complete(Optional.ofNullable(usersById.get(id))));
+        } catch (IllegalStateException e) {
+            // an error response, for which UserApiClient.getById returns empty
+            log.warn("Batch of {} getById calls received an error response", batch.size(), e);
+            batch.futures.values().forEach(future -> future.complete(Optional.empty()));
+        } catch (Exception e) {
+            log.warn("Batch of {} getById calls failed", batch.size(), e);
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Send any pending calls, wait for in-flight batches to complete, and stop the
+     * threads used for batching.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            send(takePending());
+        }
+
+        scheduler.shutdownNow();
+        batchExecutor.shutdown();
+        try {
+            if (!batchExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for in-flight batches to complete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The calls collected for one bulk request, with the context to send it in.
+     */
+    private static class Batch {
+
+        final Map<Long, CompletableFuture<Optional<User>>> futures = new HashMap<>();
+        RequestPriority priority = RequestPriority.BATCH;
+        Deadline latestDeadline;
+        boolean hasCallerWithoutDeadline;
+
+        CompletableFuture<Optional<User>> add(long id, Deadline callerDeadline, RequestPriority callerPriority) {
+            if (callerPriority.compareTo(priority) < 0) {
+                priority = callerPriority;
+            }
+
+            if (callerDeadline == null) {
+                hasCallerWithoutDeadline = true;
+            } else if (latestDeadline == null || latestDeadline.earlierOf(callerDeadline) == latestDeadline) {
+                latestDeadline = callerDeadline;
+            }
+
+            return futures.computeIfAbsent(id, key -> new CompletableFuture<>());
+        }
+
+        int size() {
+            return futures.size();
+        }
+
+        Deadline.Scope attachDeadline() {
+            if (hasCallerWithoutDeadline || latestDeadline == null) {
+                return () -> {
+                    // no deadline to detach
+                };
+            }
+            return latestDeadline.attach();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A point in time by which a unit of work must complete.
+ * <p>
+ * A deadline applies to client calls made on the current thread while it is
+ * {@link #attach() attached}. The API clients stop retrying, limit their socket timeouts to
+ * the remaining time, send the remaining time downstream in the {@link #HEADER_NAME} header,
+ * and throw {@link DeadlineExceededException} instead of starting a request after the
+ * deadline has passed. Attaching a deadline while another one is attached uses whichever
+ * of the two is earlier, so nested code can shorten a deadline but never extend it.
+ * <pre>
+ * try (var ignored = Deadline.after(Duration.ofSeconds(2)).attach()) {
+ *     var user = userApiClient.getById(42);
+ *     ...
+ * }
+ * </pre>
+ */
+public final class Deadline {
+
+    /**
+     * The request header containing the number of milliseconds remaining until the deadline.
+     */
+    public static final String HEADER_NAME = "X-Request-Timeout-Millis";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @return a deadline the given amount of time from now
+     */
+    public static Deadline after(Duration timeout) {
+        requireNotNull(timeout, "timeout must not be null");
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return a deadline at the given instant
+     */
+    public static Deadline at(Instant instant) {
+        requireNotNull(instant, "instant must not be null");
+        return after(Duration.between(Instant.now(), instant));
+    }
+
+    /**
+     * @return the deadline attached to the current thread, if any
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * @return the time remaining until this deadline; negative once it has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * @return true if this deadline has passed
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return whichever of this deadline and the other one is earlier
+     */
+    public Deadline earlierOf(Deadline other) {
+        requireNotNull(other, "other must not be null");
+        return other.deadlineNanos - deadlineNanos < 0 ? other : this;
+    }
+
+    /**
+     * Attach this deadline to the current thread, until the returned scope is closed.
+     */
+    public Scope attach() {
+        var previous = CURRENT.get();
+        CURRENT.set(previous == null ? this : previous.earlierOf(this));
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Call the supplier with this deadline attached to the current thread.
+     */
+    public <T> T call(Supplier<T> supplier) {
+        try (var ignored = attach()) {
+            return supplier.get();
+        }
+    }
+
+    /**
+     * Run the runnable with this deadline attached to the current thread.
+     */
+    public void run(Runnable runnable) {
+        try (var ignored = attach()) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * A deadline attachment, which restores the previously attached deadline when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining() + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package com.acme.client;
+
+/**
+ * Thrown when a client call cannot complete before its {@link Deadline}, either because the
+ * deadline passed before a request (or retry) could start, or because a request timed out
+ * after using up the remaining time.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
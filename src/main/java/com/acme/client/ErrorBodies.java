@@ -0,0 +1,142 @@
+package com.acme.client;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Optional;
+
+/**
+ * Reads error response bodies without ever buffering more than a bounded prefix.
+ */
+@UtilityClass
+class ErrorBodies {
+
+    static final String TRUNCATED_SUFFIX = "...[truncated]";
+
+    private static final int SKIP_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Read at most {@code maxBytes} of the response body as a string, appending
+     * {@link #TRUNCATED_SUFFIX} if the body is longer. A truncated UTF-8 prefix ends at the
+     * last complete character, rather than with a replacement character for a partial one.
+     * <p>
+     * The entity can only be read once, so the unread remainder of a truncated body is then
+     * skipped here, as {@link #drainQuietly(Response, long)} would, if it is at most
+     * {@code maxDrainBytes}.
+     */
+    static String readPrefix(Response response, int maxBytes, long maxDrainBytes) {
+        if (!response.hasEntity()) {
+            return "";
+        }
+
+        var inputStream = response.readEntity(InputStream.class);
+        String text;
+        boolean truncated;
+        try {
+            var prefix = inputStream.readNBytes(maxBytes);
+            truncated = inputStream.read() != -1;
+            var charset = charsetOf(response);
+            var length = truncated && charset.equals(StandardCharsets.UTF_8) ? completeUtf8Length(prefix) : prefix.length;
+            text = new String(prefix, 0, length, charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read error response body", e);
+        }
+
+        if (!truncated) {
+            return text;
+        }
+
+        var length = response.getLength();
+        if (length < 0 || length - maxBytes - 1 <= maxDrainBytes) {
+            skipQuietly(inputStream, maxDrainBytes);
+        }
+        return text + TRUNCATED_SUFFIX;
+    }
+
+    /**
+     * Skip the unread remainder of the response body if it is at most {@code maxBytes},
+     * so the underlying connection can be reused. Does nothing if the body is larger or
+     * was already consumed, e.g. by {@link #readPrefix(Response, int, long)}, which skips the
+     * remainder itself; closing the response then discards the connection.
+     */
+    static void drainQuietly(Response response, long maxBytes) {
+        try {
+            var length = response.getLength();
+            if (length > maxBytes || !response.hasEntity()) {
+                return;
+            }
+
+            skip(response.readEntity(InputStream.class), maxBytes);
+        } catch (IllegalStateException | ProcessingException | IOException e) {
+            // the entity was already consumed or the response closed, or the connection failed;
+            // either way, closing the response is all that is left to do
+        }
+    }
+
+    private static void skipQuietly(InputStream inputStream, long maxBytes) {
+        try {
+            skip(inputStream, maxBytes);
+        } catch (IOException e) {
+            // the prefix was read, and closing the response discards the connection
+        }
+    }
+
+    private static void skip(InputStream inputStream, long maxBytes) throws IOException {
+        var scratch = new byte[(int) Math.min(SKIP_BUFFER_SIZE, Math.max(maxBytes, 1))];
+        var remaining = maxBytes;
+        int read;
+        while (remaining > 0 && (read = inputStream.read(scratch, 0, (int) Math.min(scratch.length, remaining))) != -1) {
+            remaining -= read;
+        }
+    }
+
+    /**
+     * @return the number of leading bytes that contain only complete UTF-8 characters
+     */
+    static int completeUtf8Length(byte[] bytes) {
+        var length = bytes.length;
+
+        // A character is at most four bytes, so its first byte is within the last four
+        for (var i = length - 1; i >= Math.max(0, length - 4); i--) {
+            var b = bytes[i] & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                int characterLength;
+                if (b >= 0xF0) {
+                    characterLength = 4;
+                } else if (b >= 0xE0) {
+                    characterLength = 3;
+                } else if (b >= 0xC0) {
+                    characterLength = 2;
+                } else {
+                    characterLength = 1;
+                }
+                return i + characterLength <= length ? length : i;
+            }
+        }
+        return length;
+    }
+
+    private static Charset charsetOf(Response response) {
+        var charsetName = Optional.ofNullable(response.getMediaType())
+                .map(mediaType -> mediaType.getParameters().get(MediaType.CHARSET_PARAMETER))
+                .orElse(null);
+        if (charsetName == null) {
+            return StandardCharsets.UTF_8;
+        }
+
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.acme.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Limits on how much of an error (non-2xx) response body the clients read.
+ * <p>
+ * At most {@code maxPrefixBytes} are read when an error body is included in an exception
+ * message. Any unread remainder of an error body is skipped, without buffering it, if it is at
+ * most {@code maxDrainBytes} long, so that the connection can be reused. Larger remainders are
+ * discarded by closing the response, which closes the connection instead of reading the body.
+ *
+ * @param maxPrefixBytes the maximum number of bytes of an error body to read
+ * @param maxDrainBytes  the maximum number of remaining bytes to skip so the connection can be reused
+ */
+public record ErrorBodyLimits(int maxPrefixBytes, long maxDrainBytes) {
+
+    public ErrorBodyLimits {
+        checkArgument(maxPrefixBytes >= 0, "maxPrefixBytes must not be negative");
+        checkArgument(maxDrainBytes >= 0, "maxDrainBytes must not be negative");
+    }
+
+    /**
+     * @return limits that read up to 4 KiB of an error body, and skip up to 64 KiB
+     */
+    public static ErrorBodyLimits defaults() {
+        return new ErrorBodyLimits(4 * 1024, 64 * 1024);
+    }
+}
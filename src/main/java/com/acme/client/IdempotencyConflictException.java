@@ -0,0 +1,39 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/**
+ * Thrown when the server refuses an idempotent create because of its idempotency key, rather
+ * than because of the user. Callers can tell the two cases apart using {@link #reason()}: a
+ * create that is still in progress can be retried later with the same key, while a key that
+ * was used for a different user indicates a bug in how keys are derived.
+ */
+@Getter
+@Accessors(fluent = true)
+public class IdempotencyConflictException extends RuntimeException {
+
+    public enum Reason {
+
+        /**
+         * A request with the same key is still being processed (409 Conflict).
+         */
+        IN_PROGRESS,
+
+        /**
+         * The key was already used to create a different user (422 Unprocessable Entity).
+         */
+        KEY_MISMATCH
+    }
+
+    private final String idempotencyKey;
+    private final Reason reason;
+
+    public IdempotencyConflictException(String message, String idempotencyKey, Reason reason) {
+        super(message);
+        this.idempotencyKey = requireNotNull(idempotencyKey, "idempotencyKey must not be null");
+        this.reason = requireNotNull(reason, "reason must not be null");
+    }
+}
@@ -3,35 +3,58 @@ package com.acme.client;
 import static org.kiwiproject.jaxrs.KiwiResponses.clientError;
 import static org.kiwiproject.jaxrs.KiwiResponses.successful;
 
+import com.acme.client.loadbalance.LoadBalancer;
 import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.SyncInvoker;
+import jakarta.ws.rs.core.MediaType;
 
 import java.net.URI;
+import java.util.List;
 
 public class MathApiClient {
 
-    private final Client client;
-    private final URI baseUri;
+    public static final ApiOperation ADD = ApiOperation.idempotent("math.add");
+
+    private final ApiRequestExecutor executor;
 
     public MathApiClient(Client client, URI baseUri) {
-        this.client = client;
-        this.baseUri = baseUri;
+        this(ApiRequestExecutor.of(client, baseUri));
+    }
+
+    public MathApiClient(Client client, LoadBalancer loadBalancer) {
+        this(new ApiRequestExecutor(client, loadBalancer));
+    }
+
+    public MathApiClient(ApiRequestExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Initialize the providers used to read results, and open the given number of
+     * connections to each endpoint.
+     *
+     * @see ApiRequestExecutor#warmUp(List, int)
+     */
+    public void warmUp(int connectionsPerEndpoint) {
+        executor.warmUp(List.of(WarmUpSample.of(0, MediaType.TEXT_PLAIN_TYPE, Integer.class)), connectionsPerEndpoint);
     }
 
     // Implementation with some error handling
     public int add(int a, int b) {
-        var response = client.target(baseUri)
-                .path("/math/add/{a}/{b}")
-                .resolveTemplate("a", a)
-                .resolveTemplate("b", b)
-                .request()
-                .get();
-
-        if (successful(response)) {
-            return response.readEntity(Integer.class);
-        } else if (clientError(response)) {
-            throw new IllegalArgumentException("Invalid arguments: " + response.readEntity(String.class));
-        }
-
-        throw new IllegalStateException("Unknown error: " + response.readEntity(String.class));
+        return executor.execute(ADD,
+                target -> target.path("/math/add/{a}/{b}")
+                        .resolveTemplate("a", a)
+                        .resolveTemplate("b", b)
+                        .request(),
+                SyncInvoker::get,
+                response -> {
+                    if (successful(response)) {
+                        return response.readEntity(Integer.class);
+                    } else if (clientError(response)) {
+                        throw new IllegalArgumentException("Invalid arguments: " + executor.readErrorBody(response));
+                    }
+
+                    throw new IllegalStateException("Unknown error: " + executor.readErrorBody(response));
+                });
     }
 }
@@ -0,0 +1,38 @@
+package com.acme.client;
+
+import lombok.Builder;
+import lombok.Singular;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-operation timeouts. An operation's timeout is the total time allowed for a call,
+ * including any retries, and is combined with the caller's {@link Deadline}, if any,
+ * by using whichever ends first.
+ *
+ * @param defaultTimeout the timeout for operations without a specific timeout; may be null for no default
+ * @param timeouts       timeouts keyed by {@link ApiOperation#name() operation name}
+ */
+@Builder
+public record OperationTimeouts(Duration defaultTimeout, @Singular Map<String, Duration> timeouts) {
+
+    public OperationTimeouts {
+        timeouts = Map.copyOf(timeouts);
+    }
+
+    /**
+     * @return timeouts that never limit an operation beyond the client's own timeouts
+     */
+    public static OperationTimeouts none() {
+        return new OperationTimeouts(null, Map.of());
+    }
+
+    /**
+     * @return the timeout for the given operation, if any
+     */
+    public Optional<Duration> timeoutFor(ApiOperation operation) {
+        return Optional.ofNullable(timeouts.getOrDefault(operation.name(), defaultTimeout));
+    }
+}
@@ -0,0 +1,167 @@
+package com.acme.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Reports responses that are garbage collected without having been closed.
+ * <p>
+ * An unclosed response keeps its pooled connection leased until the response is garbage
+ * collected, so a few leaks under load can drain the connection pool. This filter tracks
+ * a sample of responses by wrapping their entity streams, and uses a {@link Cleaner} to
+ * notice when a tracked stream becomes unreachable without having been closed. Closing the
+ * response, or reading its entity in full, closes the stream. Each leak is reported with
+ * the stack trace of the thread that received the response, which shows where it was made.
+ * <p>
+ * Tracking costs an allocation and a stack trace per sampled response, so use a low
+ * sampling rate in production, e.g. 0.01, and 1.0 in tests. Register the detector when
+ * building the {@code Client}, e.g.
+ * {@code ClientBuilder.newBuilder().register(new ResponseLeakDetector(0.01))}.
+ */
+@Slf4j
+public class ResponseLeakDetector implements ClientResponseFilter {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final double samplingRate;
+    private final Consumer<LeakedResponse> leakListener;
+    private final DoubleSupplier random;
+    private final AtomicLong trackedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * @param samplingRate the fraction of responses to track, from 0.0 to 1.0
+     */
+    public ResponseLeakDetector(double samplingRate) {
+        this(samplingRate, ResponseLeakDetector::logLeak);
+    }
+
+    /**
+     * @param samplingRate the fraction of responses to track, from 0.0 to 1.0
+     * @param leakListener called on the cleaner thread for each leaked response
+     */
+    public ResponseLeakDetector(double samplingRate, Consumer<LeakedResponse> leakListener) {
+        this(samplingRate, leakListener, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    ResponseLeakDetector(double samplingRate, Consumer<LeakedResponse> leakListener, DoubleSupplier random) {
+        checkArgument(samplingRate >= 0.0 && samplingRate <= 1.0, "samplingRate must be between 0.0 and 1.0");
+        this.samplingRate = samplingRate;
+        this.leakListener = requireNotNull(leakListener, "leakListener must not be null");
+        this.random = random;
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        if (!responseContext.hasEntity() || random.getAsDouble() >= samplingRate) {
+            return;
+        }
+
+        var request = f("{} {} ({})", requestContext.getMethod(), requestContext.getUri(), responseContext.getStatus());
+        var state = new TrackingState(new LeakedResponse(request, new AllocationSite(request)));
+        var trackedStream = new TrackedInputStream(responseContext.getEntityStream(), state);
+        state.cleanable = CLEANER.register(trackedStream, state);
+        responseContext.setEntityStream(trackedStream);
+        trackedCount.incrementAndGet();
+    }
+
+    /**
+     * @return the number of responses tracked so far
+     */
+    public long trackedCount() {
+        return trackedCount.get();
+    }
+
+    /**
+     * @return the number of tracked responses that were garbage collected without being closed
+     */
+    public long leakCount() {
+        return leakCount.get();
+    }
+
+    private static void logLeak(LeakedResponse leak) {
+        log.error("Response was never closed: {}. Its connection was leased until it was garbage collected.",
+                leak.request(), leak.allocationSite());
+    }
+
+    /**
+     * A response that was garbage collected without being closed.
+     *
+     * @param request        the request method and URI, and the response status
+     * @param allocationSite the stack trace of the thread that received the response
+     */
+    public record LeakedResponse(String request, Throwable allocationSite) {
+    }
+
+    /**
+     * Records where a leaked response was received; never thrown.
+     */
+    static final class AllocationSite extends Throwable {
+
+        AllocationSite(String request) {
+            super("Response received here: " + request);
+        }
+    }
+
+    /**
+     * The cleanup action, which must not refer to the tracked stream, or it would never become unreachable.
+     */
+    private final class TrackingState implements Runnable {
+
+        private final LeakedResponse leak;
+        private volatile boolean closed;
+        private Cleaner.Cleanable cleanable;
+
+        TrackingState(LeakedResponse leak) {
+            this.leak = leak;
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                return;
+            }
+
+            leakCount.incrementAndGet();
+            try {
+                leakListener.accept(leak);
+            } catch (RuntimeException e) {
+                log.warn("Leak listener failed", e);
+            }
+        }
+    }
+
+    private static final class TrackedInputStream extends FilterInputStream {
+
+        private final TrackingState state;
+
+        TrackedInputStream(InputStream in, TrackingState state) {
+            super(in);
+            this.state = state;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!state.closed) {
+                state.closed = true;
+                state.cleanable.clean();
+            }
+            super.close();
+        }
+    }
+}
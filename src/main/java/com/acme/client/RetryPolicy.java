@@ -0,0 +1,63 @@
+package com.acme.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines whether and when failed requests for idempotent operations are retried.
+ * <p>
+ * Requests are retried after connection failures ({@code ProcessingException}) and after
+ * responses with one of the retryable status codes. Backoff is exponential with full jitter.
+ * Retries never extend past the call's {@link Deadline}.
+ *
+ * @param maxAttempts       the maximum number of attempts, including the first one
+ * @param initialBackoff    the maximum backoff before the first retry
+ * @param maxBackoff        the upper bound on the backoff before any retry
+ * @param retryableStatuses the response status codes that are retried
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Set<Integer> retryableStatuses
+) {
+
+    public RetryPolicy {
+        checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+        requireNotNull(initialBackoff, "initialBackoff must not be null");
+        requireNotNull(maxBackoff, "maxBackoff must not be null");
+        retryableStatuses = Set.copyOf(requireNotNull(retryableStatuses, "retryableStatuses must not be null"));
+    }
+
+    /**
+     * @return a policy that never retries
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Set.of());
+    }
+
+    /**
+     * @return a policy that makes up to three attempts, retrying 502, 503, and 504 responses
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, Duration.ofMillis(50), Duration.ofSeconds(1), Set.of(502, 503, 504));
+    }
+
+    boolean isRetryableStatus(int status) {
+        return retryableStatuses.contains(status);
+    }
+
+    /**
+     * @param retry the one-based retry number
+     * @return a random backoff between zero and the exponential backoff for the given retry
+     */
+    Duration backoff(int retry) {
+        var exponentialNanos = initialBackoff.toNanos() << Math.min(retry - 1, 30);
+        var capNanos = Math.min(exponentialNanos < 0 ? Long.MAX_VALUE : exponentialNanos, maxBackoff.toNanos());
+        return capNanos <= 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(capNanos + 1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import lombok.experimental.UtilityClass;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Factory methods for {@link StreamingOutput} entities that stream their content in constant
+ * memory through a bounded buffer, copying it to the request stream in fixed-size chunks, so
+ * memory use does not depend on the size of the content.
+ */
+@UtilityClass
+class StreamingEntities {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Stream the content of a file in chunks of at most {@link #CHUNK_SIZE} bytes, reporting
+     * progress after each one. The request stream is not a file or socket channel, so
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} copies
+     * each chunk through a bounded buffer rather than moving it without a copy.
+     */
+    static StreamingOutput fromPath(Path path, UploadProgressListener progressListener) {
+        requireNotNull(path, "path must not be null");
+        requireNotNull(progressListener, "progressListener must not be null");
+
+        return output -> {
+            try (var fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                var size = fileChannel.size();
+                var target = Channels.newChannel(output);
+                var position = 0L;
+                while (position < size) {
+                    var transferred = fileChannel.transferTo(position, Math.min(CHUNK_SIZE, size - position), target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                    progressListener.onProgress(position, size);
+                }
+            }
+        };
+    }
+
+    /**
+     * Stream the content of an input stream, which is closed once it has been fully copied.
+     */
+    static StreamingOutput fromInputStream(InputStream inputStream, UploadProgressListener progressListener) {
+        requireNotNull(inputStream, "inputStream must not be null");
+        requireNotNull(progressListener, "progressListener must not be null");
+
+        return output -> {
+            try (inputStream) {
+                var buffer = new byte[CHUNK_SIZE];
+                var written = 0L;
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                    written += read;
+                    progressListener.onProgress(written, -1);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.acme.client;
+
+/**
+ * Receives progress notifications while a request entity is streamed to the server.
+ * <p>
+ * Notifications are made on the thread writing the entity, so implementations should be fast.
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+    /**
+     * Called after each chunk has been written.
+     *
+     * @param bytesWritten the total number of bytes written so far
+     * @param totalBytes   the total number of bytes to write, or -1 if not known in advance
+     */
+    void onProgress(long bytesWritten, long totalBytes);
+
+    /**
+     * @return a listener that ignores all progress notifications
+     */
+    static UploadProgressListener none() {
+        return (bytesWritten, totalBytes) -> {
+        };
+    }
+}
@@ -2,60 +2,226 @@ package com.acme.client;
 
 import static org.kiwiproject.base.KiwiStrings.f;
 
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.model.CreatedUser;
 import com.acme.model.User;
+import com.acme.model.UserChanges;
+import com.acme.model.UserImportResult;
+import com.acme.model.VersionedUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.SyncInvoker;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.kiwiproject.base.KiwiPreconditions;
 import org.kiwiproject.jaxrs.KiwiResponses;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 public class UserApiClient {
 
+    /**
+     * Media type for newline-delimited JSON, i.e. one JSON object per line.
+     */
+    public static final MediaType NDJSON_MEDIA_TYPE = new MediaType("application", "x-ndjson");
+
+    /**
+     * The request header identifying a logical create, so the server can deduplicate retries.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * The response header the server sets to {@code true} when it replays an earlier result.
+     */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    public static final ApiOperation GET_BY_ID = ApiOperation.idempotent("users.getById");
+    public static final ApiOperation GET_BY_IDS = ApiOperation.idempotent("users.getByIds");
+    public static final ApiOperation LIST = ApiOperation.idempotent("users.list");
+    public static final ApiOperation CHANGES = ApiOperation.idempotent("users.changes");
+    public static final ApiOperation CREATE = ApiOperation.nonIdempotent("users.create");
+    public static final ApiOperation CREATE_IDEMPOTENTLY = ApiOperation.idempotent("users.createIdempotently");
+    public static final ApiOperation UPDATE = ApiOperation.idempotent("users.update");
+    public static final ApiOperation IMPORT_USERS = ApiOperation.nonIdempotent("users.import");
+
     private static final GenericType<List<User>> USER_LIST_GENERIC_TYPE = new GenericType<>() {
     };
 
-    private final Client client;
-    private final URI baseUri;
+    private final ApiRequestExecutor executor;
 
     public UserApiClient(Client client, URI baseUri) {
-        this.client = client;
-        this.baseUri = baseUri;
+        this(ApiRequestExecutor.of(client, baseUri));
+    }
+
+    public UserApiClient(Client client, LoadBalancer loadBalancer) {
+        this(new ApiRequestExecutor(client, loadBalancer));
+    }
+
+    public UserApiClient(ApiRequestExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Initialize the providers and JSON (de)serializers for {@code User} and {@code List<User>},
+     * and open the given number of connections to each endpoint.
+     *
+     * @see ApiRequestExecutor#warmUp(List, int)
+     */
+    public void warmUp(int connectionsPerEndpoint) {
+        var sampleUser = new User(0L, "warm_up", User.REDACTED_PASSWORD, "Warm Up");
+        executor.warmUp(List.of(
+                WarmUpSample.of(sampleUser, MediaType.APPLICATION_JSON_TYPE, User.class),
+                WarmUpSample.of(List.of(sampleUser), MediaType.APPLICATION_JSON_TYPE, USER_LIST_GENERIC_TYPE),
+                WarmUpSample.of(new UserImportResult(0, 0, 0), MediaType.APPLICATION_JSON_TYPE, UserImportResult.class)
+        ), connectionsPerEndpoint);
     }
 
     /**
      * GET /users/{id}
      */
     public Optional<User> getById(long id) {
-        var response = client.target(baseUri)
-                .path("/users/{id}")
-                .resolveTemplate("id", id)
-                .request()
-                .get();
-
-        var user = KiwiResponses.apply(response,
-                resp -> KiwiResponses.ok(resp) ? resp.readEntity(User.class) : null);
+        var user = executor.execute(GET_BY_ID,
+                target -> target.path("/users/{id}")
+                        .resolveTemplate("id", id)
+                        .request(),
+                SyncInvoker::get,
+                response -> KiwiResponses.ok(response) ? response.readEntity(User.class) : null);
 
         return Optional.ofNullable(user);
     }
 
+    /**
+     * GET /users/{id}, sending {@code If-None-Match} with the ETag of the cached user, if any.
+     *
+     * @param id     the user id
+     * @param cached the currently cached version of the user; may be null
+     * @return the cached user if the server says it is not modified (304), the user and its new ETag
+     * if it was modified, or an empty Optional if the user does not exist
+     */
+    public Optional<VersionedUser> getByIdIfNoneMatch(long id, VersionedUser cached) {
+        var etag = Optional.ofNullable(cached).map(VersionedUser::etag).orElse(null);
+
+        return executor.execute(GET_BY_ID,
+                target -> target.path("/users/{id}")
+                        .resolveTemplate("id", id)
+                        .request()
+                        .header(HttpHeaders.IF_NONE_MATCH, etag),
+                SyncInvoker::get,
+                response -> {
+                    if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode() && cached != null) {
+                        return Optional.of(cached);
+                    } else if (KiwiResponses.ok(response)) {
+                        var user = response.readEntity(User.class);
+                        return Optional.of(new VersionedUser(user, response.getHeaderString(HttpHeaders.ETAG)));
+                    } else if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                        return Optional.empty();
+                    }
+
+                    throw new IllegalStateException(f("Received {} response from /users/{}", response.getStatus(), id));
+                });
+    }
+
+    /**
+     * GET /users?id={id1}&amp;id={id2}...
+     * <p>
+     * Users that do not exist are not included in the result.
+     */
+    public List<User> getByIds(Collection<Long> ids) {
+        KiwiPreconditions.checkArgumentNotNull(ids, "ids must not be null");
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return executor.execute(GET_BY_IDS,
+                target -> target.path("/users")
+                        .queryParam("id", ids.toArray())
+                        .request(),
+                SyncInvoker::get,
+                response -> KiwiResponses.onSuccessWithResultOrFailureThrow(response,
+                        successResponse -> successResponse.readEntity(USER_LIST_GENERIC_TYPE),
+                        failResponse -> new IllegalStateException(
+                                f("Received {} response from /users?id=...", failResponse.getStatus()))
+                ));
+    }
+
     /**
      * GET /users
      */
     public List<User> list() {
-        var response = client.target(baseUri)
-                .path("/users")
-                .request()
-                .get();
+        return executor.execute(LIST,
+                target -> target.path("/users")
+                        .request(),
+                SyncInvoker::get,
+                response -> KiwiResponses.onSuccessWithResultOrFailureThrow(response,
+                        successResponse -> successResponse.readEntity(USER_LIST_GENERIC_TYPE),
+                        failResponse -> new IllegalStateException(
+                                f("Received {} response from /users", failResponse.getStatus()))
+                ));
+    }
+
+    /**
+     * GET /users, publishing the users one at a time as the subscriber requests them, instead
+     * of reading the whole list into memory. Users are only read from the connection while the
+     * subscriber has outstanding demand, so a slow subscriber slows down the server.
+     * <p>
+     * Each subscription sends its own request when the subscriber first requests users.
+     *
+     * <p>
+     * Users are parsed with a default {@code ObjectMapper}, so Jackson modules registered with
+     * the client do not apply. Use {@link #listPublisher(Executor, ObjectMapper)} to pass the
+     * client's mapper.
+     *
+     * @param subscriptionExecutor runs the request for each subscription, using one thread until
+     *                             the listing completes, fails, or is cancelled
+     */
+    public Flow.Publisher<User> listPublisher(Executor subscriptionExecutor) {
+        return listPublisher(subscriptionExecutor, UserListPublisher.DEFAULT_OBJECT_MAPPER);
+    }
 
-        return KiwiResponses.onSuccessWithResultOrFailureThrow(response,
-                successResponse -> successResponse.readEntity(USER_LIST_GENERIC_TYPE),
-                failResponse -> new IllegalStateException(
-                        f("Received {} response from /users", failResponse.getStatus()))
-        );
+    /**
+     * Same as {@link #listPublisher(Executor)}, but parses users with the given {@code ObjectMapper},
+     * which should be the one the client uses, so that its modules apply.
+     *
+     * @param subscriptionExecutor runs the request for each subscription, using one thread until
+     *                             the listing completes, fails, or is cancelled
+     * @param objectMapper         parses the users
+     */
+    public Flow.Publisher<User> listPublisher(Executor subscriptionExecutor, ObjectMapper objectMapper) {
+        return new UserListPublisher(executor, subscriptionExecutor, objectMapper);
+    }
+
+    /**
+     * GET /users/changes?since={version}
+     * <p>
+     * Use version 0 to get the whole directory.
+     *
+     * @see com.acme.client.replica.UserReplica
+     */
+    public UserChanges changesSince(long version) {
+        return executor.execute(CHANGES,
+                target -> target.path("/users/changes")
+                        .queryParam("since", version)
+                        .request(),
+                SyncInvoker::get,
+                response -> KiwiResponses.onSuccessWithResultOrFailureThrow(response,
+                        successResponse -> successResponse.readEntity(UserChanges.class),
+                        failResponse -> new IllegalStateException(
+                                f("Received {} response from /users/changes", failResponse.getStatus()))
+                ));
     }
 
     /**
@@ -64,18 +230,69 @@ public class UserApiClient {
     public User create(User newUser) {
         KiwiPreconditions.checkArgumentIsNull(newUser.id(), "new user must not have an id");
 
-        var response = client.target(baseUri)
-                .path("/users")
-                .request()
-                .post(Entity.json(newUser));
+        return executor.execute(CREATE,
+                target -> target.path("/users")
+                        .request(),
+                request -> request.post(Entity.json(newUser)),
+                response -> {
+                    var createdUser = KiwiResponses.created(response) ? response.readEntity(User.class) : null;
+
+                    return Optional.ofNullable(createdUser)
+                            .map(User::withRedactedPassword)
+                            .orElseThrow(() -> new IllegalStateException(
+                                    f("Failed to create user (response code: {})", response.getStatus())));
+                });
+    }
+
+    /**
+     * POST /users with a new, random {@value #IDEMPOTENCY_KEY_HEADER} header.
+     *
+     * @see #createIdempotently(User, String)
+     */
+    public CreatedUser createIdempotently(User newUser) {
+        return createIdempotently(newUser, UUID.randomUUID().toString());
+    }
+
+    /**
+     * POST /users with the given {@value #IDEMPOTENCY_KEY_HEADER} header.
+     * <p>
+     * The same key is sent with every attempt, so unlike {@link #create(User)}, the request is
+     * retried according to the executor's {@link RetryPolicy}, and the server creates the user
+     * at most once. To make an import restartable, derive the key from the source record (e.g.
+     * the import file and line) so that re-running the import sends the same keys again, and
+     * users created by the earlier run are {@link CreatedUser.Outcome#REPLAYED replayed}.
+     *
+     * @throws IdempotencyConflictException if a request with the same key is still in progress (409),
+     *                                       or the key was used for a different user (422)
+     * @throws IllegalStateException         if the create failed for any other reason
+     */
+    public CreatedUser createIdempotently(User newUser, String idempotencyKey) {
+        KiwiPreconditions.checkArgumentIsNull(newUser.id(), "new user must not have an id");
+        KiwiPreconditions.checkArgumentNotBlank(idempotencyKey, "idempotencyKey must not be blank");
 
-        var createdUser = KiwiResponses.apply(response,
-                resp -> KiwiResponses.created(resp) ? resp.readEntity(User.class) : null);
+        return executor.execute(CREATE_IDEMPOTENTLY,
+                target -> target.path("/users")
+                        .request()
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey),
+                request -> request.post(Entity.json(newUser)),
+                response -> {
+                    if (KiwiResponses.successful(response)) {
+                        var createdUser = response.readEntity(User.class).withRedactedPassword();
+                        var replayed = Boolean.parseBoolean(response.getHeaderString(IDEMPOTENT_REPLAYED_HEADER));
+                        return new CreatedUser(createdUser, idempotencyKey,
+                                replayed ? CreatedUser.Outcome.REPLAYED : CreatedUser.Outcome.CREATED);
+                    } else if (response.getStatus() == Response.Status.CONFLICT.getStatusCode()) {
+                        throw new IdempotencyConflictException(
+                                f("A create with idempotency key {} is still in progress", idempotencyKey),
+                                idempotencyKey, IdempotencyConflictException.Reason.IN_PROGRESS);
+                    } else if (response.getStatus() == 422) {
+                        throw new IdempotencyConflictException(
+                                f("Idempotency key {} was already used for a different user", idempotencyKey),
+                                idempotencyKey, IdempotencyConflictException.Reason.KEY_MISMATCH);
+                    }
 
-        return Optional.ofNullable(createdUser)
-                .map(User::withRedactedPassword)
-                .orElseThrow(() -> new IllegalStateException(
-                        f("Failed to create user (response code: {})", response.getStatus())));
+                    throw new IllegalStateException(f("Failed to create user (response code: {})", response.getStatus()));
+                });
     }
 
     /**
@@ -85,18 +302,53 @@ public class UserApiClient {
         var id = existingUser.id();
         KiwiPreconditions.checkArgumentNotNull(id, "existing user must have an id");
 
-        var response = client.target(baseUri)
-                .path("/users/{id}")
-                .resolveTemplate("id", id)
-                .request()
-                .put(Entity.json(existingUser));
+        return executor.execute(UPDATE,
+                target -> target.path("/users/{id}")
+                        .resolveTemplate("id", id)
+                        .request(),
+                request -> request.put(Entity.json(existingUser)),
+                response -> {
+                    var updatedUser = KiwiResponses.ok(response) ? response.readEntity(User.class) : null;
+
+                    return Optional.ofNullable(updatedUser)
+                            .map(User::withRedactedPassword)
+                            .orElseThrow(() -> new IllegalStateException(
+                                    f("Failed to update user (response code: {})", response.getStatus())));
+                });
+    }
 
-        var updatedUser = KiwiResponses.apply(response, resp ->
-                KiwiResponses.ok(resp) ? resp.readEntity(User.class) : null);
+    /**
+     * POST /users/import
+     * <p>
+     * Streams a file of newline-delimited JSON users to the server in constant memory
+     * through a bounded buffer. The file is copied to the connection in fixed-size chunks
+     * using chunked transfer encoding, so memory use does not depend on its size.
+     */
+    public UserImportResult importUsers(Path ndjsonFile, UploadProgressListener progressListener) {
+        return importUsers(StreamingEntities.fromPath(ndjsonFile, progressListener));
+    }
+
+    /**
+     * POST /users/import
+     * <p>
+     * Streams newline-delimited JSON users read from the given input stream to the
+     * server, closing the input stream when done. Progress notifications report a
+     * total size of -1, since the size is not known in advance.
+     */
+    public UserImportResult importUsers(InputStream ndjson, UploadProgressListener progressListener) {
+        return importUsers(StreamingEntities.fromInputStream(ndjson, progressListener));
+    }
 
-        return Optional.ofNullable(updatedUser)
-                .map(User::withRedactedPassword)
-                .orElseThrow(() -> new IllegalStateException(
-                        f("Failed to update user (response code: {})", response.getStatus())));
+    private UserImportResult importUsers(StreamingOutput ndjson) {
+        return executor.execute(IMPORT_USERS,
+                target -> target.path("/users/import")
+                        .request()
+                        .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED),
+                request -> request.post(Entity.entity(ndjson, NDJSON_MEDIA_TYPE)),
+                response -> KiwiResponses.onSuccessWithResultOrFailureThrow(response,
+                        successResponse -> successResponse.readEntity(UserImportResult.class),
+                        failResponse -> new IllegalStateException(
+                                f("Failed to import users (response code: {})", failResponse.getStatus()))
+                ));
     }
 }
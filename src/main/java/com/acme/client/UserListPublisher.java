@@ -0,0 +1,218 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+
+import com.acme.client.priority.RequestPriority;
+import com.acme.model.User;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.SyncInvoker;
+import jakarta.ws.rs.core.Response;
+import org.kiwiproject.jaxrs.KiwiResponses;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the users from GET /users one at a time, as the subscriber requests them.
+ * <p>
+ * Each subscription makes its own request, once the subscriber first requests users. The
+ * response is parsed incrementally, and a user is only read from the connection when the
+ * subscriber has outstanding demand. While there is no demand, nothing is read, so the
+ * socket buffers fill up and TCP flow control pauses the server. Memory use is therefore
+ * bounded by the socket buffers, regardless of the number of users.
+ * <p>
+ * The request runs on the given executor, and holds a thread and a connection until the
+ * listing completes, fails, or is cancelled, so use an executor that can run one thread per
+ * active subscription. The caller's {@link Deadline} and {@link RequestPriority} at the
+ * time of subscription apply to the request.
+ * <p>
+ * Users are parsed with the given {@link ObjectMapper}, not the client's JSON provider, so
+ * pass the mapper the client uses if it has modules such as
+ * {@link com.acme.client.json.UserDeduplicationModule} registered.
+ */
+class UserListPublisher implements Flow.Publisher<User> {
+
+    static final ObjectMapper DEFAULT_OBJECT_MAPPER = Jackson.newObjectMapper();
+
+    private final ApiRequestExecutor executor;
+    private final Executor subscriptionExecutor;
+    private final ObjectMapper objectMapper;
+
+    UserListPublisher(ApiRequestExecutor executor, Executor subscriptionExecutor, ObjectMapper objectMapper) {
+        this.executor = executor;
+        this.subscriptionExecutor = requireNotNull(subscriptionExecutor, "subscriptionExecutor must not be null");
+        this.objectMapper = requireNotNull(objectMapper, "objectMapper must not be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super User> subscriber) {
+        requireNotNull(subscriber, "subscriber must not be null");
+        var subscription = new ListSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class ListSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super User> subscriber;
+        private final Deadline deadline;
+        private final RequestPriority priority;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demandAvailable = lock.newCondition();
+
+        private long demand;
+        private boolean started;
+        private boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        ListSubscription(Flow.Subscriber<? super User> subscriber) {
+            this.subscriber = subscriber;
+            this.deadline = Deadline.current().orElse(null);
+            this.priority = RequestPriority.current();
+        }
+
+        @Override
+        public void request(long n) {
+            boolean start;
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+
+                if (n <= 0) {
+                    invalidRequest = new IllegalArgumentException(f("request must be positive, but was {}", n));
+                    cancelled = true;
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                demandAvailable.signal();
+                start = !started;
+                started = true;
+            } finally {
+                lock.unlock();
+            }
+
+            if (start) {
+                startListing();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                demandAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void startListing() {
+            try {
+                subscriptionExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                subscriber.onError(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try (var ignoredPriority = priority.attach()) {
+                var completed = deadline == null ? list() : deadline.call(this::list);
+                if (completed) {
+                    subscriber.onComplete();
+                } else if (invalidRequest != null) {
+                    subscriber.onError(invalidRequest);
+                }
+            } catch (RuntimeException e) {
+                if (invalidRequest != null) {
+                    subscriber.onError(invalidRequest);
+                } else if (!isCancelled()) {
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        /**
+         * @return true if all users were published, false if the subscription was cancelled
+         */
+        private boolean list() {
+            return executor.execute(UserApiClient.LIST,
+                    target -> target.path("/users")
+                            .request(),
+                    SyncInvoker::get,
+                    this::publishUsers);
+        }
+
+        private boolean publishUsers(Response response) {
+            if (!KiwiResponses.successful(response)) {
+                throw new IllegalStateException(f("Received {} response from /users", response.getStatus()));
+            }
+
+            try (var parser = objectMapper.createParser(response.readEntity(InputStream.class))) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalStateException("Expected a JSON array from /users");
+                }
+
+                // Check for the end before waiting, since completing needs no demand
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (!awaitDemand()) {
+                        return false;
+                    }
+                    subscriber.onNext(parser.readValueAs(User.class));
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Wait until the subscriber requests more users, and take one unit of demand.
+         *
+         * @return true to publish another user, or false if the subscription was cancelled
+         */
+        private boolean awaitDemand() {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled) {
+                    demandAvailable.await();
+                }
+
+                if (cancelled) {
+                    return false;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException("Interrupted while waiting for subscriber demand", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
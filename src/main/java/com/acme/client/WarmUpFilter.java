@@ -0,0 +1,36 @@
+package com.acme.client;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Answers warm-up requests locally, so that {@link ApiRequestExecutor#warmUp} can exercise
+ * the client's message body readers and writers without contacting a server.
+ * <p>
+ * A warm-up request carries the sample entity in the {@link #SAMPLE_ENTITY_PROPERTY} request
+ * property, and this filter aborts it with a response containing that entity. Jersey writes
+ * the entity using the client's writers, and the executor then reads it back using the
+ * client's readers, which initializes the providers and the (de)serializers for the entity
+ * type. All other requests pass through unchanged.
+ * <p>
+ * Register this filter when building the {@code Client}, e.g.
+ * {@code ClientBuilder.newBuilder().register(WarmUpFilter.class)}.
+ */
+@Priority(Integer.MIN_VALUE)
+public class WarmUpFilter implements ClientRequestFilter {
+
+    /**
+     * The request property containing the sample {@link Entity} for a warm-up request.
+     */
+    public static final String SAMPLE_ENTITY_PROPERTY = WarmUpFilter.class.getName() + ".sampleEntity";
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (requestContext.getProperty(SAMPLE_ENTITY_PROPERTY) instanceof Entity<?> sample) {
+            requestContext.abortWith(Response.ok(sample.getEntity(), sample.getMediaType()).build());
+        }
+    }
+}
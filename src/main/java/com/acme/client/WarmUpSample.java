@@ -0,0 +1,33 @@
+package com.acme.client;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * A sample entity used to initialize a client's providers and (de)serializers for one entity
+ * type during {@link ApiRequestExecutor#warmUp warm-up}.
+ *
+ * @param entity       the sample entity and its media type
+ * @param responseType the type to read the sample back as
+ * @see WarmUpFilter
+ */
+public record WarmUpSample(Entity<?> entity, GenericType<?> responseType) {
+
+    public WarmUpSample {
+        requireNotNull(entity, "entity must not be null");
+        requireNotNull(responseType, "responseType must not be null");
+    }
+
+    public static <T> WarmUpSample of(T sample, MediaType mediaType, Class<T> type) {
+        return new WarmUpSample(Entity.entity(sample, mediaType), new GenericType<>(type));
+    }
+
+    public static <T> WarmUpSample of(T sample, MediaType mediaType, GenericType<T> type) {
+        var genericEntity = new GenericEntity<>(sample, type.getType());
+        return new WarmUpSample(Entity.entity(genericEntity, mediaType), type);
+    }
+}
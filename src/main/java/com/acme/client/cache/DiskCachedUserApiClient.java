@@ -0,0 +1,110 @@
+package com.acme.client.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.client.ApiRequestExecutor;
+import com.acme.client.UserApiClient;
+import com.acme.model.User;
+import com.acme.model.VersionedUser;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link UserApiClient} that keeps the users returned by {@link #getById(long)} in a
+ * {@link MappedUserCache}, so that they are still cached after a restart.
+ * <p>
+ * A cached user is returned without contacting the server until it is older than the
+ * {@code freshFor} duration. After that, it is revalidated with a conditional request using
+ * its ETag, which costs a round trip but no body when the user has not changed. If
+ * revalidation fails, e.g. because the server is unavailable, the stale cached user is
+ * returned. When nothing is cached, an error response returns an empty Optional, as
+ * {@link UserApiClient#getById(long)} does. Users updated through this client are removed from
+ * the cache.
+ * <p>
+ * Closing this client closes the cache.
+ */
+@Slf4j
+public class DiskCachedUserApiClient extends UserApiClient implements Closeable {
+
+    private final MappedUserCache cache;
+    private final Duration freshFor;
+    private final LongSupplier millisClock;
+
+    public DiskCachedUserApiClient(Client client, URI baseUri, MappedUserCache cache, Duration freshFor) {
+        this(ApiRequestExecutor.of(client, baseUri), cache, freshFor);
+    }
+
+    public DiskCachedUserApiClient(ApiRequestExecutor executor, MappedUserCache cache, Duration freshFor) {
+        this(executor, cache, freshFor, System::currentTimeMillis);
+    }
+
+    DiskCachedUserApiClient(ApiRequestExecutor executor,
+                            MappedUserCache cache,
+                            Duration freshFor,
+                            LongSupplier millisClock) {
+        super(executor);
+        this.cache = requireNotNull(cache, "cache must not be null");
+        this.freshFor = requireNotNull(freshFor, "freshFor must not be null");
+        checkArgument(!freshFor.isNegative(), "freshFor must not be negative");
+        this.millisClock = millisClock;
+    }
+
+    /**
+     * GET /users/{id}, using the cached user if it is fresh, and revalidating it otherwise.
+     *
+     * @return the user, the stale cached user if revalidation fails, or an empty Optional if the
+     * user does not exist or, when nothing is cached, the server returns an error response
+     */
+    @Override
+    public Optional<User> getById(long id) {
+        var cached = cache.get(id);
+        if (cached.isPresent() && isFresh(cached.get())) {
+            return Optional.of(cached.get().user().user());
+        }
+
+        var cachedUser = cached.map(MappedUserCache.Entry::user).orElse(null);
+        Optional<VersionedUser> current;
+        try {
+            current = getByIdIfNoneMatch(id, cachedUser);
+        } catch (ProcessingException | IllegalStateException e) {
+            if (cachedUser != null) {
+                log.warn("Unable to revalidate cached user {}; returning stale user", id, e);
+                return Optional.of(cachedUser.user());
+            } else if (e instanceof IllegalStateException) {
+                // an error response, for which the base getById returns empty
+                return Optional.empty();
+            }
+            throw e;
+        }
+
+        current.ifPresentOrElse(cache::put, () -> cache.remove(id));
+        return current.map(VersionedUser::user);
+    }
+
+    /**
+     * PUT /users/{id}, removing the user from the cache.
+     */
+    @Override
+    public User update(User existingUser) {
+        var updated = super.update(existingUser);
+        cache.remove(updated.id());
+        return updated;
+    }
+
+    private boolean isFresh(MappedUserCache.Entry entry) {
+        return millisClock.getAsLong() - entry.storedAtMillis() < freshFor.toMillis();
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
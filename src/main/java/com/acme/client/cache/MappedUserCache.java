@@ -0,0 +1,340 @@
+package com.acme.client.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.model.User;
+import com.acme.model.VersionedUser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent cache of users in a memory-mapped file, which survives restarts.
+ * <p>
+ * The file has a fixed size, set when it is created, so the cache never uses more disk space
+ * than allowed. It contains a small header followed by fixed-size slots, each holding at most
+ * one user. A user can be stored in any of the {@value #PROBE_LENGTH} slots following the slot
+ * its id hashes to; when they are all used, the user stored longest ago is evicted. Users
+ * that do not fit in a slot are not cached.
+ * <p>
+ * Slot layout ({@value #SLOT_SIZE} bytes):
+ * <pre>
+ * offset  size  field
+ *      0     1  state (0 = empty, 1 = used)
+ *      1     1  reserved
+ *      2     2  record length
+ *      4     4  CRC32 of the id, stored time, and record
+ *      8     8  user id
+ *     16     8  stored time (epoch millis)
+ *     24     *  record: ETag, username, name, each as a 2-byte length
+ *               (-1 for null) followed by UTF-8 bytes
+ * </pre>
+ * Passwords are never written to the file. Users read from the cache have the
+ * {@link User#REDACTED_PASSWORD redacted password}.
+ * A slot is marked empty while it is written, and checksummed, so a slot left incomplete by a
+ * crash is ignored. The file is mapped lazily on first use. All methods are thread-safe.
+ */
+@Slf4j
+public class MappedUserCache implements Closeable {
+
+    static final int SLOT_SIZE = 512;
+    static final int PROBE_LENGTH = 8;
+
+    private static final int MAGIC = 0x55534552;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 2;
+    private static final int CHECKSUM_OFFSET = 4;
+    private static final int ID_OFFSET = 8;
+    private static final int STORED_AT_OFFSET = 16;
+    private static final int RECORD_OFFSET = 24;
+    private static final int MAX_RECORD_LENGTH = SLOT_SIZE - RECORD_OFFSET;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+
+    private final Path file;
+    private final int slotCount;
+    private final LongSupplier millisClock;
+
+    private MappedByteBuffer buffer;
+    private boolean closed;
+
+    /**
+     * A cached user and the time it was stored.
+     *
+     * @param user           the user and its ETag
+     * @param storedAtMillis when the user was stored or last validated, in epoch millis
+     */
+    public record Entry(VersionedUser user, long storedAtMillis) {
+    }
+
+    /**
+     * @param file     the cache file, which is created if it does not exist
+     * @param maxBytes the maximum size of the file, which determines how many users it can hold
+     */
+    public MappedUserCache(Path file, long maxBytes) {
+        this(file, maxBytes, System::currentTimeMillis);
+    }
+
+    MappedUserCache(Path file, long maxBytes, LongSupplier millisClock) {
+        this.file = requireNotNull(file, "file must not be null");
+        checkArgument(maxBytes >= HEADER_SIZE + (long) SLOT_SIZE * PROBE_LENGTH,
+                "maxBytes must allow at least %s slots", PROBE_LENGTH);
+        checkArgument(maxBytes <= Integer.MAX_VALUE, "maxBytes must not exceed %s", Integer.MAX_VALUE);
+        this.slotCount = (int) ((maxBytes - HEADER_SIZE) / SLOT_SIZE);
+        this.millisClock = millisClock;
+    }
+
+    /**
+     * @return the maximum number of users the cache can hold
+     */
+    public int capacity() {
+        return slotCount;
+    }
+
+    public synchronized Optional<Entry> get(long id) {
+        var buf = buffer();
+        var slot = find(buf, id);
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(read(buf, slot));
+    }
+
+    /**
+     * Store a user, replacing any cached version of it and recording the current time.
+     *
+     * @return true if the user was stored, or false if it is too large for a slot
+     */
+    public synchronized boolean put(VersionedUser versionedUser) {
+        requireNotNull(versionedUser, "versionedUser must not be null");
+        var id = requireNotNull(versionedUser.user().id(), "user must have an id");
+
+        var record = encode(versionedUser);
+        if (isNull(record)) {
+            log.debug("User {} is too large to cache", id);
+            remove(id);
+            return false;
+        }
+
+        var buf = buffer();
+        var slot = find(buf, id);
+        if (slot < 0) {
+            slot = chooseSlot(buf, id);
+        }
+        write(buf, slot, id, millisClock.getAsLong(), record);
+        return true;
+    }
+
+    public synchronized void remove(long id) {
+        var buf = buffer();
+        var slot = find(buf, id);
+        if (slot >= 0) {
+            buf.put(offset(slot) + STATE_OFFSET, EMPTY);
+        }
+    }
+
+    /**
+     * Write any changes to disk. The cache can no longer be used after it is closed.
+     */
+    @Override
+    public synchronized void close() {
+        if (!isNull(buffer)) {
+            buffer.force();
+            buffer = null;
+        }
+        closed = true;
+    }
+
+    private MappedByteBuffer buffer() {
+        checkState(!closed, "cache is closed");
+        if (isNull(buffer)) {
+            buffer = map();
+        }
+        return buffer;
+    }
+
+    private MappedByteBuffer map() {
+        var size = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        try (var channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            var compatible = channel.size() == size;
+            var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (compatible && hasValidHeader(mapped)) {
+                log.info("Opened user cache {} with {} slots", file, slotCount);
+                return mapped;
+            }
+
+            log.info("Initializing user cache {} with {} slots", file, slotCount);
+            channel.truncate(0);
+            var initialized = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            writeHeader(initialized);
+            initialized.force();
+            return initialized;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map user cache file " + file, e);
+        }
+    }
+
+    private boolean hasValidHeader(ByteBuffer buf) {
+        return buf.getInt(0) == MAGIC &&
+                buf.getInt(4) == FORMAT_VERSION &&
+                buf.getInt(8) == SLOT_SIZE &&
+                buf.getInt(12) == slotCount;
+    }
+
+    private void writeHeader(ByteBuffer buf) {
+        buf.putInt(0, MAGIC);
+        buf.putInt(4, FORMAT_VERSION);
+        buf.putInt(8, SLOT_SIZE);
+        buf.putInt(12, slotCount);
+    }
+
+    private int find(ByteBuffer buf, long id) {
+        var home = homeSlot(id);
+        for (var i = 0; i < PROBE_LENGTH; i++) {
+            var slot = (home + i) % slotCount;
+            var offset = offset(slot);
+            if (buf.get(offset + STATE_OFFSET) == USED && buf.getLong(offset + ID_OFFSET) == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Choose an empty slot in the probe window, or else the slot stored longest ago.
+     */
+    private int chooseSlot(ByteBuffer buf, long id) {
+        var home = homeSlot(id);
+        var oldestSlot = home;
+        var oldestStoredAt = Long.MAX_VALUE;
+        for (var i = 0; i < PROBE_LENGTH; i++) {
+            var slot = (home + i) % slotCount;
+            var offset = offset(slot);
+            if (buf.get(offset + STATE_OFFSET) != USED) {
+                return slot;
+            }
+
+            var storedAt = buf.getLong(offset + STORED_AT_OFFSET);
+            if (storedAt < oldestStoredAt) {
+                oldestSlot = slot;
+                oldestStoredAt = storedAt;
+            }
+        }
+        return oldestSlot;
+    }
+
+    private int homeSlot(long id) {
+        // Mix the bits, since ids are often sequential
+        var hash = id * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) slotCount);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static void write(ByteBuffer buf, int slot, long id, long storedAt, byte[] record) {
+        var offset = offset(slot);
+        buf.put(offset + STATE_OFFSET, EMPTY);
+        buf.putShort(offset + LENGTH_OFFSET, (short) record.length);
+        buf.putLong(offset + ID_OFFSET, id);
+        buf.putLong(offset + STORED_AT_OFFSET, storedAt);
+        buf.put(offset + RECORD_OFFSET, record);
+        buf.putInt(offset + CHECKSUM_OFFSET, checksum(id, storedAt, record));
+        buf.put(offset + STATE_OFFSET, USED);
+    }
+
+    private static Entry read(ByteBuffer buf, int slot) {
+        var offset = offset(slot);
+        var length = buf.getShort(offset + LENGTH_OFFSET);
+        if (length < 0 || length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+
+        var id = buf.getLong(offset + ID_OFFSET);
+        var storedAt = buf.getLong(offset + STORED_AT_OFFSET);
+        var record = new byte[length];
+        buf.get(offset + RECORD_OFFSET, record);
+        if (buf.getInt(offset + CHECKSUM_OFFSET) != checksum(id, storedAt, record)) {
+            return null;
+        }
+
+        var recordBuffer = ByteBuffer.wrap(record);
+        var etag = readString(recordBuffer);
+        var username = readString(recordBuffer);
+        var name = readString(recordBuffer);
+        var user = User.newWithRedactedPassword(id, username, name);
+        return new Entry(new VersionedUser(user, etag), storedAt);
+    }
+
+    /**
+     * @return the encoded record, or null if it does not fit in a slot
+     */
+    private static byte[] encode(VersionedUser versionedUser) {
+        var user = versionedUser.user();
+        var fields = new byte[][] {
+                bytes(versionedUser.etag()), bytes(user.username()), bytes(user.name())
+        };
+
+        var length = 0;
+        for (var field : fields) {
+            length += Short.BYTES + (isNull(field) ? 0 : field.length);
+        }
+        if (length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+
+        var recordBuffer = ByteBuffer.allocate(length);
+        for (var field : fields) {
+            if (isNull(field)) {
+                recordBuffer.putShort((short) -1);
+            } else {
+                recordBuffer.putShort((short) field.length);
+                recordBuffer.put(field);
+            }
+        }
+        return recordBuffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer recordBuffer) {
+        var length = recordBuffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+
+        var bytes = new byte[length];
+        recordBuffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(long id, long storedAt, byte[] record) {
+        var crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES * 2).putLong(id).putLong(storedAt).flip());
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
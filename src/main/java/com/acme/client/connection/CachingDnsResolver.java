@@ -0,0 +1,107 @@
+package com.acme.client.connection;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link DnsResolver} that caches the addresses of each host for a fixed time to live.
+ * <p>
+ * A lookup of a host with unexpired cached addresses does not go to DNS. {@link #refresh()}
+ * re-resolves the hosts whose addresses are more than half way through their time to live,
+ * so when it is called regularly, e.g. by a {@link ConnectionKeeper}, requests never wait for
+ * DNS. If a refresh fails, the cached addresses are kept until they expire.
+ * <p>
+ * Use it with clients built on Apache HttpClient, e.g. Dropwizard's
+ * {@code new JerseyClientBuilder(metrics).using(resolver)}. The JVM's own address cache
+ * ({@code networkaddress.cache.ttl}) still applies underneath the default delegate.
+ */
+@Slf4j
+public class CachingDnsResolver implements DnsResolver {
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, CachedAddresses> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl how long to use resolved addresses before resolving the host again
+     */
+    public CachingDnsResolver(Duration ttl) {
+        this(SystemDefaultDnsResolver.INSTANCE, ttl, System::nanoTime);
+    }
+
+    CachingDnsResolver(DnsResolver delegate, Duration ttl, LongSupplier nanoClock) {
+        this.delegate = requireNotNull(delegate, "delegate must not be null");
+        requireNotNull(ttl, "ttl must not be null");
+        checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl must be positive");
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        var cached = cache.get(host);
+        var now = nanoClock.getAsLong();
+        if (cached != null && now - cached.resolvedAtNanos < ttlNanos) {
+            return cached.addresses.clone();
+        }
+
+        return resolveAndCache(host, now).clone();
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    /**
+     * Re-resolve each cached host whose addresses are more than half way through their time to live.
+     *
+     * @return the number of hosts that were re-resolved successfully
+     */
+    public int refresh() {
+        var refreshed = 0;
+        var now = nanoClock.getAsLong();
+        for (var entry : cache.entrySet()) {
+            if (now - entry.getValue().resolvedAtNanos < ttlNanos / 2) {
+                continue;
+            }
+
+            try {
+                resolveAndCache(entry.getKey(), now);
+                refreshed++;
+            } catch (UnknownHostException e) {
+                log.warn("Unable to refresh addresses of {}; using cached addresses until they expire",
+                        entry.getKey(), e);
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * @return the number of hosts with cached addresses, expired or not
+     */
+    public int cachedHostCount() {
+        return cache.size();
+    }
+
+    private InetAddress[] resolveAndCache(String host, long now) throws UnknownHostException {
+        var addresses = delegate.resolve(host);
+        cache.put(host, new CachedAddresses(addresses.clone(), now));
+        return addresses;
+    }
+
+    private record CachedAddresses(InetAddress[] addresses, long resolvedAtNanos) {
+    }
+}
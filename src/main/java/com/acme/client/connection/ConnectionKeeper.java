@@ -0,0 +1,145 @@
+package com.acme.client.connection;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNullElse;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.client.loadbalance.Endpoint;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps connections to each endpoint open, and cached DNS results fresh, in the background,
+ * so that requests after a quiet period, a scale-up or a pool eviction do not pay for DNS
+ * lookups and connects.
+ * <p>
+ * Every {@code interval}, the keeper refreshes the {@link CachingDnsResolver}, if there is
+ * one, and then sends {@code minConnectionsPerEndpoint} concurrent HEAD requests to each
+ * endpoint that is not ejected. Concurrent requests reuse idle pooled connections and open
+ * new ones only while fewer than that many are idle, so each endpoint ends up with at least
+ * that many warm connections, and their idle timers are reset. Endpoints with that many
+ * outstanding requests are already warm, and are skipped. Failures are logged, not thrown.
+ * <p>
+ * This only helps connectors that pool connections, and the interval should be shorter
+ * than both the pool's idle timeout and the server's keep-alive timeout. Close the keeper
+ * before closing the client.
+ */
+@Slf4j
+public class ConnectionKeeper implements Closeable {
+
+    private final Client client;
+    private final LoadBalancer loadBalancer;
+    private final int minConnectionsPerEndpoint;
+    private final Duration interval;
+    private final CachingDnsResolver dnsResolver;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService requestExecutor;
+    private volatile boolean started;
+
+    /**
+     * @param client                    the client whose connections to keep open; required
+     * @param loadBalancer              the endpoints to keep connections to; required
+     * @param minConnectionsPerEndpoint the number of connections to keep open to each endpoint; defaults to 1
+     * @param interval                  the time between refreshes; defaults to 30 seconds
+     * @param dnsResolver               the client's DNS resolver, refreshed before connections; may be null
+     */
+    @Builder
+    public ConnectionKeeper(Client client,
+                            LoadBalancer loadBalancer,
+                            Integer minConnectionsPerEndpoint,
+                            Duration interval,
+                            CachingDnsResolver dnsResolver) {
+        this.client = requireNotNull(client, "client must not be null");
+        this.loadBalancer = requireNotNull(loadBalancer, "loadBalancer must not be null");
+        this.minConnectionsPerEndpoint = requireNonNullElse(minConnectionsPerEndpoint, 1);
+        this.interval = requireNonNullElse(interval, Duration.ofSeconds(30));
+        this.dnsResolver = dnsResolver;
+
+        checkArgument(this.minConnectionsPerEndpoint > 0, "minConnectionsPerEndpoint must be positive");
+        checkArgument(!this.interval.isNegative() && !this.interval.isZero(), "interval must be positive");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("connection-keeper").setDaemon(true).build());
+        this.requestExecutor = Executors.newFixedThreadPool(
+                loadBalancer.endpoints().size() * this.minConnectionsPerEndpoint,
+                new ThreadFactoryBuilder().setNameFormat("connection-keeper-request-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Refresh now, and then every interval until closed.
+     *
+     * @return this keeper
+     * @throws IllegalStateException if already started
+     */
+    public ConnectionKeeper start() {
+        checkState(!started, "already started");
+        started = true;
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Refresh DNS results and connections now, waiting until done.
+     *
+     * @return the number of HEAD requests that received a response
+     */
+    public int refresh() {
+        if (dnsResolver != null) {
+            var refreshedHosts = dnsResolver.refresh();
+            log.trace("Refreshed addresses of {} hosts", refreshedHosts);
+        }
+
+        var futures = new ArrayList<CompletableFuture<Boolean>>();
+        for (var endpoint : loadBalancer.endpoints()) {
+            if (endpoint.isEjected() || endpoint.outstandingRequests() >= minConnectionsPerEndpoint) {
+                continue;
+            }
+            for (var i = 0; i < minConnectionsPerEndpoint; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> touchConnection(endpoint), requestExecutor));
+            }
+        }
+
+        return (int) futures.stream().map(CompletableFuture::join).filter(Boolean::booleanValue).count();
+    }
+
+    /**
+     * Stop refreshing. Does not close the client or its connections.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Connection keeper refresh failed", e);
+        }
+    }
+
+    private boolean touchConnection(Endpoint endpoint) {
+        try (var response = client.target(endpoint.uri()).request().head()) {
+            log.trace("Keep-warm HEAD request to {} returned {}", endpoint.uri(), response.getStatus());
+            return true;
+        } catch (ProcessingException e) {
+            log.warn("Keep-warm HEAD request to {} failed", endpoint.uri(), e);
+            return false;
+        }
+    }
+}
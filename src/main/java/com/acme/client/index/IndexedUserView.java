@@ -0,0 +1,113 @@
+package com.acme.client.index;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.client.UserApiClient;
+import com.acme.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A local, indexed view of the users, for lookups that the user service does not support
+ * directly, such as by username or by name prefix.
+ * <p>
+ * The view is loaded with {@link #refresh()}, and kept consistent with users created and
+ * updated through it, since it indexes the users returned by the server. Changes made by other
+ * clients are only seen after the next refresh.
+ * <p>
+ * A refresh builds a new index off to the side and then swaps it in, so lookups never block
+ * and never see a partially loaded view. Users created or updated while a refresh is in
+ * progress are also added to the new index.
+ */
+public class IndexedUserView {
+
+    private final UserApiClient apiClient;
+    private final Object writeLock = new Object();
+    private volatile UserIndex index = new UserIndex();
+
+    // Users written since the in-progress refresh started, or null if none is in progress; guarded by writeLock
+    private List<User> writesDuringRefresh;
+
+    public IndexedUserView(UserApiClient apiClient) {
+        this.apiClient = requireNotNull(apiClient, "apiClient must not be null");
+    }
+
+    /**
+     * Reload all users from the server, replacing the current contents of the view.
+     *
+     * @return the number of users loaded
+     */
+    public synchronized int refresh() {
+        synchronized (writeLock) {
+            writesDuringRefresh = new ArrayList<>();
+        }
+
+        try {
+            var users = apiClient.list();
+            var newIndex = new UserIndex();
+            newIndex.putAll(users);
+
+            synchronized (writeLock) {
+                newIndex.putAll(writesDuringRefresh);
+                index = newIndex;
+            }
+            return users.size();
+        } finally {
+            synchronized (writeLock) {
+                writesDuringRefresh = null;
+            }
+        }
+    }
+
+    /**
+     * Create a user on the server, and add the created user to the view.
+     *
+     * @see UserApiClient#create(User)
+     */
+    public User create(User newUser) {
+        var created = apiClient.create(newUser);
+        put(created);
+        return created;
+    }
+
+    /**
+     * Update a user on the server, and replace the user in the view.
+     *
+     * @see UserApiClient#update(User)
+     */
+    public User update(User existingUser) {
+        var updated = apiClient.update(existingUser);
+        put(updated);
+        return updated;
+    }
+
+    private void put(User user) {
+        synchronized (writeLock) {
+            index.put(user);
+            if (writesDuringRefresh != null) {
+                writesDuringRefresh.add(user);
+            }
+        }
+    }
+
+    public Optional<User> findById(long id) {
+        return index.findById(id);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return index.findByUsername(username);
+    }
+
+    /**
+     * @see UserIndex#findByNamePrefix(String, int)
+     */
+    public List<User> findByNamePrefix(String prefix, int limit) {
+        return index.findByNamePrefix(prefix, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,125 @@
+package com.acme.client.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory indexes over a set of users: by id and username (hash indexes, constant time),
+ * and by name prefix (an ordered index, logarithmic time plus the number of matches).
+ * <p>
+ * Name lookups ignore case. Username lookups are exact, since usernames are unique.
+ * <p>
+ * Lookups never block and may run concurrently with updates. Updates are serialized, and a
+ * lookup that runs concurrently with an update may see the update in one index before another.
+ */
+public class UserIndex {
+
+    private static final char KEY_SEPARATOR = '\0';
+
+    private final Map<Long, User> byId = new ConcurrentHashMap<>();
+    private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, User> byName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Add a user, or replace the user with the same id.
+     */
+    public synchronized void put(User user) {
+        requireNotNull(user, "user must not be null");
+        checkArgument(!isNull(user.id()), "user must have an id");
+
+        var previous = byId.put(user.id(), user);
+        if (!isNull(previous)) {
+            unindex(previous);
+        }
+
+        byUsername.put(user.username(), user);
+        byName.put(nameKey(user), user);
+    }
+
+    /**
+     * Add or replace all the given users.
+     */
+    public void putAll(Collection<User> users) {
+        requireNotNull(users, "users must not be null");
+        users.forEach(this::put);
+    }
+
+    /**
+     * Remove the user with the given id, if present.
+     */
+    public synchronized void remove(long id) {
+        var previous = byId.remove(id);
+        if (!isNull(previous)) {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * Remove all users.
+     */
+    public synchronized void clear() {
+        byId.clear();
+        byUsername.clear();
+        byName.clear();
+    }
+
+    public Optional<User> findById(long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        requireNotNull(username, "username must not be null");
+        return Optional.ofNullable(byUsername.get(username));
+    }
+
+    /**
+     * Find users whose name starts with the given prefix, ignoring case, ordered by name.
+     *
+     * @param prefix the name prefix
+     * @param limit  the maximum number of users to return
+     */
+    public List<User> findByNamePrefix(String prefix, int limit) {
+        requireNotNull(prefix, "prefix must not be null");
+        checkArgument(limit > 0, "limit must be positive");
+
+        var normalized = normalize(prefix);
+        return byName.subMap(normalized, true, normalized + Character.MAX_VALUE, false)
+                .values()
+                .stream()
+                .limit(limit)
+                .toList();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void unindex(User user) {
+        byUsername.remove(user.username(), user);
+        byName.remove(nameKey(user), user);
+    }
+
+    /**
+     * The name index key is the normalized name followed by the id, so that users with the
+     * same name have distinct keys, and are ordered by name.
+     */
+    private static String nameKey(User user) {
+        return normalize(user.name()) + KEY_SEPARATOR + user.id();
+    }
+
+    private static String normalize(String name) {
+        return isNull(name) ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
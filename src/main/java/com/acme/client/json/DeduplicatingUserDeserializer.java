@@ -0,0 +1,85 @@
+package com.acme.client.json;
+
+import com.acme.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializes {@link User}s, taking names from a {@link StringPool}, and using the
+ * {@link User#REDACTED_PASSWORD} constant for redacted passwords.
+ * <p>
+ * Usernames are unique, so pooling them would only evict names from the pool. Passwords
+ * other than the redacted placeholder are never pooled, so they are not retained after
+ * their user is discarded. Unknown properties are ignored.
+ */
+class DeduplicatingUserDeserializer extends StdDeserializer<User> {
+
+    private final transient StringPool pool;
+
+    DeduplicatingUserDeserializer(StringPool pool) {
+        super(User.class);
+        this.pool = pool;
+    }
+
+    @Override
+    public User deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (User) context.handleUnexpectedToken(User.class, parser);
+        }
+
+        Long id = null;
+        String username = null;
+        String password = null;
+        String name = null;
+
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            var field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+                case "username" -> username = readString(parser, context);
+                case "password" -> password = readPassword(parser, context);
+                case "name" -> name = readPooledString(parser, context);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new User(id, username, password, name);
+    }
+
+    private String readPooledString(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> pool.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            default -> (String) context.handleUnexpectedToken(String.class, parser);
+        };
+    }
+
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> parser.getText();
+            default -> (String) context.handleUnexpectedToken(String.class, parser);
+        };
+    }
+
+    private static String readPassword(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> isRedacted(parser) ? User.REDACTED_PASSWORD : parser.getText();
+            default -> (String) context.handleUnexpectedToken(String.class, parser);
+        };
+    }
+
+    private static boolean isRedacted(JsonParser parser) throws IOException {
+        return StringPool.contentEquals(User.REDACTED_PASSWORD,
+                parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+}
@@ -0,0 +1,120 @@
+package com.acme.client.json;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A fixed-size pool of canonical strings, used to deduplicate strings that repeat across
+ * many deserialized objects.
+ * <p>
+ * Each string is stored in a slot chosen by its hash code, replacing whatever was there, so
+ * the pool never grows and never needs to be cleared. Frequent values stay in the pool,
+ * while a rare value costs at most one slot until it is replaced. Strings longer than the
+ * maximum length are not pooled, since long values are rarely repeated.
+ * <p>
+ * This class is thread-safe without locking. Slots are read and written without
+ * synchronization, but strings are immutable, so a thread either sees a complete string
+ * or an older one, and the worst outcome of a race is a missed deduplication.
+ */
+public class StringPool {
+
+    /**
+     * The default maximum length of pooled strings.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    private final String[] slots;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    public StringPool(int capacity) {
+        this(capacity, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity  the number of slots, rounded up to a power of two
+     * @param maxLength the maximum length of strings to pool
+     */
+    public StringPool(int capacity, int maxLength) {
+        checkArgument(capacity > 0 && capacity <= (1 << 24), "capacity must be between 1 and 2^24");
+        checkArgument(maxLength >= 0, "maxLength must not be negative");
+        var size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return the pooled string equal to the given string, or the given string, which is
+     * pooled if it is not too long
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+
+        var index = slotIndex(value.hashCode());
+        var pooled = slots[index];
+        if (value.equals(pooled)) {
+            return pooled;
+        }
+
+        slots[index] = value;
+        return value;
+    }
+
+    /**
+     * Intern a string given as a range of characters, only creating a new string if the pool
+     * does not contain an equal one. This lets parsers deduplicate values without allocating.
+     *
+     * @return the pooled string equal to the characters, or a new string for them
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        var hash = 0;
+        for (var i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        var index = slotIndex(hash);
+        var pooled = slots[index];
+        if (pooled != null && contentEquals(pooled, chars, offset, length)) {
+            return pooled;
+        }
+
+        var value = new String(chars, offset, length);
+        slots[index] = value;
+        return value;
+    }
+
+    /**
+     * Spread the high bits of the hash code into the low bits used for the index, like HashMap.
+     */
+    private int slotIndex(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    static boolean contentEquals(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (var i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.acme.client.json;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.model.User;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * A Jackson module that deduplicates the strings of deserialized {@link User}s.
+ * <p>
+ * Large user lists repeat many values, such as common names and the redacted password
+ * placeholder, and by default each occurrence becomes a separate {@code String}. With this
+ * module, names are taken from a bounded {@link StringPool}, and redacted
+ * passwords are the {@link User#REDACTED_PASSWORD} constant. Register the module with the
+ * {@code ObjectMapper} used by the client, e.g. for a Dropwizard client:
+ * <pre>
+ * var objectMapper = Jackson.newObjectMapper().registerModule(new UserDeduplicationModule());
+ * var client = new JerseyClientBuilder(metrics).using(config).using(executorService, objectMapper).build("users");
+ * </pre>
+ * Pass the same mapper to {@code UserApiClient.listPublisher(Executor, ObjectMapper)}, which
+ * parses users itself.
+ */
+public class UserDeduplicationModule extends SimpleModule {
+
+    /**
+     * The default number of pool slots, enough for the distinct common values of a large directory.
+     */
+    public static final int DEFAULT_POOL_CAPACITY = 16_384;
+
+    public UserDeduplicationModule() {
+        this(new StringPool(DEFAULT_POOL_CAPACITY));
+    }
+
+    public UserDeduplicationModule(StringPool pool) {
+        super(UserDeduplicationModule.class.getSimpleName());
+        requireNotNull(pool, "pool must not be null");
+        addDeserializer(User.class, new DeduplicatingUserDeserializer(pool));
+    }
+}
@@ -0,0 +1,191 @@
+package com.acme.client.latency;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNullElse;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Read timeouts derived from the latencies observed for each operation.
+ * <p>
+ * The latency of each request, from sending it until its response headers arrive, is recorded
+ * in a {@link RollingLatencyHistogram} for its operation. Once an operation has at least
+ * {@code minSamples} latencies in the window, its read timeout is the observed percentile
+ * (p99 by default) times the multiplier, limited to the floor and ceiling. Until then, the
+ * client's configured read timeout is used. Timeouts are recomputed at most once a second.
+ * <p>
+ * Requests that time out are recorded with {@link #recordTimeout(String, long)}, as the time
+ * they waited divided by the multiplier. They can then raise the percentile at most to the
+ * timeout they were given, so a backend that stops responding holds the timeout where it is,
+ * rather than ratcheting it up by the multiplier on each recompute until it reaches the ceiling.
+ * <p>
+ * Use {@link #disabled()} to keep the client's fixed timeouts.
+ */
+public class AdaptiveTimeouts {
+
+    private static final AdaptiveTimeouts DISABLED = new AdaptiveTimeouts();
+    private static final int SLICES = 6;
+    private static final Duration RECOMPUTE_INTERVAL = Duration.ofSeconds(1);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double multiplier;
+    private final Duration floor;
+    private final Duration ceiling;
+    private final int minSamples;
+    private final Duration window;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, OperationLatencies> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * @param percentile the observed percentile to base timeouts on; defaults to 99
+     * @param multiplier the multiple of the percentile to use as the timeout; defaults to 3
+     * @param floor      the shortest timeout; required
+     * @param ceiling    the longest timeout; required
+     * @param minSamples the number of latencies needed before adapting; defaults to 100
+     * @param window     the length of the rolling window; defaults to one minute
+     */
+    @Builder
+    public AdaptiveTimeouts(Double percentile,
+                            Double multiplier,
+                            Duration floor,
+                            Duration ceiling,
+                            Integer minSamples,
+                            Duration window) {
+        this(percentile, multiplier, floor, ceiling, minSamples, window, System::nanoTime);
+    }
+
+    AdaptiveTimeouts(Double percentile,
+                     Double multiplier,
+                     Duration floor,
+                     Duration ceiling,
+                     Integer minSamples,
+                     Duration window,
+                     LongSupplier nanoClock) {
+        this.enabled = true;
+        this.percentile = requireNonNullElse(percentile, 99.0);
+        this.multiplier = requireNonNullElse(multiplier, 3.0);
+        this.floor = requireNotNull(floor, "floor must not be null");
+        this.ceiling = requireNotNull(ceiling, "ceiling must not be null");
+        this.minSamples = requireNonNullElse(minSamples, 100);
+        this.window = requireNonNullElse(window, Duration.ofMinutes(1));
+        this.nanoClock = nanoClock;
+
+        checkArgument(this.percentile > 0.0 && this.percentile <= 100.0, "percentile must be greater than 0 and at most 100");
+        checkArgument(this.multiplier >= 1.0, "multiplier must be at least 1");
+        checkArgument(!floor.isNegative() && !floor.isZero(), "floor must be positive");
+        checkArgument(ceiling.compareTo(floor) >= 0, "ceiling must not be less than floor");
+        checkArgument(this.minSamples > 0, "minSamples must be positive");
+    }
+
+    private AdaptiveTimeouts() {
+        this.enabled = false;
+        this.percentile = 0;
+        this.multiplier = 0;
+        this.floor = null;
+        this.ceiling = null;
+        this.minSamples = 0;
+        this.window = null;
+        this.nanoClock = null;
+    }
+
+    /**
+     * @return adaptive timeouts that neither record latencies nor change timeouts
+     */
+    public static AdaptiveTimeouts disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Record the latency of a request for the given operation.
+     */
+    public void record(String operationName, long latencyNanos) {
+        if (enabled) {
+            latenciesFor(operationName).histogram.record(latencyNanos);
+        }
+    }
+
+    /**
+     * Record a request for the given operation that timed out after waiting the given time. The
+     * wait is the timeout the request was given, and is recorded divided by the multiplier, and
+     * rounded down to a histogram bucket bound, so that it does not produce a longer timeout than
+     * the one it exceeded.
+     */
+    public void recordTimeout(String operationName, long waitedNanos) {
+        if (enabled) {
+            var micros = Math.round(waitedNanos / multiplier / 1_000.0);
+            var recordedMicros = RollingLatencyHistogram.roundDownToBucketUpperBoundMicros(micros);
+            latenciesFor(operationName).histogram.record(TimeUnit.MICROSECONDS.toNanos(recordedMicros));
+        }
+    }
+
+    /**
+     * @return the adapted read timeout for the given operation, or an empty Optional if adaptive
+     * timeouts are disabled or there are too few latencies to adapt
+     */
+    public Optional<Duration> readTimeoutFor(String operationName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        var operationLatencies = latencies.get(operationName);
+        return operationLatencies == null ? Optional.empty() : operationLatencies.readTimeout();
+    }
+
+    /**
+     * @return the given percentile of the latencies observed for the operation, if any, e.g. for metrics
+     */
+    public Optional<Duration> observedLatency(String operationName, double percentile) {
+        return Optional.ofNullable(latencies.get(operationName)).flatMap(ops -> ops.histogram.percentile(percentile));
+    }
+
+    private Duration timeoutFor(Duration observed) {
+        var timeout = Duration.ofNanos((long) Math.min(observed.toNanos() * multiplier, Long.MAX_VALUE));
+        if (timeout.compareTo(floor) < 0) {
+            return floor;
+        }
+        return timeout.compareTo(ceiling) > 0 ? ceiling : timeout;
+    }
+
+    private OperationLatencies latenciesFor(String operationName) {
+        var operationLatencies = latencies.get(operationName);
+        if (operationLatencies != null) {
+            return operationLatencies;
+        }
+        return latencies.computeIfAbsent(operationName, name -> new OperationLatencies());
+    }
+
+    /**
+     * The latencies of one operation, and its read timeout, which is recomputed at most once per
+     * {@link #RECOMPUTE_INTERVAL} since merging the histogram slices costs more than a request should.
+     */
+    private final class OperationLatencies {
+
+        private final RollingLatencyHistogram histogram = new RollingLatencyHistogram(window, SLICES, nanoClock);
+        private volatile CachedTimeout cached = new CachedTimeout(Optional.empty(), Long.MIN_VALUE);
+
+        Optional<Duration> readTimeout() {
+            var current = cached;
+            var now = nanoClock.getAsLong();
+            if (current.computedAtNanos != Long.MIN_VALUE && now - current.computedAtNanos < RECOMPUTE_INTERVAL.toNanos()) {
+                return current.timeout;
+            }
+
+            var timeout = histogram.count() < minSamples ?
+                    Optional.<Duration>empty() : histogram.percentile(percentile).map(AdaptiveTimeouts.this::timeoutFor);
+            cached = new CachedTimeout(timeout, now);
+            return timeout;
+        }
+    }
+
+    private record CachedTimeout(Optional<Duration> timeout, long computedAtNanos) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.acme.client.latency;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A histogram of the latencies recorded during a rolling time window.
+ * <p>
+ * The window is divided into slices, and each slice counts latencies in log-linear buckets:
+ * exact below 16 microseconds, then eight buckets per power of two, so percentiles are
+ * accurate to within 12.5%. When the window moves on, the oldest slice is cleared and reused,
+ * so old latencies drop out in steps of one slice. Recording is lock-free except for the
+ * first recording in a new slice.
+ */
+public class RollingLatencyHistogram {
+
+    private static final int EXACT_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Enough buckets for any latency that fits in a long number of microseconds.
+     */
+    private static final int BUCKET_COUNT = EXACT_BUCKETS + (63 - 4 + 1) * SUB_BUCKETS;
+
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param window     the length of the rolling window
+     * @param sliceCount the number of slices the window is divided into
+     */
+    public RollingLatencyHistogram(Duration window, int sliceCount) {
+        this(window, sliceCount, System::nanoTime);
+    }
+
+    RollingLatencyHistogram(Duration window, int sliceCount, LongSupplier nanoClock) {
+        requireNotNull(window, "window must not be null");
+        checkArgument(sliceCount > 0, "sliceCount must be positive");
+        checkArgument(window.toNanos() >= sliceCount, "window must be longer than one nanosecond per slice");
+        this.sliceNanos = window.toNanos() / sliceCount;
+        this.nanoClock = nanoClock;
+        this.slices = new Slice[sliceCount];
+        for (var i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    /**
+     * Record a latency.
+     */
+    public void record(long latencyNanos) {
+        var micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, latencyNanos));
+        currentSlice().counts.incrementAndGet(bucketIndex(micros));
+    }
+
+    /**
+     * @return the number of latencies in the window
+     */
+    public long count() {
+        var counts = windowCounts();
+        var total = 0L;
+        for (var count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Get the given percentile of the latencies in the window, rounded up to the upper bound of
+     * its bucket, so that the result is never lower than the true percentile.
+     *
+     * @param percentile the percentile, from 0.0 (exclusive) to 100.0 (inclusive)
+     * @return the latency, or an empty Optional if there are no latencies in the window
+     */
+    public Optional<Duration> percentile(double percentile) {
+        checkArgument(percentile > 0.0 && percentile <= 100.0, "percentile must be greater than 0 and at most 100");
+
+        var counts = windowCounts();
+        var total = 0L;
+        for (var count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return Optional.empty();
+        }
+
+        var rank = (long) Math.ceil(total * percentile / 100.0);
+        var seen = 0L;
+        for (var i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Optional.of(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(bucketUpperBoundMicros(i))));
+            }
+        }
+        return Optional.of(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(bucketUpperBoundMicros(counts.length - 1))));
+    }
+
+    private Slice currentSlice() {
+        var tick = nanoClock.getAsLong() / sliceNanos;
+        var slice = slices[(int) Math.floorMod(tick, (long) slices.length)];
+        if (slice.tick != tick) {
+            slice.advanceTo(tick);
+        }
+        return slice;
+    }
+
+    private long[] windowCounts() {
+        var currentTick = nanoClock.getAsLong() / sliceNanos;
+        var counts = new long[BUCKET_COUNT];
+        for (var slice : slices) {
+            var tick = slice.tick;
+            if (tick <= currentTick && tick > currentTick - slices.length) {
+                for (var i = 0; i < BUCKET_COUNT; i++) {
+                    counts[i] += slice.counts.get(i);
+                }
+            }
+        }
+        return counts;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < EXACT_BUCKETS) {
+            return (int) micros;
+        }
+        var exponent = 63 - Long.numberOfLeadingZeros(micros);
+        var subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest bucket upper bound that is at most the given latency, so that a latency
+     * recorded with that value is never reported as more than the given latency
+     */
+    static long roundDownToBucketUpperBoundMicros(long micros) {
+        var index = bucketIndex(Math.max(0, micros));
+        var upperBound = bucketUpperBoundMicros(index);
+        return upperBound <= micros || index == 0 ? upperBound : bucketUpperBoundMicros(index - 1);
+    }
+
+    static long bucketUpperBoundMicros(int index) {
+        if (index < EXACT_BUCKETS) {
+            return index;
+        }
+        var exponent = (index - EXACT_BUCKETS) / SUB_BUCKETS + 4;
+        var subBucket = (index - EXACT_BUCKETS) % SUB_BUCKETS;
+        var width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    private static final class Slice {
+
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        volatile long tick = Long.MIN_VALUE;
+
+        /**
+         * Clear this slice for a new tick. Latencies recorded by other threads while it is being
+         * cleared may be lost, which is acceptable for a statistical histogram.
+         */
+        synchronized void advanceTo(long newTick) {
+            if (tick == newTick) {
+                return;
+            }
+            for (var i = 0; i < BUCKET_COUNT; i++) {
+                counts.set(i, 0);
+            }
+            tick = newTick;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.acme.client.loadbalance;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.time.Duration;
+
+/**
+ * Passive health checking policy used to eject endpoints based on their observed error rate.
+ *
+ * @param failureRateThreshold the failure rate (0.0 to 1.0) at or above which an endpoint is ejected
+ * @param minimumRequests      the minimum number of requests in a window before the failure rate is evaluated
+ * @param window               the length of the window in which requests and failures are counted
+ * @param ejectionDuration     how long an ejected endpoint stays out of rotation
+ */
+public record EjectionPolicy(
+        double failureRateThreshold,
+        int minimumRequests,
+        Duration window,
+        Duration ejectionDuration
+) {
+
+    public EjectionPolicy {
+        checkArgument(failureRateThreshold > 0.0 && failureRateThreshold <= 1.0,
+                "failureRateThreshold must be greater than 0.0 and at most 1.0");
+        checkArgument(minimumRequests > 0, "minimumRequests must be positive");
+        requireNotNull(window, "window must not be null");
+        requireNotNull(ejectionDuration, "ejectionDuration must not be null");
+    }
+
+    /**
+     * @return a policy that ejects an endpoint for 30 seconds when at least half of
+     * 10 or more requests in a 10-second window fail
+     */
+    public static EjectionPolicy defaults() {
+        return new EjectionPolicy(0.5, 10, Duration.ofSeconds(10), Duration.ofSeconds(30));
+    }
+
+    /**
+     * @return a policy that never ejects endpoints
+     */
+    public static EjectionPolicy disabled() {
+        return new EjectionPolicy(1.0, Integer.MAX_VALUE, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * @return false if this policy can never eject an endpoint
+     */
+    public boolean enabled() {
+        return minimumRequests < Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,107 @@
+package com.acme.client.loadbalance;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * A single endpoint (base URI) managed by a {@link LoadBalancer}.
+ * <p>
+ * Tracks the number of outstanding requests, and the failure rate within the
+ * current {@link EjectionPolicy#window() window}. When the failure rate exceeds
+ * the policy's threshold, the endpoint is ejected for the configured duration.
+ */
+public class Endpoint {
+
+    @Getter
+    @Accessors(fluent = true)
+    private final URI uri;
+
+    private final EjectionPolicy ejectionPolicy;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+
+    private long windowStartNanos;
+    private long windowRequests;
+    private long windowFailures;
+    private volatile long ejectedUntilNanos;
+    private volatile boolean ejected;
+
+    Endpoint(URI uri, EjectionPolicy ejectionPolicy, LongSupplier nanoClock) {
+        this.uri = requireNotNull(uri, "uri must not be null");
+        this.ejectionPolicy = requireNotNull(ejectionPolicy, "ejectionPolicy must not be null");
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * @return the number of requests that have started but not yet completed
+     */
+    public int outstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * @return true if this endpoint is currently ejected and should not receive traffic
+     */
+    public boolean isEjected() {
+        if (ejected && nanoClock.getAsLong() - ejectedUntilNanos >= 0) {
+            ejected = false;
+        }
+        return ejected;
+    }
+
+    /**
+     * Record that a request to this endpoint has started.
+     */
+    public void requestStarted() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    /**
+     * Record that a request to this endpoint has completed.
+     *
+     * @param failed true if the request failed, e.g. a connection error or 5xx response
+     */
+    public void requestCompleted(boolean failed) {
+        outstandingRequests.decrementAndGet();
+        recordOutcome(failed);
+    }
+
+    private synchronized void recordOutcome(boolean failed) {
+        if (!ejectionPolicy.enabled()) {
+            return;
+        }
+
+        var now = nanoClock.getAsLong();
+        if (now - windowStartNanos >= ejectionPolicy.window().toNanos()) {
+            windowStartNanos = now;
+            windowRequests = 0;
+            windowFailures = 0;
+        }
+
+        ++windowRequests;
+        if (failed) {
+            ++windowFailures;
+        }
+
+        if (windowRequests >= ejectionPolicy.minimumRequests() &&
+                (double) windowFailures / windowRequests >= ejectionPolicy.failureRateThreshold()) {
+            ejectedUntilNanos = now + ejectionPolicy.ejectionDuration().toNanos();
+            ejected = true;
+            windowStartNanos = now;
+            windowRequests = 0;
+            windowFailures = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Endpoint{uri=" + uri + ", outstandingRequests=" + outstandingRequests() + ", ejected=" + ejected + "}";
+    }
+}
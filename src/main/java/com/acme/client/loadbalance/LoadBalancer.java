@@ -0,0 +1,81 @@
+package com.acme.client.loadbalance;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Selects an {@link Endpoint} for each request from a fixed set of endpoints
+ * using a {@link LoadBalancingStrategy}.
+ * <p>
+ * Endpoints that are currently ejected by the {@link EjectionPolicy} are skipped. If
+ * every endpoint is ejected, all endpoints are considered, since sending traffic to a
+ * possibly-unhealthy endpoint is better than failing every request.
+ */
+public class LoadBalancer {
+
+    private final List<Endpoint> endpoints;
+    private final LoadBalancingStrategy strategy;
+
+    public LoadBalancer(List<URI> uris, LoadBalancingStrategy strategy, EjectionPolicy ejectionPolicy) {
+        this(uris, strategy, ejectionPolicy, System::nanoTime);
+    }
+
+    LoadBalancer(List<URI> uris,
+                 LoadBalancingStrategy strategy,
+                 EjectionPolicy ejectionPolicy,
+                 LongSupplier nanoClock) {
+        requireNotNull(uris, "uris must not be null");
+        checkArgument(!uris.isEmpty(), "uris must not be empty");
+        requireNotNull(ejectionPolicy, "ejectionPolicy must not be null");
+
+        this.endpoints = uris.stream()
+                .map(uri -> new Endpoint(uri, ejectionPolicy, nanoClock))
+                .toList();
+        this.strategy = requireNotNull(strategy, "strategy must not be null");
+    }
+
+    /**
+     * Create a load balancer with a single endpoint, which is never ejected.
+     */
+    public static LoadBalancer singleEndpoint(URI uri) {
+        return new LoadBalancer(List.of(uri), LoadBalancingStrategy.roundRobin(), EjectionPolicy.disabled());
+    }
+
+    /**
+     * Create a round-robin load balancer using the default ejection policy.
+     */
+    public static LoadBalancer roundRobin(URI... uris) {
+        return new LoadBalancer(Arrays.asList(uris), LoadBalancingStrategy.roundRobin(), EjectionPolicy.defaults());
+    }
+
+    /**
+     * @return all endpoints, including ejected ones
+     */
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Select the endpoint to use for the next request.
+     */
+    public Endpoint select() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+
+        var available = new ArrayList<Endpoint>(endpoints.size());
+        for (var endpoint : endpoints) {
+            if (!endpoint.isEjected()) {
+                available.add(endpoint);
+            }
+        }
+
+        return strategy.choose(available.isEmpty() ? endpoints : available);
+    }
+}
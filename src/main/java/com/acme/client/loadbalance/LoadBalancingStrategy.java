@@ -0,0 +1,84 @@
+package com.acme.client.loadbalance;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses one endpoint from a list of candidate endpoints.
+ * <p>
+ * Implementations may be stateful, so each {@link LoadBalancer} should use its own instance.
+ */
+@FunctionalInterface
+public interface LoadBalancingStrategy {
+
+    /**
+     * @param candidates the endpoints to choose from; never empty
+     * @return the chosen endpoint
+     */
+    Endpoint choose(List<Endpoint> candidates);
+
+    /**
+     * @return a strategy that cycles through the candidates in order
+     */
+    static LoadBalancingStrategy roundRobin() {
+        var counter = new AtomicInteger();
+        return candidates -> candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * @return a strategy that chooses the candidate with the fewest outstanding requests,
+     * breaking ties by list order
+     */
+    static LoadBalancingStrategy leastOutstandingRequests() {
+        return candidates -> {
+            var chosen = candidates.get(0);
+            for (var i = 1; i < candidates.size(); i++) {
+                var candidate = candidates.get(i);
+                if (candidate.outstandingRequests() < chosen.outstandingRequests()) {
+                    chosen = candidate;
+                }
+            }
+            return chosen;
+        };
+    }
+
+    /**
+     * @return a strategy that picks two distinct candidates at random, and chooses
+     * the one with fewer outstanding requests
+     */
+    static LoadBalancingStrategy powerOfTwoChoices() {
+        return candidates -> chooseBetterOfTwo(candidates, ThreadLocalRandom.current());
+    }
+
+    /**
+     * @param random the source of the random picks, e.g. a seeded generator for repeatable tests;
+     *               must be thread-safe if the load balancer is used by several threads
+     * @return a strategy that picks two distinct candidates using the given generator, and
+     * chooses the one with fewer outstanding requests
+     */
+    static LoadBalancingStrategy powerOfTwoChoices(RandomGenerator random) {
+        requireNotNull(random, "random must not be null");
+        return candidates -> chooseBetterOfTwo(candidates, random);
+    }
+
+    private static Endpoint chooseBetterOfTwo(List<Endpoint> candidates, RandomGenerator random) {
+        var size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        var first = random.nextInt(size);
+        var second = random.nextInt(size - 1);
+        if (second >= first) {
+            ++second;
+        }
+
+        var a = candidates.get(first);
+        var b = candidates.get(second);
+        return b.outstandingRequests() < a.outstandingRequests() ? b : a;
+    }
+}
@@ -0,0 +1,25 @@
+package com.acme.client.logging;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * A sampled API call, as logged by a {@link SampledLoggingFilter}.
+ * <p>
+ * Bodies are truncated to the filter's maximum size and have their {@code password}
+ * fields redacted. A body that was not sent, or not read by the caller, is empty.
+ *
+ * @param method       the request method
+ * @param uri          the request URI
+ * @param status       the response status
+ * @param elapsed      the time from sending the request until its response was closed
+ * @param requestBody  the start of the request body
+ * @param responseBody the start of the response body, as far as the caller read it
+ */
+public record ApiCallLogRecord(String method,
+                               URI uri,
+                               int status,
+                               Duration elapsed,
+                               String requestBody,
+                               String responseBody) {
+}
@@ -0,0 +1,309 @@
+package com.acme.client.logging;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.model.User;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Logs a sample of API calls without slowing down the calls that are not sampled, or
+ * blocking the ones that are.
+ * <p>
+ * Unlike Jersey's {@code LoggingFeature}, this filter never buffers entities. It copies the
+ * first {@code maxBodyBytes} of each sampled body as the body is written or read, and hands
+ * the finished {@link ApiCallLogRecord} to a bounded queue when the response is closed. A
+ * single background thread takes records from the queue, redacts {@code password} fields,
+ * and passes them to the sink, which logs them by default. When the queue is full, records
+ * are dropped and counted, so a slow sink never holds up requests.
+ * <p>
+ * Calls that fail without a response are not logged. Register the filter when building the
+ * {@code Client}, e.g. {@code ClientBuilder.newBuilder().register(new SampledLoggingFilter(0.01))},
+ * and close it when closing the client.
+ */
+@Slf4j
+public class SampledLoggingFilter implements ClientRequestFilter, ClientResponseFilter, WriterInterceptor, Closeable {
+
+    public static final int DEFAULT_MAX_BODY_BYTES = 1_024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+
+    private static final String CALL_PROPERTY = SampledLoggingFilter.class.getName() + ".call";
+    private static final Pattern PASSWORD_FIELD = Pattern.compile("(\"password\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.?)*(?:\"|$)");
+    private static final String TRUNCATED = "...";
+
+    private final double samplingRate;
+    private final int maxBodyBytes;
+    private final BlockingQueue<ApiCallLogRecord> queue;
+    private final Consumer<ApiCallLogRecord> sink;
+    private final Thread writer;
+    private final AtomicLong loggedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Create a filter that logs sampled calls with the default body size and queue capacity.
+     *
+     * @param samplingRate the fraction of calls to log, from 0.0 to 1.0
+     */
+    public SampledLoggingFilter(double samplingRate) {
+        this(samplingRate, DEFAULT_MAX_BODY_BYTES, DEFAULT_QUEUE_CAPACITY, SampledLoggingFilter::logCall);
+    }
+
+    /**
+     * @param samplingRate  the fraction of calls to log, from 0.0 to 1.0
+     * @param maxBodyBytes  the number of bytes of each body to log, or zero to log no bodies
+     * @param queueCapacity the number of records that can wait for the sink before records are dropped
+     * @param sink          called on the background thread with each record
+     */
+    public SampledLoggingFilter(double samplingRate,
+                                int maxBodyBytes,
+                                int queueCapacity,
+                                Consumer<ApiCallLogRecord> sink) {
+        checkArgument(samplingRate >= 0.0 && samplingRate <= 1.0, "samplingRate must be between 0.0 and 1.0");
+        checkArgument(maxBodyBytes >= 0, "maxBodyBytes must not be negative");
+        checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+
+        this.samplingRate = samplingRate;
+        this.maxBodyBytes = maxBodyBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sink = requireNotNull(sink, "sink must not be null");
+        this.writer = new Thread(this::writeRecords, "sampled-api-call-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        if (closed || samplingRate == 0.0 || ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+            return;
+        }
+        requestContext.setProperty(CALL_PROPERTY, new SampledCall(requestContext));
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (context.getProperty(CALL_PROPERTY) instanceof SampledCall call && maxBodyBytes > 0) {
+            context.setOutputStream(new CapturingOutputStream(context.getOutputStream(), call.requestBody));
+        }
+        context.proceed();
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        if (!(requestContext.getProperty(CALL_PROPERTY) instanceof SampledCall call)) {
+            return;
+        }
+
+        call.status = responseContext.getStatus();
+        if (responseContext.hasEntity()) {
+            responseContext.setEntityStream(new CapturingInputStream(responseContext.getEntityStream(), call));
+        } else {
+            call.complete();
+        }
+    }
+
+    /**
+     * @return the number of records passed to the sink so far
+     */
+    public long loggedCount() {
+        return loggedCount.get();
+    }
+
+    /**
+     * @return the number of sampled calls whose records were dropped because the queue was full
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stop sampling calls, and stop the background thread once it has written the queued records.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.interrupt();
+    }
+
+    /**
+     * Replace the value of each {@code password} field in a JSON body, including one cut short by truncation.
+     */
+    static String redactPasswords(String body) {
+        return PASSWORD_FIELD.matcher(body).replaceAll("$1\"" + User.REDACTED_PASSWORD + "\"");
+    }
+
+    private void submit(ApiCallLogRecord record) {
+        if (!queue.offer(record)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private void writeRecords() {
+        try {
+            while (!closed) {
+                write(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ApiCallLogRecord record;
+        while ((record = queue.poll()) != null) {
+            write(record);
+        }
+    }
+
+    private void write(ApiCallLogRecord record) {
+        var redacted = new ApiCallLogRecord(record.method(), record.uri(), record.status(), record.elapsed(),
+                redactPasswords(record.requestBody()), redactPasswords(record.responseBody()));
+        try {
+            sink.accept(redacted);
+            loggedCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Sampled call log sink failed", e);
+        }
+    }
+
+    private static void logCall(ApiCallLogRecord record) {
+        log.info("{} {} -> {} in {} ms; request body: {}; response body: {}",
+                record.method(), record.uri(), record.status(), record.elapsed().toMillis(),
+                record.requestBody(), record.responseBody());
+    }
+
+    /**
+     * The state of a sampled call, from its request filter to the close of its response.
+     */
+    private final class SampledCall {
+
+        private final String method;
+        private final URI uri;
+        private final long startNanos = System.nanoTime();
+        private final BodyCapture requestBody = new BodyCapture(maxBodyBytes);
+        private final BodyCapture responseBody = new BodyCapture(maxBodyBytes);
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private int status;
+
+        SampledCall(ClientRequestContext requestContext) {
+            this.method = requestContext.getMethod();
+            this.uri = requestContext.getUri();
+        }
+
+        void complete() {
+            if (completed.compareAndSet(false, true)) {
+                submit(new ApiCallLogRecord(method, uri, status, Duration.ofNanos(System.nanoTime() - startNanos),
+                        requestBody.text(), responseBody.text()));
+            }
+        }
+    }
+
+    /**
+     * The first bytes of a body; bytes beyond the limit are counted but not kept.
+     */
+    private static final class BodyCapture {
+
+        private final int limit;
+        private final ByteArrayOutputStream bytes;
+        private boolean truncated;
+
+        BodyCapture(int limit) {
+            this.limit = limit;
+            this.bytes = new ByteArrayOutputStream(Math.min(limit, 256));
+        }
+
+        void write(byte[] buffer, int offset, int length) {
+            var kept = Math.min(length, limit - bytes.size());
+            if (kept > 0) {
+                bytes.write(buffer, offset, kept);
+            }
+            truncated |= kept < length;
+        }
+
+        String text() {
+            var text = bytes.toString(StandardCharsets.UTF_8);
+            return truncated ? text + TRUNCATED : text;
+        }
+    }
+
+    private static final class CapturingOutputStream extends FilterOutputStream {
+
+        private final BodyCapture capture;
+
+        CapturingOutputStream(OutputStream out, BodyCapture capture) {
+            super(out);
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture.write(b, off, len);
+        }
+    }
+
+    private final class CapturingInputStream extends FilterInputStream {
+
+        private final SampledCall call;
+
+        CapturingInputStream(InputStream in, SampledCall call) {
+            super(in);
+            this.call = call;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = in.read();
+            if (b >= 0 && maxBodyBytes > 0) {
+                call.responseBody.write(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var count = in.read(b, off, len);
+            if (count > 0 && maxBodyBytes > 0) {
+                call.responseBody.write(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                call.complete();
+            }
+        }
+    }
+}
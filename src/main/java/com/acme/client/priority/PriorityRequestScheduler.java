@@ -0,0 +1,182 @@
+package com.acme.client.priority;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests, giving {@link RequestPriority#INTERACTIVE interactive}
+ * requests priority over {@link RequestPriority#BATCH batch} requests.
+ * <p>
+ * The limit should match the size of the client's connection pool, so that requests wait here,
+ * in priority order, instead of in the pool. Some of the capacity is reserved for interactive
+ * requests: batch requests can only use the rest, and only when no interactive request is
+ * waiting. So however much batch work is queued, interactive requests find a free slot or
+ * are next in line for one.
+ */
+public class PriorityRequestScheduler {
+
+    private static final Permit NO_WAIT_PERMIT = new Permit(null, 0);
+
+    private final int maxConcurrentRequests;
+    private final int maxConcurrentBatchRequests;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition interactiveSlotAvailable = lock.newCondition();
+    private final Condition batchSlotAvailable = lock.newCondition();
+
+    private int inUse;
+    private int interactiveWaiting;
+
+    /**
+     * @param maxConcurrentRequests  the maximum number of concurrent requests of any priority
+     * @param reservedForInteractive the number of those requests that are reserved for interactive requests
+     */
+    public PriorityRequestScheduler(int maxConcurrentRequests, int reservedForInteractive) {
+        checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests must be positive");
+        checkArgument(reservedForInteractive >= 0 && reservedForInteractive < maxConcurrentRequests,
+                "reservedForInteractive must be at least zero and less than maxConcurrentRequests");
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxConcurrentBatchRequests = maxConcurrentRequests - reservedForInteractive;
+    }
+
+    /**
+     * @return a scheduler that never limits or delays requests
+     */
+    public static PriorityRequestScheduler unlimited() {
+        return new PriorityRequestScheduler(Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Wait for a slot to send a request with the given priority.
+     *
+     * @param priority     the request priority
+     * @param maxWaitNanos the longest to wait
+     * @return the permit, which must be released when the request completes, or null if no
+     * slot became available within {@code maxWaitNanos}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(RequestPriority priority, long maxWaitNanos) throws InterruptedException {
+        requireNotNull(priority, "priority must not be null");
+        if (maxConcurrentRequests == Integer.MAX_VALUE) {
+            return NO_WAIT_PERMIT;
+        }
+
+        var start = System.nanoTime();
+        lock.lockInterruptibly();
+        try {
+            var acquired = priority == RequestPriority.INTERACTIVE ?
+                    awaitInteractiveSlot(maxWaitNanos) : awaitBatchSlot(maxWaitNanos);
+            if (!acquired) {
+                return null;
+            }
+
+            inUse++;
+            return new Permit(this, System.nanoTime() - start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean awaitInteractiveSlot(long maxWaitNanos) throws InterruptedException {
+        var remaining = maxWaitNanos;
+        interactiveWaiting++;
+        try {
+            while (inUse >= maxConcurrentRequests) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = interactiveSlotAvailable.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            interactiveWaiting--;
+            if (interactiveWaiting == 0 && inUse < maxConcurrentBatchRequests) {
+                // Batch requests may have been held back only because this request was waiting,
+                // and there may be a free slot for more than one of them
+                batchSlotAvailable.signalAll();
+            }
+        }
+    }
+
+    private boolean awaitBatchSlot(long maxWaitNanos) throws InterruptedException {
+        var remaining = maxWaitNanos;
+        while (inUse >= maxConcurrentBatchRequests || interactiveWaiting > 0) {
+            if (remaining <= 0) {
+                return false;
+            }
+            remaining = batchSlotAvailable.awaitNanos(remaining);
+        }
+        return true;
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inUse--;
+            if (interactiveWaiting > 0) {
+                interactiveSlotAvailable.signal();
+            } else if (inUse < maxConcurrentBatchRequests) {
+                batchSlotAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests currently holding a permit
+     */
+    public int inUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permission to send one request. Release it when the request completes.
+     */
+    public static final class Permit {
+
+        private final PriorityRequestScheduler scheduler;
+        private final long waitNanos;
+        private boolean released;
+
+        private Permit(PriorityRequestScheduler scheduler, long waitNanos) {
+            this.scheduler = scheduler;
+            this.waitNanos = waitNanos;
+        }
+
+        /**
+         * @return how long the request waited for this permit
+         */
+        public long waitNanos() {
+            return waitNanos;
+        }
+
+        /**
+         * Release this permit. Releasing it more than once has no effect.
+         */
+        public void release() {
+            if (scheduler == null || released) {
+                return;
+            }
+            released = true;
+            scheduler.release();
+        }
+
+        /**
+         * @return a string representation, for debugging
+         */
+        @Override
+        public String toString() {
+            return "Permit{waited=" + TimeUnit.NANOSECONDS.toMillis(waitNanos) + "ms, released=" + released + "}";
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.acme.client.priority;
+
+import static java.util.Objects.requireNonNullElse;
+
+import java.util.function.Supplier;
+
+/**
+ * The priority class of client requests, used by a {@link PriorityRequestScheduler}.
+ * <p>
+ * Requests are {@link #INTERACTIVE} unless made while another priority is
+ * {@link #attach() attached} to the current thread, e.g. in a nightly job:
+ * <pre>
+ * RequestPriority.BATCH.run(() -> {
+ *     var users = userApiClient.list();
+ *     ...
+ * });
+ * </pre>
+ */
+public enum RequestPriority {
+
+    /**
+     * Latency-sensitive requests, e.g. those made while handling a user's request. Interactive
+     * requests can use reserved capacity, and are served before waiting batch requests.
+     */
+    INTERACTIVE,
+
+    /**
+     * Throughput-oriented requests, e.g. from scheduled jobs, which only use spare capacity.
+     */
+    BATCH;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return the priority attached to the current thread, or {@link #INTERACTIVE} if none is attached
+     */
+    public static RequestPriority current() {
+        return requireNonNullElse(CURRENT.get(), INTERACTIVE);
+    }
+
+    /**
+     * Attach this priority to the current thread, until the returned scope is closed.
+     */
+    public Scope attach() {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Call the supplier with this priority attached to the current thread.
+     */
+    public <T> T call(Supplier<T> supplier) {
+        try (var ignored = attach()) {
+            return supplier.get();
+        }
+    }
+
+    /**
+     * Run the runnable with this priority attached to the current thread.
+     */
+    public void run(Runnable runnable) {
+        try (var ignored = attach()) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * A priority attachment, which restores the previously attached priority when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
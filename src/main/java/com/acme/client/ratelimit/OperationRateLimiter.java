@@ -0,0 +1,140 @@
+package com.acme.client.ratelimit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNullElse;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client-side rate limits, with a separate {@link TokenBucket} for each operation.
+ * <p>
+ * Operations are identified by name, e.g. {@code UserApiClient.GET_BY_ID.name()}. Operations
+ * without their own limit use the default limit, if there is one, and are otherwise unlimited.
+ * Responses with status 429 (Too Many Requests) or 503 with a {@code Retry-After} header
+ * throttle the operation's bucket, as described in {@link TokenBucket}.
+ */
+@Slf4j
+public class OperationRateLimiter {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    @Getter
+    @Accessors(fluent = true)
+    private final RateLimitMode mode;
+
+    private final RateLimit defaultLimit;
+    private final Map<String, RateLimit> limits;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param mode         whether to wait for a permit or fail immediately; defaults to {@link RateLimitMode#BLOCK}
+     * @param defaultLimit the limit for operations without their own limit; may be null for no limit
+     * @param limits       limits keyed by operation name
+     */
+    @Builder
+    public OperationRateLimiter(RateLimitMode mode, RateLimit defaultLimit, @Singular Map<String, RateLimit> limits) {
+        this.mode = requireNonNullElse(mode, RateLimitMode.BLOCK);
+        this.defaultLimit = defaultLimit;
+        this.limits = Map.copyOf(requireNotNull(limits, "limits must not be null"));
+    }
+
+    /**
+     * @return a rate limiter that never limits any operation
+     */
+    public static OperationRateLimiter none() {
+        return new OperationRateLimiter(RateLimitMode.BLOCK, null, Map.of());
+    }
+
+    /**
+     * Reserve a permit to send a request for the given operation.
+     *
+     * @param operation    the operation name
+     * @param maxWaitNanos the longest the caller is willing to wait; ignored in {@link RateLimitMode#FAIL_FAST} mode
+     * @return the number of nanoseconds to wait before sending the request, or -1 if no permit is
+     * available within {@code maxWaitNanos}
+     * @throws RateLimitExceededException in {@link RateLimitMode#FAIL_FAST} mode, if no permit is available now
+     */
+    public long tryAcquire(String operation, long maxWaitNanos) {
+        var bucket = bucketFor(operation);
+        if (isNull(bucket)) {
+            return 0;
+        }
+
+        if (mode == RateLimitMode.FAIL_FAST) {
+            if (bucket.tryAcquire(0) < 0) {
+                throw new RateLimitExceededException("Rate limit exceeded for " + operation);
+            }
+            return 0;
+        }
+
+        return bucket.tryAcquire(maxWaitNanos);
+    }
+
+    /**
+     * Adapt the operation's rate to the server's response.
+     *
+     * @param operation  the operation name
+     * @param status     the response status
+     * @param retryAfter the value of the {@code Retry-After} response header; may be null
+     */
+    public void onResponse(String operation, int status, String retryAfter) {
+        var bucket = bucketFor(operation);
+        if (isNull(bucket)) {
+            return;
+        }
+
+        if (status == TOO_MANY_REQUESTS || (status == SERVICE_UNAVAILABLE && !isNull(retryAfter))) {
+            var delay = parseRetryAfter(retryAfter);
+            log.debug("Throttling {} for {} after {} response", operation, delay, status);
+            bucket.throttled(delay);
+        } else if (status < 500) {
+            bucket.accepted();
+        }
+    }
+
+    private TokenBucket bucketFor(String operation) {
+        var limit = limits.getOrDefault(operation, defaultLimit);
+        if (isNull(limit)) {
+            return null;
+        }
+        return buckets.computeIfAbsent(operation, ignored -> new TokenBucket(limit));
+    }
+
+    /**
+     * Parse a {@code Retry-After} value, which is either a number of seconds or an HTTP date.
+     *
+     * @return the delay, or zero if the value is missing or invalid
+     */
+    static Duration parseRetryAfter(String retryAfter) {
+        if (isNull(retryAfter) || retryAfter.isBlank()) {
+            return Duration.ZERO;
+        }
+
+        var value = retryAfter.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                var delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException dateException) {
+                log.warn("Ignoring invalid Retry-After value: {}", value);
+                return Duration.ZERO;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.acme.client.ratelimit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A rate limit for one operation.
+ *
+ * @param permitsPerSecond the sustained rate of requests
+ * @param burst            the number of requests that can be sent at once after a quiet period
+ */
+public record RateLimit(double permitsPerSecond, int burst) {
+
+    public RateLimit {
+        checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive");
+        checkArgument(burst > 0, "burst must be positive");
+    }
+
+    /**
+     * @return a limit of the given rate, with a burst of one second's worth of requests
+     */
+    public static RateLimit perSecond(int permitsPerSecond) {
+        return new RateLimit(permitsPerSecond, permitsPerSecond);
+    }
+}
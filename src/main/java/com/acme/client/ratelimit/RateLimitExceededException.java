@@ -0,0 +1,11 @@
+package com.acme.client.ratelimit;
+
+/**
+ * Thrown when a request is not sent because it would exceed the client-side rate limit.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.acme.client.ratelimit;
+
+/**
+ * What to do when a request cannot be sent without exceeding its rate limit.
+ */
+public enum RateLimitMode {
+
+    /**
+     * Wait until the request can be sent, unless that would take longer than the
+     * call's deadline allows.
+     */
+    BLOCK,
+
+    /**
+     * Throw {@link RateLimitExceededException} without sending the request.
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,125 @@
+package com.acme.client.ratelimit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free token bucket, implemented with the generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a token count, the bucket keeps the "theoretical arrival time" of the next
+ * request, which advances by one emission interval per permit. A permit is available when
+ * the theoretical arrival time is no more than {@code burst} intervals ahead of now.
+ * Acquiring a permit is a single compare-and-set, so threads never block each other.
+ * <p>
+ * The bucket also adapts to server feedback. When the server {@link #throttled throttles}
+ * a request, no permits are granted until its {@code Retry-After} time has passed, and the
+ * rate is halved, down to 1/16 of the configured rate. Each {@link #accepted accepted}
+ * request then recovers part of the difference, so the rate returns to the configured
+ * rate once the server stops throttling.
+ */
+public class TokenBucket {
+
+    private static final int MAX_SLOWDOWN = 16;
+    private static final int RECOVERY_DIVISOR = 8;
+
+    private final int burst;
+    private final long baseIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong theoreticalArrivalNanos;
+    private final AtomicLong intervalNanos;
+    private final AtomicLong blockedUntilNanos;
+
+    public TokenBucket(RateLimit rateLimit) {
+        this(rateLimit, System::nanoTime);
+    }
+
+    TokenBucket(RateLimit rateLimit, LongSupplier nanoClock) {
+        requireNotNull(rateLimit, "rateLimit must not be null");
+        this.burst = rateLimit.burst();
+        this.baseIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rateLimit.permitsPerSecond()));
+        this.nanoClock = nanoClock;
+
+        var now = nanoClock.getAsLong();
+        this.theoreticalArrivalNanos = new AtomicLong(now);
+        this.intervalNanos = new AtomicLong(baseIntervalNanos);
+        this.blockedUntilNanos = new AtomicLong(now);
+    }
+
+    /**
+     * Reserve a permit if one is available within the given time.
+     *
+     * @param maxWaitNanos the longest the caller is willing to wait; zero to only take an available permit
+     * @return the number of nanoseconds the caller must wait before using the permit (zero if it can be
+     * used now), or -1 if no permit is available within {@code maxWaitNanos}, in which case nothing is reserved
+     */
+    public long tryAcquire(long maxWaitNanos) {
+        checkArgument(maxWaitNanos >= 0, "maxWaitNanos must not be negative");
+
+        while (true) {
+            var now = nanoClock.getAsLong();
+            var arrival = theoreticalArrivalNanos.get();
+            var interval = intervalNanos.get();
+            var blockedUntil = blockedUntilNanos.get();
+
+            var start = latest(arrival, now, blockedUntil);
+            var nextArrival = start + interval;
+            var waitNanos = Math.max(nextArrival - now - burst * interval, blockedUntil - now);
+            waitNanos = Math.max(0, waitNanos);
+
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, nextArrival)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    /**
+     * Record that the server accepted a request, gradually restoring the configured rate.
+     */
+    public void accepted() {
+        var interval = intervalNanos.get();
+        if (interval > baseIntervalNanos) {
+            var recovered = Math.max(baseIntervalNanos, interval - Math.max(1, (interval - baseIntervalNanos) / RECOVERY_DIVISOR));
+            intervalNanos.compareAndSet(interval, recovered);
+        }
+    }
+
+    /**
+     * Record that the server throttled a request, e.g. with a 429 response.
+     *
+     * @param retryAfter how long the server asked the client to wait; zero if it did not say
+     */
+    public void throttled(Duration retryAfter) {
+        requireNotNull(retryAfter, "retryAfter must not be null");
+
+        intervalNanos.updateAndGet(interval -> Math.min(interval * 2, baseIntervalNanos * MAX_SLOWDOWN));
+
+        if (!retryAfter.isNegative() && !retryAfter.isZero()) {
+            var until = nanoClock.getAsLong() + retryAfter.toNanos();
+            blockedUntilNanos.accumulateAndGet(until, TokenBucket::latest);
+        }
+    }
+
+    /**
+     * @return the current rate, which is lower than the configured rate after the server throttles requests
+     */
+    public double permitsPerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos.get();
+    }
+
+    private static long latest(long a, long b) {
+        return a - b >= 0 ? a : b;
+    }
+
+    private static long latest(long a, long b, long c) {
+        return latest(latest(a, b), c);
+    }
+}
@@ -0,0 +1,121 @@
+package com.acme.client.replica;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.acme.client.UserApiClient;
+import com.acme.model.User;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local, in-memory replica of the user directory, kept up to date by polling for changes.
+ * <p>
+ * The first sync loads the whole directory. Later syncs fetch only the
+ * {@link UserApiClient#changesSince(long) changes since the replica's version}, so their cost
+ * depends on how much has changed, not on the size of the directory. If the server cannot
+ * provide the changes (e.g. the replica's version is too old), it returns the whole directory
+ * and the replica is replaced.
+ * <p>
+ * Readers use immutable {@link UserSnapshot}s, which are replaced atomically by each sync, so
+ * reads never block and always see a consistent version of the directory.
+ */
+@Slf4j
+public class UserReplica implements Closeable {
+
+    private final UserApiClient apiClient;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile UserSnapshot snapshot = UserSnapshot.empty();
+    private boolean polling;
+
+    public UserReplica(UserApiClient apiClient) {
+        this.apiClient = requireNotNull(apiClient, "apiClient must not be null");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("user-replica-sync-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @return the current snapshot; empty until the first sync
+     */
+    public UserSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the user with the given id in the current snapshot, if it exists
+     */
+    public Optional<User> getById(long id) {
+        return snapshot.get(id);
+    }
+
+    /**
+     * @return all users in the current snapshot
+     */
+    public List<User> list() {
+        return snapshot.users();
+    }
+
+    /**
+     * Fetch and apply the changes since the current version.
+     *
+     * @return the new snapshot
+     */
+    public synchronized UserSnapshot sync() {
+        var current = snapshot;
+        var changes = apiClient.changesSince(current.version());
+
+        if (changes.full()) {
+            log.info("Loaded full user directory: {} users at version {}", changes.updated().size(), changes.version());
+        } else {
+            log.debug("Applying {} updates and {} deletions to go from version {} to {}",
+                    changes.updated().size(), changes.deleted().size(), current.version(), changes.version());
+        }
+
+        var updated = current.apply(changes);
+        snapshot = updated;
+        return updated;
+    }
+
+    /**
+     * Sync now, then keep syncing in the background, waiting the given interval after each sync.
+     * Background sync failures are logged, and the replica keeps serving its last snapshot.
+     *
+     * @throws RuntimeException if the initial sync fails
+     */
+    public synchronized void startPolling(Duration interval) {
+        requireNotNull(interval, "interval must not be null");
+        checkArgument(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+        checkState(!polling, "already polling");
+        checkState(!scheduler.isShutdown(), "replica is closed");
+
+        sync();
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+        polling = true;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (Exception e) {
+            log.warn("User replica sync failed; still serving version {}", snapshot.version(), e);
+        }
+    }
+
+    /**
+     * Stop background syncing. The last snapshot remains available.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
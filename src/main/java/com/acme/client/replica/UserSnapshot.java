@@ -0,0 +1,172 @@
+package com.acme.client.replica;
+
+import static java.util.Objects.isNull;
+
+import com.acme.model.User;
+import com.acme.model.UserChanges;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of the user directory at one version.
+ * <p>
+ * A snapshot is a stack of layers, oldest first, where each layer maps user ids to users, or
+ * to {@code null} for a user deleted by that layer. Applying changes creates a new snapshot
+ * that shares the existing layers and adds one layer containing only the changes, so the cost
+ * depends on the number of changes rather than the size of the directory. To keep lookups
+ * fast, a new layer is merged into the layer below it whenever it is at least half that
+ * layer's size, which keeps the number of layers logarithmic in the directory size and the
+ * amortized cost of each change logarithmic as well.
+ */
+public final class UserSnapshot {
+
+    private static final UserSnapshot EMPTY = new UserSnapshot(0, List.of(), 0);
+
+    private final long version;
+    private final List<Map<Long, User>> layers;
+    private final int size;
+    private volatile List<User> users;
+
+    private UserSnapshot(long version, List<Map<Long, User>> layers, int size) {
+        this.version = version;
+        this.layers = layers;
+        this.size = size;
+    }
+
+    /**
+     * @return an empty snapshot at version 0
+     */
+    public static UserSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the directory version of this snapshot
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the number of users
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the user with the given id, if it exists
+     */
+    public Optional<User> get(long id) {
+        return Optional.ofNullable(lookup(id));
+    }
+
+    /**
+     * @return all users, in no particular order; the list is built on first use and then reused
+     */
+    public List<User> users() {
+        var result = users;
+        if (isNull(result)) {
+            result = collectUsers();
+            users = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of layers, which is exposed for tests and diagnostics
+     */
+    int layerCount() {
+        return layers.size();
+    }
+
+    /**
+     * Create a new snapshot with the given changes applied. This snapshot is not modified.
+     */
+    public UserSnapshot apply(UserChanges changes) {
+        if (changes.full()) {
+            var layer = new HashMap<Long, User>();
+            changes.updated().forEach(user -> layer.put(user.id(), user));
+            return new UserSnapshot(changes.version(), List.of(layer), layer.size());
+        }
+
+        if (changes.updated().isEmpty() && changes.deleted().isEmpty()) {
+            return new UserSnapshot(changes.version(), layers, size);
+        }
+
+        var layer = new HashMap<Long, User>();
+        var newSize = size;
+        for (var user : changes.updated()) {
+            var previous = layer.containsKey(user.id()) ? layer.get(user.id()) : lookup(user.id());
+            if (isNull(previous)) {
+                newSize++;
+            }
+            layer.put(user.id(), user);
+        }
+        for (var id : changes.deleted()) {
+            var previous = layer.containsKey(id) ? layer.get(id) : lookup(id);
+            if (!isNull(previous)) {
+                newSize--;
+            }
+            layer.put(id, null);
+        }
+
+        var newLayers = new ArrayList<>(layers);
+        newLayers.add(layer);
+        compact(newLayers);
+        return new UserSnapshot(changes.version(), List.copyOf(newLayers), newSize);
+    }
+
+    private User lookup(long id) {
+        for (var i = layers.size() - 1; i >= 0; i--) {
+            var layer = layers.get(i);
+            if (layer.containsKey(id)) {
+                return layer.get(id);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merge the top layer into the one below it while it is at least half that layer's size.
+     * Only the merged layers are copied; the layers below them are shared with older snapshots.
+     */
+    private static void compact(List<Map<Long, User>> layers) {
+        while (layers.size() > 1) {
+            var top = layers.get(layers.size() - 1);
+            var below = layers.get(layers.size() - 2);
+            if (top.size() * 2 < below.size()) {
+                return;
+            }
+
+            var merged = new HashMap<>(below);
+            merged.putAll(top);
+            if (layers.size() == 2) {
+                // Nothing is below the merged layer, so deletions no longer need to be recorded
+                merged.values().removeIf(Objects::isNull);
+            }
+
+            layers.remove(layers.size() - 1);
+            layers.set(layers.size() - 1, merged);
+        }
+    }
+
+    private List<User> collectUsers() {
+        var seen = new HashSet<Long>();
+        var result = new ArrayList<User>(size);
+        for (var i = layers.size() - 1; i >= 0; i--) {
+            for (var entry : layers.get(i).entrySet()) {
+                if (seen.add(entry.getKey()) && !isNull(entry.getValue())) {
+                    result.add(entry.getValue());
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+}
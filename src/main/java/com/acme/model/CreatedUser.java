@@ -0,0 +1,38 @@
+package com.acme.model;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+/**
+ * The result of an idempotent create, and whether the server created the user for this
+ * request or replayed the result of an earlier request with the same idempotency key.
+ *
+ * @param user           the created user
+ * @param idempotencyKey the value of the {@code Idempotency-Key} request header
+ * @param outcome        whether the user was created or replayed
+ */
+public record CreatedUser(User user, String idempotencyKey, Outcome outcome) {
+
+    public enum Outcome {
+
+        /**
+         * The server created the user for this request.
+         */
+        CREATED,
+
+        /**
+         * The server had already created the user for an earlier request with the same key, e.g.
+         * one whose response was lost, and returned that result instead of creating another.
+         */
+        REPLAYED
+    }
+
+    public CreatedUser {
+        requireNotNull(user, "user must not be null");
+        requireNotNull(idempotencyKey, "idempotencyKey must not be null");
+        requireNotNull(outcome, "outcome must not be null");
+    }
+
+    public boolean replayed() {
+        return outcome == Outcome.REPLAYED;
+    }
+}
@@ -0,0 +1,25 @@
+package com.acme.model;
+
+import static java.util.Objects.requireNonNullElse;
+
+import java.util.List;
+
+/**
+ * The changes to the user directory since a given version.
+ * <p>
+ * When the server cannot provide changes since the requested version (e.g. for version 0, or
+ * a version older than its change history) it returns the whole directory in {@code updated}
+ * and sets {@code full} to true.
+ *
+ * @param version the directory version after these changes
+ * @param full    true if {@code updated} contains every user, and replaces any previous state
+ * @param updated users that were created or updated
+ * @param deleted ids of users that were deleted
+ */
+public record UserChanges(long version, boolean full, List<User> updated, List<Long> deleted) {
+
+    public UserChanges {
+        updated = List.copyOf(requireNonNullElse(updated, List.of()));
+        deleted = List.copyOf(requireNonNullElse(deleted, List.of()));
+    }
+}
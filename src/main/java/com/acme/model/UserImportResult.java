@@ -0,0 +1,11 @@
+package com.acme.model;
+
+/**
+ * Summary of a bulk user import.
+ *
+ * @param received the number of users the server read from the upload
+ * @param created  the number of users that were created
+ * @param failed   the number of users that could not be created
+ */
+public record UserImportResult(long received, long created, long failed) {
+}
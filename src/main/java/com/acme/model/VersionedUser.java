@@ -0,0 +1,16 @@
+package com.acme.model;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+/**
+ * A user together with the entity tag the server returned for it.
+ *
+ * @param user the user
+ * @param etag the value of the {@code ETag} response header; may be null if the server did not send one
+ */
+public record VersionedUser(User user, String etag) {
+
+    public VersionedUser {
+        requireNotNull(user, "user must not be null");
+    }
+}
@@ -0,0 +1,98 @@
+package com.acme.benchmark;
+
+import com.acme.client.ApiCallEvent;
+import com.acme.client.MathApiClient;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the {@link ApiCallEvent} JFR event on a client call.
+ * <p>
+ * Requests are answered by a client filter instead of a server, so that network time does not
+ * hide the overhead. The {@code recording} parameter selects whether no recording is running,
+ * a recording is running with the event disabled (its default), or a recording is running with
+ * the event enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ApiCallEventBenchmark {
+
+    @Param({"none", "eventDisabled", "eventEnabled"})
+    public String recording;
+
+    private Recording jfrRecording;
+    private Client client;
+    private MathApiClient apiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = ClientBuilder.newBuilder().register(AnswerLocallyFilter.class).build();
+        apiClient = new MathApiClient(client, URI.create("http://localhost:1"));
+
+        if (!"none".equals(recording)) {
+            jfrRecording = new Recording();
+            if ("eventEnabled".equals(recording)) {
+                jfrRecording.enable(ApiCallEvent.NAME);
+            }
+            jfrRecording.setToDisk(false);
+            jfrRecording.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (jfrRecording != null) {
+            jfrRecording.close();
+        }
+        client.close();
+    }
+
+    @Benchmark
+    public int add() {
+        return apiClient.add(2, 2);
+    }
+
+    public static class AnswerLocallyFilter implements ClientRequestFilter {
+
+        @Override
+        public void filter(ClientRequestContext requestContext) {
+            requestContext.abortWith(Response.ok("4", MediaType.TEXT_PLAIN_TYPE).build());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(ApiCallEventBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.acme.benchmark;
+
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.UserApiClient;
+import com.acme.client.WarmUpFilter;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the first {@code getById} call in a fresh JVM, with and without
+ * calling {@link UserApiClient#warmUp(int)} beforehand.
+ * <p>
+ * Each fork is a new JVM that makes exactly one measured call, so the result is the cold-start
+ * latency averaged over the forks. Run with the {@code appcds} Maven profile's JVM options to
+ * see the combined effect of class-data sharing and warm-up.
+ * <p>
+ * The server's response body is serialized once, and the server handles one request over a
+ * plain socket during setup in both variants, so that only the client's warm-up differs.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+
+    @Param({"false", "true"})
+    public boolean warmUp;
+
+    private MockWebServer server;
+    private Client client;
+    private UserApiClient apiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var body = JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith"));
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .setBody(body);
+            }
+        });
+        server.start();
+        primeServer();
+
+        client = ClientBuilder.newBuilder().register(WarmUpFilter.class).build();
+        apiClient = new UserApiClient(client, server.url("/").uri());
+
+        if (warmUp) {
+            apiClient.warmUp(1);
+        }
+    }
+
+    /**
+     * Send one request without any of the client's classes, so the server is warm in both variants.
+     */
+    private void primeServer() throws IOException {
+        try (var socket = new Socket(server.getHostName(), server.getPort())) {
+            var request = "GET /users/42 HTTP/1.1\r\nHost: " + server.getHostName() + "\r\nConnection: close\r\n\r\n";
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            socket.getInputStream().readAllBytes();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<User> firstGetById() {
+        return apiClient.getById(42);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(ColdStartBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,26 @@
+package com.acme.benchmark;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Heap measurements shared by the memory reports.
+ */
+@UtilityClass
+class HeapUsage {
+
+    /**
+     * Run the garbage collector a few times, so unreachable objects are collected, and return
+     * the heap in use. The result is approximate, so compare large numbers of objects.
+     */
+    static long usedHeapBytes() {
+        var runtime = Runtime.getRuntime();
+        for (var i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static long mib(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
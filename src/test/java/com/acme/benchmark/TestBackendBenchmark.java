@@ -0,0 +1,171 @@
+package com.acme.benchmark;
+
+import com.acme.client.UserApiClient;
+import com.acme.model.User;
+import io.dropwizard.testing.junit5.DropwizardClientExtension;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.core.MediaType;
+import okhttp3.mockwebserver.MockWebServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to start and stop each of the test backends used by the client tests, and
+ * the time for a {@code getById} call against a running one.
+ * <p>
+ * {@code DROPWIZARD} boots a Jersey/Jetty application using {@link DropwizardClientExtension},
+ * as {@code DropwizardUserApiClientTest} does, and {@code MOCK_WEB_SERVER} starts a
+ * {@link MockWebServer}, as the {@code OkHttp*Test} classes do. See {@link TestSuiteBenchmark}
+ * for whole suites and {@link TestBackendMemoryReport} for memory and threads.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class TestBackendBenchmark {
+
+    /**
+     * The kinds of test backend.
+     */
+    public enum Backend {
+
+        DROPWIZARD {
+            @Override
+            public RunningBackend start() {
+                var extension = new DropwizardClientExtension(new UserResource());
+                try {
+                    extension.before();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Unable to start Dropwizard test backend", e);
+                }
+                return new RunningBackend(extension.baseUri(), extension::after);
+            }
+        },
+
+        MOCK_WEB_SERVER {
+            @Override
+            public RunningBackend start() {
+                var server = new MockWebServer();
+                server.setDispatcher(new TlsBenchmark.UserDispatcher(true));
+                try {
+                    server.start();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to start MockWebServer test backend", e);
+                }
+                return new RunningBackend(server.url("/").uri(), () -> {
+                    try {
+                        server.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        /**
+         * Start a backend that returns the same user for every {@code GET /users/{id}}.
+         */
+        public abstract RunningBackend start();
+    }
+
+    /**
+     * A started backend, which is stopped by closing it.
+     */
+    public record RunningBackend(URI baseUri, Runnable stopAction) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            stopAction.run();
+        }
+    }
+
+    /**
+     * The Dropwizard equivalent of {@link TlsBenchmark.UserDispatcher}.
+     */
+    @Path("/users")
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class UserResource {
+
+        @GET
+        @Path("/{id}")
+        public User getById(@PathParam("id") long id) {
+            return User.newWithRedactedPassword(id, "j_smith", "Jane Smith");
+        }
+    }
+
+    @Param
+    public Backend backend;
+
+    private RunningBackend runningBackend;
+    private Client client;
+    private UserApiClient apiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        runningBackend = backend.start();
+        client = newClient();
+        apiClient = new UserApiClient(client, runningBackend.baseUri());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        runningBackend.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public URI startAndStop() {
+        try (var started = backend.start()) {
+            return started.baseUri();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<User> getById() {
+        return apiClient.getById(42);
+    }
+
+    static Client newClient() {
+        return ClientBuilder.newBuilder()
+                .connectTimeout(1, TimeUnit.SECONDS)
+                .readTimeout(1, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(TestBackendBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
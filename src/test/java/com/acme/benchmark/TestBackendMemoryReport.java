@@ -0,0 +1,67 @@
+package com.acme.benchmark;
+
+import static com.acme.benchmark.HeapUsage.usedHeapBytes;
+
+import com.acme.benchmark.TestBackendBenchmark.Backend;
+import com.acme.benchmark.TestBackendBenchmark.RunningBackend;
+import com.acme.client.UserApiClient;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Reports the heap and threads retained by each running test backend, which bounds how many
+ * servers a suite can keep running at once, e.g. when test classes run in parallel.
+ * <p>
+ * Starts {@value #INSTANCES} backends of each kind, makes one call to each so that its
+ * request handling is initialized, and measures the change in used heap and live threads
+ * while they are all running. Heap usage is measured after repeated garbage collections, so
+ * run with a fixed heap (e.g. {@code -Xms2g -Xmx2g}) and no other activity for stable numbers.
+ */
+public class TestBackendMemoryReport {
+
+    private static final int INSTANCES = 20;
+
+    public static void main(String[] args) {
+        System.out.printf(Locale.ROOT, "%-16s %14s %16s%n", "Backend", "KiB/instance", "threads/instance");
+        for (var backend : Backend.values()) {
+            // Start and stop one first, so class loading and static state are not counted per instance
+            startAndCall(backend).close();
+            report(backend);
+        }
+    }
+
+    private static void report(Backend backend) {
+        var threads = ManagementFactory.getThreadMXBean();
+        var baselineBytes = usedHeapBytes();
+        var baselineThreads = threads.getThreadCount();
+
+        var runningBackends = new ArrayList<RunningBackend>(INSTANCES);
+        try {
+            for (var i = 0; i < INSTANCES; i++) {
+                runningBackends.add(startAndCall(backend));
+            }
+
+            var retainedBytes = usedHeapBytes() - baselineBytes;
+            var addedThreads = threads.getThreadCount() - baselineThreads;
+            System.out.printf(Locale.ROOT, "%-16s %,14d %16.1f%n",
+                    backend, retainedBytes / INSTANCES / 1024, (double) addedThreads / INSTANCES);
+        } finally {
+            runningBackends.forEach(RunningBackend::close);
+        }
+    }
+
+    private static RunningBackend startAndCall(Backend backend) {
+        var runningBackend = backend.start();
+        var client = TestBackendBenchmark.newClient();
+        try {
+            if (new UserApiClient(client, runningBackend.baseUri()).getById(42).isEmpty()) {
+                throw new IllegalStateException("Backend did not return the user: " + backend);
+            }
+        } finally {
+            client.close();
+        }
+        return runningBackend;
+    }
+}
@@ -0,0 +1,129 @@
+package com.acme.benchmark;
+
+import com.acme.benchmark.TestBackendBenchmark.Backend;
+import com.acme.benchmark.TestBackendBenchmark.RunningBackend;
+import com.acme.client.UserApiClient;
+import com.acme.junit.extension.MockWebServerExtension.Lifecycle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to run a suite of simulated client tests against each test backend, for
+ * suites of 1 to 10,000 tests.
+ * <p>
+ * Each simulated test creates its own {@code Client}, as the tests do, and makes a few
+ * {@code getById} calls. The lifecycle decides how often a new backend is started: before each
+ * test, before each class of {@value #TESTS_PER_CLASS} tests, or once for the suite. The
+ * difference between lifecycles is the cost of starting backends, and the difference between
+ * backends at {@code PER_SUITE} is the cost of the calls.
+ * <p>
+ * Starting a Dropwizard backend per test takes around a second, so the full parameter space
+ * takes days. {@link #main(String[])} runs a subset that finishes in minutes: every backend and
+ * lifecycle for the small suites, and only the cheap combinations for the large ones. Limit
+ * the parameters the same way when running with the JMH runner, e.g.
+ * {@code -p backend=MOCK_WEB_SERVER -p testCount=10000}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+public class TestSuiteBenchmark {
+
+    static final int TESTS_PER_CLASS = 10;
+    private static final int CALLS_PER_TEST = 3;
+
+    @Param
+    public Backend backend;
+
+    @Param
+    public Lifecycle lifecycle;
+
+    @Param({"1", "100", "1000", "10000"})
+    public int testCount;
+
+    @Benchmark
+    public int runSuite() {
+        var usersFound = 0;
+        RunningBackend runningBackend = null;
+        try {
+            for (var test = 0; test < testCount; test++) {
+                if (runningBackend == null || startsNewBackend(test)) {
+                    if (runningBackend != null) {
+                        runningBackend.close();
+                    }
+                    runningBackend = backend.start();
+                }
+                usersFound += runTest(runningBackend.baseUri());
+            }
+        } finally {
+            if (runningBackend != null) {
+                runningBackend.close();
+            }
+        }
+        return usersFound;
+    }
+
+    private boolean startsNewBackend(int test) {
+        return switch (lifecycle) {
+            case PER_TEST -> true;
+            case PER_CLASS -> test % TESTS_PER_CLASS == 0;
+            case PER_SUITE -> false;
+        };
+    }
+
+    private static int runTest(URI baseUri) {
+        var client = TestBackendBenchmark.newClient();
+        try {
+            var apiClient = new UserApiClient(client, baseUri);
+            var usersFound = 0;
+            for (var call = 0; call < CALLS_PER_TEST; call++) {
+                usersFound += apiClient.getById(42).isPresent() ? 1 : 0;
+            }
+            return usersFound;
+        } finally {
+            client.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // Small suites, with every backend and lifecycle
+        run(new OptionsBuilder()
+                .param("testCount", "1", "100"));
+
+        // Large suites, starting MockWebServer backends per test, per class and per suite
+        run(new OptionsBuilder()
+                .param("backend", Backend.MOCK_WEB_SERVER.name())
+                .param("testCount", "1000", "10000"));
+
+        // Large suites, starting a single Dropwizard backend
+        run(new OptionsBuilder()
+                .param("backend", Backend.DROPWIZARD.name())
+                .param("lifecycle", Lifecycle.PER_SUITE.name())
+                .param("testCount", "1000", "10000"));
+    }
+
+    private static void run(ChainedOptionsBuilder optionsBuilder) throws RunnerException {
+        var options = optionsBuilder
+                .include(TestSuiteBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
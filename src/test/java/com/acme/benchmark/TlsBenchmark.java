@@ -0,0 +1,152 @@
+package com.acme.benchmark;
+
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.UserApiClient;
+import com.acme.junit.extension.TestCertificates;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a {@code getById} call over HTTP and HTTPS, with and without connection
+ * reuse and TLS session resumption.
+ * <p>
+ * New connections are forced by having the server send {@code Connection: close}. Full TLS
+ * handshakes are forced by invalidating the client's cached sessions before each call, so
+ * the difference between the two {@code HTTPS_NEW_CONNECTION} modes is the saving from session
+ * resumption, and the difference between those and {@code HTTPS_REUSED_CONNECTION} is the
+ * saving from keeping connections alive.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class TlsBenchmark {
+
+    public enum ConnectionMode {
+        HTTP_REUSED_CONNECTION(false, true, true),
+        HTTP_NEW_CONNECTION(false, false, true),
+        HTTPS_REUSED_CONNECTION(true, true, true),
+        HTTPS_NEW_CONNECTION_RESUMED_SESSION(true, false, true),
+        HTTPS_NEW_CONNECTION_FULL_HANDSHAKE(true, false, false);
+
+        final boolean https;
+        final boolean reuseConnections;
+        final boolean resumeSessions;
+
+        ConnectionMode(boolean https, boolean reuseConnections, boolean resumeSessions) {
+            this.https = https;
+            this.reuseConnections = reuseConnections;
+            this.resumeSessions = resumeSessions;
+        }
+    }
+
+    @Param
+    public ConnectionMode mode;
+
+    private MockWebServer server;
+    private SSLContext sslContext;
+    private Client client;
+    private UserApiClient apiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = mode.https ? TestCertificates.newHttpsServer() : new MockWebServer();
+        server.setDispatcher(new UserDispatcher(mode.reuseConnections));
+        server.start();
+
+        sslContext = TestCertificates.newClientSslContext();
+        client = ClientBuilder.newBuilder()
+                .sslContext(sslContext)
+                .connectTimeout(1, TimeUnit.SECONDS)
+                .readTimeout(1, TimeUnit.SECONDS)
+                .build();
+        apiClient = new UserApiClient(client, server.url("/").uri());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<User> getById() {
+        if (!mode.resumeSessions) {
+            invalidateClientSessions();
+        }
+        return apiClient.getById(42);
+    }
+
+    private void invalidateClientSessions() {
+        var sessionContext = sslContext.getClientSessionContext();
+        var ids = sessionContext.getIds();
+        while (ids.hasMoreElements()) {
+            var session = sessionContext.getSession(ids.nextElement());
+            if (session != null) {
+                session.invalidate();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(TlsBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Returns the same user for every request, closing the connection after each response
+     * unless connections are reused.
+     */
+    public static class UserDispatcher extends Dispatcher {
+
+        private final boolean reuseConnections;
+        private final String body = JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith"));
+
+        UserDispatcher(boolean reuseConnections) {
+            this.reuseConnections = reuseConnections;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            var response = new MockResponse()
+                    .setResponseCode(200)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .setBody(body);
+
+            return reuseConnections ? response : response.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+    }
+}
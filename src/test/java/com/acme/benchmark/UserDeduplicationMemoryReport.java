@@ -0,0 +1,66 @@
+package com.acme.benchmark;
+
+import static com.acme.benchmark.HeapUsage.mib;
+import static com.acme.benchmark.HeapUsage.usedHeapBytes;
+
+import com.acme.client.json.UserDeduplicationModule;
+import com.acme.model.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.Jackson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports the heap retained by a list of one million users deserialized from JSON, with and
+ * without the {@link UserDeduplicationModule}.
+ * <p>
+ * The names are drawn from 5,000 distinct values, so most repeat, as they do in a real
+ * directory, and every user has the redacted password placeholder. Heap usage is measured after
+ * repeated garbage collections, so run with a fixed heap (e.g. {@code -Xms4g -Xmx4g}) and no
+ * other activity for stable numbers.
+ */
+public class UserDeduplicationMemoryReport {
+
+    private static final int USER_COUNT = 1_000_000;
+    private static final int DISTINCT_NAMES = 5_000;
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<>() {
+    };
+
+    public static void main(String[] args) throws IOException {
+        var json = Jackson.newObjectMapper().writeValueAsBytes(newUsers());
+
+        var plainBytes = retainedBytes(Jackson.newObjectMapper(), json);
+        var deduplicatedBytes = retainedBytes(Jackson.newObjectMapper().registerModule(new UserDeduplicationModule()), json);
+
+        System.out.printf(Locale.ROOT, "Users:          %,d (%,d MiB of JSON)%n", USER_COUNT, mib(json.length));
+        System.out.printf(Locale.ROOT, "Default:        %,d MiB (%,d bytes/user)%n", mib(plainBytes), plainBytes / USER_COUNT);
+        System.out.printf(Locale.ROOT, "Deduplicated:   %,d MiB (%,d bytes/user)%n",
+                mib(deduplicatedBytes), deduplicatedBytes / USER_COUNT);
+        System.out.printf(Locale.ROOT, "Reduction:      %.1f%%%n", 100.0 * (plainBytes - deduplicatedBytes) / plainBytes);
+    }
+
+    private static List<User> newUsers() {
+        var users = new ArrayList<User>(USER_COUNT);
+        for (long id = 1; id <= USER_COUNT; id++) {
+            users.add(User.newWithRedactedPassword(id, "user_" + id, "First" + (id % DISTINCT_NAMES) + " Last"));
+        }
+        return users;
+    }
+
+    private static long retainedBytes(ObjectMapper mapper, byte[] json) throws IOException {
+        var baseline = usedHeapBytes();
+        var users = mapper.readValue(json, USER_LIST);
+        var retained = usedHeapBytes() - baseline;
+
+        // Keep the users reachable until measurement is done
+        if (users.size() != USER_COUNT) {
+            throw new IllegalStateException("Unexpected user count");
+        }
+        return retained;
+    }
+}
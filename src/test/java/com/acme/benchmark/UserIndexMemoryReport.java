@@ -0,0 +1,56 @@
+package com.acme.benchmark;
+
+import static com.acme.benchmark.HeapUsage.mib;
+import static com.acme.benchmark.HeapUsage.usedHeapBytes;
+
+import com.acme.client.index.UserIndex;
+import com.acme.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports the heap used by a {@link UserIndex} of one million users.
+ * <p>
+ * The report separates the memory used by the {@code User} objects themselves from the
+ * overhead of the indexes. Heap usage is measured after repeated garbage collections, so
+ * run with a fixed heap (e.g. {@code -Xms4g -Xmx4g}) and no other activity for stable numbers.
+ */
+public class UserIndexMemoryReport {
+
+    private static final int USER_COUNT = 1_000_000;
+
+    public static void main(String[] args) {
+        var baseline = usedHeapBytes();
+
+        var users = newUsers();
+        var withUsers = usedHeapBytes();
+
+        var index = new UserIndex();
+        index.putAll(users);
+        var withIndex = usedHeapBytes();
+
+        var userBytes = withUsers - baseline;
+        var indexBytes = withIndex - withUsers;
+
+        System.out.printf(Locale.ROOT, "Users:          %,d%n", index.size());
+        System.out.printf(Locale.ROOT, "User objects:   %,d MiB (%,d bytes/user)%n", mib(userBytes), userBytes / USER_COUNT);
+        System.out.printf(Locale.ROOT, "Index overhead: %,d MiB (%,d bytes/user)%n", mib(indexBytes), indexBytes / USER_COUNT);
+        System.out.printf(Locale.ROOT, "Total:          %,d MiB (%,d bytes/user)%n",
+                mib(userBytes + indexBytes), (userBytes + indexBytes) / USER_COUNT);
+
+        // Keep the users and index reachable until measurement is done
+        if (users.size() != index.size()) {
+            throw new IllegalStateException("Unexpected index size");
+        }
+    }
+
+    private static List<User> newUsers() {
+        var users = new ArrayList<User>(USER_COUNT);
+        for (long id = 1; id <= USER_COUNT; id++) {
+            users.add(User.newWithRedactedPassword(id, "user_" + id, "First" + (id % 5_000) + " Last" + id));
+        }
+        return users;
+    }
+}
@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
+import com.acme.junit.extension.TestRoute;
 import com.acme.model.User;
 import io.dropwizard.testing.junit5.DropwizardClientExtension;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
@@ -13,6 +14,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
@@ -28,18 +30,27 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.kiwiproject.test.assertj.KiwiAssertJ;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.random.RandomGenerator;
 
 /**
  * Test of the {@link UserApiClient} using Dropwizard's HTTP client testing
  * support: {@link DropwizardClientExtension}.
+ * <p>
+ * The tests run concurrently. Each one sends a {@link TestRoute} header with its
+ * requests, so responses it scripts are only returned to its own requests.
  */
 @ExtendWith(DropwizardExtensionsSupport.class)
+@Execution(ExecutionMode.CONCURRENT)
 class DropwizardUserApiClientTest {
 
     @Path("/users")
@@ -49,10 +60,19 @@ class DropwizardUserApiClientTest {
 
         static final long USER_DOES_NOT_EXIST_ID = -42L;
 
-        static final AtomicBoolean return500NextRequest = new AtomicBoolean();
+        static final Map<String, Queue<Integer>> scriptedStatuses = new ConcurrentHashMap<>();
 
-        static void setReturn500NextRequest() {
-            return500NextRequest.set(true);
+        static void scriptStatus(TestRoute route, int status) {
+            scriptedStatuses.computeIfAbsent(route.id(), id -> new ConcurrentLinkedQueue<>()).add(status);
+        }
+
+        static void removeScript(TestRoute route) {
+            scriptedStatuses.remove(route.id());
+        }
+
+        private static Integer nextScriptedStatus(String routeId) {
+            var statuses = routeId == null ? null : scriptedStatuses.get(routeId);
+            return statuses == null ? null : statuses.poll();
         }
 
         @GET
@@ -68,10 +88,11 @@ class DropwizardUserApiClientTest {
         }
 
         @GET
-        public Response list() {
-            // Strategy #2: allow calling tests to control when an error response is sent (not safe for parallel tests)
-            if (return500NextRequest.getAndSet(false)) {
-                return Response.serverError().build();
+        public Response list(@HeaderParam(TestRoute.HEADER_NAME) String routeId) {
+            // Strategy #2: allow calling tests to script error responses for the requests on their route
+            var scriptedStatus = nextScriptedStatus(routeId);
+            if (scriptedStatus != null) {
+                return Response.status(scriptedStatus).build();
             }
 
             var users = List.of(
@@ -105,12 +126,15 @@ class DropwizardUserApiClientTest {
 
     private UserApiClient apiClient;
     private Client client;
+    private TestRoute route;
 
     @BeforeEach
     void setUp() {
+        route = TestRoute.newRoute();
         client = ClientBuilder.newBuilder()
                 .connectTimeout(500, TimeUnit.MILLISECONDS)
                 .readTimeout(500, TimeUnit.MILLISECONDS)
+                .register(route)
                 .build();
 
         var baseUri = CLIENT_EXTENSION.baseUri();
@@ -120,6 +144,7 @@ class DropwizardUserApiClientTest {
     @AfterEach
     void tearDown() {
         client.close();
+        MockUserResource.removeScript(route);
     }
 
     @Test
@@ -156,7 +181,7 @@ class DropwizardUserApiClientTest {
 
     @Test
     void shouldThrow_IllegalState_WhenListUsersDoesNotReturn_200() {
-        MockUserResource.setReturn500NextRequest();
+        MockUserResource.scriptStatus(route, 500);
 
         assertThatIllegalStateException()
                 .isThrownBy(() -> apiClient.list())
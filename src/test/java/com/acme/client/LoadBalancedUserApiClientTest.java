@@ -0,0 +1,173 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.loadbalance.EjectionPolicy;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.client.loadbalance.LoadBalancingStrategy;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Test of the {@link UserApiClient} balancing requests across several
+ * {@link MockWebServer} instances.
+ */
+@DisplayName("UserApiClient (load balanced)")
+class LoadBalancedUserApiClientTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension1 = new MockWebServerExtension();
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension2 = new MockWebServerExtension();
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension3 = new MockWebServerExtension();
+
+    private Client client;
+    private List<MockWebServer> servers;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        servers = List.of(serverExtension1.server(), serverExtension2.server(), serverExtension3.server());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldDistributeRequestsRoundRobin() {
+        var apiClient = new UserApiClient(client, newLoadBalancer(LoadBalancingStrategy.roundRobin()));
+        servers.forEach(server -> enqueueUsers(server, 2));
+
+        IntStream.range(0, 6).forEach(ignored -> assertThat(apiClient.list()).hasSize(1));
+
+        assertThat(servers).extracting(MockWebServer::getRequestCount).containsExactly(2, 2, 2);
+    }
+
+    @Test
+    void shouldSendRequests_ToEndpointsWithFewestOutstandingRequests() throws InterruptedException {
+        var apiClient = new UserApiClient(client, newLoadBalancer(LoadBalancingStrategy.leastOutstandingRequests()));
+        enqueueSlowUsers(servers.get(0));
+        enqueueSlowUsers(servers.get(1));
+        enqueueUsers(servers.get(2), 1);
+
+        // Hold one request open on each of the first two endpoints
+        var first = CompletableFuture.supplyAsync(apiClient::list);
+        assertThat(servers.get(0).takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+        var second = CompletableFuture.supplyAsync(apiClient::list);
+        assertThat(servers.get(1).takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+
+        assertThat(apiClient.list()).hasSize(1);
+        assertThat(servers.get(2).getRequestCount()).isOne();
+
+        assertThat(first.join()).hasSize(1);
+        assertThat(second.join()).hasSize(1);
+        assertThat(servers).extracting(MockWebServer::getRequestCount).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void shouldBreakTiesByListOrder_UsingLeastOutstandingRequests() {
+        var apiClient = new UserApiClient(client, newLoadBalancer(LoadBalancingStrategy.leastOutstandingRequests()));
+        servers.forEach(server -> enqueueUsers(server, 3));
+
+        IntStream.range(0, 3).forEach(ignored -> assertThat(apiClient.list()).hasSize(1));
+
+        // Requests are sequential, so nothing is outstanding and the first endpoint always wins ties
+        assertThat(servers).extracting(MockWebServer::getRequestCount).containsExactly(3, 0, 0);
+    }
+
+    @Test
+    void shouldSpreadRequests_UsingPowerOfTwoChoices() {
+        var strategy = LoadBalancingStrategy.powerOfTwoChoices(new Random(42));
+        var apiClient = new UserApiClient(client, newLoadBalancer(strategy));
+        servers.forEach(server -> enqueueUsers(server, 30));
+
+        IntStream.range(0, 30).forEach(ignored -> assertThat(apiClient.list()).hasSize(1));
+
+        // With nothing outstanding, the first random pick wins, so each endpoint gets a share
+        assertThat(servers).extracting(MockWebServer::getRequestCount)
+                .allSatisfy(count -> assertThat(count).isBetween(4, 20));
+        assertThat(servers.stream().mapToInt(MockWebServer::getRequestCount).sum()).isEqualTo(30);
+    }
+
+    @Test
+    void shouldEjectEndpoint_ThatReturnsServerErrors() {
+        var ejectionPolicy = new EjectionPolicy(0.5, 2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var loadBalancer = new LoadBalancer(
+                servers.stream().map(server -> server.url("/").uri()).toList(),
+                LoadBalancingStrategy.roundRobin(),
+                ejectionPolicy);
+        var apiClient = new UserApiClient(client, loadBalancer);
+
+        var failingServer = servers.get(0);
+        IntStream.range(0, 2).forEach(ignored -> failingServer.enqueue(new MockResponse().setResponseCode(503)));
+        enqueueUsers(servers.get(1), 10);
+        enqueueUsers(servers.get(2), 10);
+
+        // round-robin sends requests 1 and 4 to the failing server, which is then ejected
+        for (var i = 0; i < 6; i++) {
+            if (i % 3 == 0) {
+                assertThatIllegalStateException()
+                        .isThrownBy(apiClient::list)
+                        .withMessage("Received 503 response from /users");
+            } else {
+                assertThat(apiClient.list()).hasSize(1);
+            }
+        }
+
+        assertThat(loadBalancer.endpoints().get(0).isEjected()).isTrue();
+
+        IntStream.range(0, 10).forEach(ignored -> assertThat(apiClient.list()).hasSize(1));
+
+        assertThat(failingServer.getRequestCount()).isEqualTo(2);
+    }
+
+    private LoadBalancer newLoadBalancer(LoadBalancingStrategy strategy) {
+        var uris = servers.stream().map(server -> server.url("/").uri()).toList();
+        return new LoadBalancer(uris, strategy, EjectionPolicy.defaults());
+    }
+
+    private static void enqueueSlowUsers(MockWebServer server) {
+        var body = JSON_HELPER.toJson(List.of(User.newWithRedactedPassword(1L, "a_jones", "Alice Jones")));
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setHeadersDelay(300, TimeUnit.MILLISECONDS)
+                .setBody(body));
+    }
+
+    private static void enqueueUsers(MockWebServer server, int count) {
+        var body = JSON_HELPER.toJson(List.of(User.newWithRedactedPassword(1L, "a_jones", "Alice Jones")));
+        IntStream.range(0, count).forEach(ignored -> server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(body)));
+    }
+}
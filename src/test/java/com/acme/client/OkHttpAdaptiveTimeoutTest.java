@@ -0,0 +1,150 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.latency.AdaptiveTimeouts;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link AdaptiveTimeouts} in {@link ApiRequestExecutor}.
+ */
+@DisplayName("Adaptive timeouts")
+class OkHttpAdaptiveTimeoutTest {
+
+    private static final int MIN_SAMPLES = 20;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private AdaptiveTimeouts adaptiveTimeouts;
+    private UserApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+
+        server = serverExtension.server();
+        adaptiveTimeouts = AdaptiveTimeouts.builder()
+                .multiplier(3.0)
+                .floor(Duration.ofMillis(100))
+                .ceiling(Duration.ofSeconds(5))
+                .minSamples(MIN_SAMPLES)
+                .build();
+        apiClient = new UserApiClient(ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .adaptiveTimeouts(adaptiveTimeouts)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldUseClientReadTimeout_UntilEnoughLatenciesAreObserved() {
+        server.enqueue(userResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        assertThat(apiClient.getById(42)).isPresent();
+        assertThat(adaptiveTimeouts.readTimeoutFor(UserApiClient.GET_BY_ID.name())).isEmpty();
+    }
+
+    @Test
+    void shouldFailFast_WhenResponseIsMuchSlowerThanObservedLatencies() throws InterruptedException {
+        warmUpClient();
+        for (var i = 0; i < MIN_SAMPLES; i++) {
+            server.enqueue(userResponse());
+            apiClient.getById(42);
+        }
+        // Timeouts are recomputed at most once a second
+        Thread.sleep(1_100);
+
+        // The floor, unless a sample was slowed down, e.g. by garbage collection
+        assertThat(adaptiveTimeouts.readTimeoutFor(UserApiClient.GET_BY_ID.name()).orElseThrow())
+                .isBetween(Duration.ofMillis(100), Duration.ofMillis(300));
+
+        server.enqueue(userResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+        var start = System.nanoTime();
+        assertThatExceptionOfType(ProcessingException.class)
+                .isThrownBy(() -> apiClient.getById(42))
+                .withCauseInstanceOf(SocketTimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(800));
+    }
+
+    @Test
+    void shouldAllowSlowerResponses_WhenObservedLatenciesAreHigher() throws InterruptedException {
+        for (var i = 0; i < MIN_SAMPLES; i++) {
+            server.enqueue(userResponse().setHeadersDelay(100, TimeUnit.MILLISECONDS));
+            apiClient.getById(42);
+        }
+        Thread.sleep(1_100);
+
+        var readTimeout = adaptiveTimeouts.readTimeoutFor(UserApiClient.GET_BY_ID.name()).orElseThrow();
+        assertThat(readTimeout).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+
+        server.enqueue(userResponse().setHeadersDelay(250, TimeUnit.MILLISECONDS));
+        assertThat(apiClient.getById(42)).isPresent();
+    }
+
+    @Test
+    void shouldNotRaiseTimeout_WhenRequestsTimeOut() throws InterruptedException {
+        warmUpClient();
+        for (var i = 0; i < MIN_SAMPLES; i++) {
+            server.enqueue(userResponse());
+            apiClient.getById(42);
+        }
+        Thread.sleep(1_100);
+        var readTimeout = adaptiveTimeouts.readTimeoutFor(UserApiClient.GET_BY_ID.name()).orElseThrow();
+
+        for (var i = 0; i < 5; i++) {
+            server.enqueue(userResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+            assertThatExceptionOfType(ProcessingException.class).isThrownBy(() -> apiClient.getById(42));
+        }
+        Thread.sleep(1_100);
+
+        assertThat(adaptiveTimeouts.readTimeoutFor(UserApiClient.GET_BY_ID.name()).orElseThrow())
+                .isLessThanOrEqualTo(readTimeout.plusMillis(50));
+    }
+
+    /**
+     * Make one call without adaptive timeouts, so the first recorded latency does not include
+     * initializing the client runtime, the JSON providers, and the connection.
+     */
+    private void warmUpClient() {
+        server.enqueue(userResponse());
+        assertThat(new UserApiClient(client, serverExtension.uri()).getById(42)).isPresent();
+    }
+
+    private static MockResponse userResponse() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+    }
+}
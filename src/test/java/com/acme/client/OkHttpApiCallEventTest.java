@@ -0,0 +1,152 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of the {@link ApiCallEvent} JFR event.
+ */
+@DisplayName("ApiCallEvent")
+class OkHttpApiCallEventTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    @TempDir
+    private Path tempDir;
+
+    private Client client;
+    private MockWebServer server;
+    private MathApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+
+        var executor = ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .retryPolicy(new RetryPolicy(3, Duration.ofMillis(5), Duration.ofMillis(10), Set.of(503)))
+                .build();
+        apiClient = new MathApiClient(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldRecordEvent_ForEachCall() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(sumResponse("4"));
+
+        var events = recordEvents(() -> assertThat(apiClient.add(2, 2)).isEqualTo(4));
+
+        assertThat(events).hasSize(1);
+        var event = events.get(0);
+        assertAll(
+                () -> assertThat(event.getString("operation")).isEqualTo(MathApiClient.ADD.name()),
+                () -> assertThat(event.getString("endpoint")).isEqualTo(serverExtension.uri().toString()),
+                () -> assertThat(event.getInt("status")).isEqualTo(200),
+                () -> assertThat(event.getLong("responseBytes")).isOne(),
+                () -> assertThat(event.getInt("retryCount")).isOne(),
+                () -> assertThat(event.getLong("waitTime")).isNotNegative(),
+                () -> assertThat(event.getString("failure")).isNull(),
+                () -> assertThat(event.getDuration()).isPositive()
+        );
+    }
+
+    @Test
+    void shouldRecordFailure() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("oops"));
+
+        var events = recordEvents(() ->
+                assertThatIllegalStateException().isThrownBy(() -> apiClient.add(2, 2)));
+
+        assertThat(events).hasSize(1);
+        var event = events.get(0);
+        assertAll(
+                () -> assertThat(event.getInt("status")).isEqualTo(500),
+                () -> assertThat(event.getInt("retryCount")).isZero(),
+                () -> assertThat(event.getString("failure")).isEqualTo(IllegalStateException.class.getName())
+        );
+    }
+
+    @Test
+    void shouldNotRecordEvents_WhenNotEnabled() throws IOException {
+        server.enqueue(sumResponse("4"));
+
+        try (var recording = new Recording()) {
+            recording.start();
+            apiClient.add(2, 2);
+            recording.stop();
+
+            var file = tempDir.resolve("disabled.jfr");
+            recording.dump(file);
+
+            assertThat(apiCallEvents(file)).isEmpty();
+        }
+    }
+
+    private List<RecordedEvent> recordEvents(Runnable calls) throws IOException {
+        try (var recording = new Recording()) {
+            recording.enable(ApiCallEvent.NAME);
+            recording.start();
+            calls.run();
+            recording.stop();
+
+            var file = tempDir.resolve("enabled.jfr");
+            recording.dump(file);
+            return apiCallEvents(file);
+        }
+    }
+
+    /**
+     * Get the events for calls to this test's server, ignoring calls made by tests running in parallel.
+     */
+    private List<RecordedEvent> apiCallEvents(Path file) throws IOException {
+        var endpoint = serverExtension.uri().toString();
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(ApiCallEvent.NAME))
+                .filter(event -> endpoint.equals(event.getString("endpoint")))
+                .toList();
+    }
+
+    private static MockResponse sumResponse(String sum) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                .setBody(sum);
+    }
+}
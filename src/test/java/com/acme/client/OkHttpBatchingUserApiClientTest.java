@@ -0,0 +1,250 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Test of {@link BatchingUserApiClient} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("BatchingUserApiClient")
+class OkHttpBatchingUserApiClientTest {
+
+    private static final long MISSING_USER_ID = 404L;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private BatchingUserApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        server.setDispatcher(new BulkUsersDispatcher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        apiClient.close();
+        client.close();
+    }
+
+    @Test
+    void shouldBatchConcurrentCalls_WithinWindow() throws InterruptedException {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMillis(100), 100);
+
+        var callers = Executors.newFixedThreadPool(20);
+        var futures = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> CompletableFuture.supplyAsync(() -> apiClient.getById(id), callers))
+                .toList();
+
+        var users = futures.stream().map(CompletableFuture::join).map(Optional::orElseThrow).toList();
+        callers.shutdown();
+
+        assertAll(
+                () -> assertThat(users).extracting(User::id).containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList()),
+                () -> assertThat(server.getRequestCount()).isLessThan(20)
+        );
+
+        var request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getRequestUrl().encodedPath()).isEqualTo("/users");
+    }
+
+    @Test
+    void shouldSendBatch_WhenMaxBatchSizeReached_WithoutWaitingForWindow() {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 3);
+
+        var futures = LongStream.rangeClosed(1, 3).mapToObj(apiClient::getByIdAsync).toList();
+
+        var users = futures.stream()
+                .map(future -> future.orTimeout(2, TimeUnit.SECONDS).join())
+                .map(Optional::orElseThrow)
+                .toList();
+
+        assertAll(
+                () -> assertThat(users).extracting(User::id).containsExactly(1L, 2L, 3L),
+                () -> assertThat(server.getRequestCount()).isOne()
+        );
+    }
+
+    @Test
+    void shouldDeduplicateIds_AndReturnEmpty_ForMissingUsers() throws InterruptedException {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 100);
+
+        var first = apiClient.getByIdAsync(7);
+        var second = apiClient.getByIdAsync(7);
+        var missing = apiClient.getByIdAsync(MISSING_USER_ID);
+        apiClient.close();
+
+        assertAll(
+                () -> assertThat(first.join()).map(User::id).contains(7L),
+                () -> assertThat(second).isSameAs(first),
+                () -> assertThat(missing.join()).isEmpty(),
+                () -> assertThat(server.getRequestCount()).isOne()
+        );
+
+        var request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getRequestUrl().queryParameterValues("id")).containsExactlyInAnyOrder("7", "404");
+    }
+
+    @Test
+    void shouldReturnEmptyForEveryCallInBatch_WhenBulkRequestReceivesErrorResponse() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(503);
+            }
+        });
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 2);
+
+        var first = apiClient.getByIdAsync(1);
+        var second = apiClient.getByIdAsync(2);
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(Optional.empty());
+        assertThat(second).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void shouldFailEveryCallInBatch_WhenBulkRequestCannotBeSent() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+            }
+        });
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMillis(10), 100);
+
+        assertThatThrownBy(() -> apiClient.getById(1)).isInstanceOf(ProcessingException.class);
+    }
+
+    @Test
+    void shouldCompleteEveryCall_WhenClosedWhileCalling() throws InterruptedException {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMillis(5), 2);
+
+        var callers = Executors.newFixedThreadPool(8);
+        var futures = new ConcurrentLinkedQueue<CompletableFuture<Optional<User>>>();
+        var startLatch = new CountDownLatch(1);
+        for (var caller = 0; caller < 8; caller++) {
+            var firstId = caller * 1_000L;
+            callers.execute(() -> {
+                awaitQuietly(startLatch);
+                for (var id = firstId; id < firstId + 1_000; id++) {
+                    try {
+                        futures.add(apiClient.getByIdAsync(id));
+                    } catch (IllegalStateException e) {
+                        return;  // closed
+                    }
+                }
+            });
+        }
+
+        startLatch.countDown();
+        Thread.sleep(20);
+        apiClient.close();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(futures).isNotEmpty().allSatisfy(future ->
+                assertThat(future).succeedsWithin(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void shouldSendBatch_WithLatestDeadlineOfItsCallers() throws InterruptedException {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 2);
+
+        var first = Deadline.after(Duration.ofSeconds(1)).call(() -> apiClient.getByIdAsync(1));
+        var second = Deadline.after(Duration.ofSeconds(5)).call(() -> apiClient.getByIdAsync(2));
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(2));
+        assertThat(second).succeedsWithin(Duration.ofSeconds(2));
+
+        var request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(Long.parseLong(request.getHeader(Deadline.HEADER_NAME))).isBetween(4_000L, 5_000L);
+    }
+
+    @Test
+    void shouldSendBatch_WithoutDeadline_WhenAnyCallerHasNone() throws InterruptedException {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 2);
+
+        var first = Deadline.after(Duration.ofSeconds(1)).call(() -> apiClient.getByIdAsync(1));
+        var second = apiClient.getByIdAsync(2);
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(2));
+        assertThat(second).succeedsWithin(Duration.ofSeconds(2));
+
+        var request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getHeader(Deadline.HEADER_NAME)).isNull();
+    }
+
+    @Test
+    void shouldThrowDeadlineExceeded_WhenCallersDeadlinePassesBeforeBatchIsSent() {
+        apiClient = new BatchingUserApiClient(client, serverExtension.uri(), Duration.ofMinutes(1), 100);
+
+        try (var ignored = Deadline.after(Duration.ofMillis(50)).attach()) {
+            assertThatThrownBy(() -> apiClient.getById(1)).isExactlyInstanceOf(DeadlineExceededException.class);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class BulkUsersDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            var users = request.getRequestUrl().queryParameterValues("id").stream()
+                    .map(Long::valueOf)
+                    .filter(id -> id != MISSING_USER_ID)
+                    .map(id -> User.newWithRedactedPassword(id, "user_" + id, "User " + id))
+                    .toList();
+
+            return new MockResponse()
+                    .setResponseCode(200)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .setBody(JSON_HELPER.toJson(users));
+        }
+    }
+}
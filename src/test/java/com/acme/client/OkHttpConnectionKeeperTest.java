@@ -0,0 +1,140 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.connection.CachingDnsResolver;
+import com.acme.client.connection.ConnectionKeeper;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.net.HttpHeaders;
+import io.dropwizard.client.JerseyClientBuilder;
+import io.dropwizard.client.JerseyClientConfiguration;
+import io.dropwizard.jackson.Jackson;
+import jakarta.ws.rs.client.Client;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link ConnectionKeeper} and {@link CachingDnsResolver}, using a Dropwizard client
+ * and the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("ConnectionKeeper")
+class OkHttpConnectionKeeperTest {
+
+    private static final int MIN_CONNECTIONS = 2;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private MockWebServer server;
+    private ExecutorService clientExecutor;
+    private CachingDnsResolver dnsResolver;
+    private Client client;
+    private LoadBalancer loadBalancer;
+    private ConnectionKeeper keeper;
+
+    @BeforeEach
+    void setUp() {
+        server = serverExtension.server();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("HEAD".equals(request.getMethod())) {
+                    // Keep the HEAD requests overlapping, so each one needs its own connection
+                    return new MockResponse().setResponseCode(200).setHeadersDelay(200, TimeUnit.MILLISECONDS);
+                }
+
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+            }
+        });
+
+        var config = new JerseyClientConfiguration();
+        config.setMaxConnectionsPerRoute(MIN_CONNECTIONS);
+        config.setTimeout(io.dropwizard.util.Duration.seconds(1));
+        config.setGzipEnabled(false);
+
+        clientExecutor = Executors.newCachedThreadPool();
+        dnsResolver = new CachingDnsResolver(Duration.ofMinutes(5));
+        client = new JerseyClientBuilder(new MetricRegistry())
+                .using(config)
+                .using(clientExecutor, Jackson.newObjectMapper())
+                .using(dnsResolver)
+                .build("connection-keeper-test");
+        loadBalancer = LoadBalancer.singleEndpoint(serverExtension.uri());
+        keeper = ConnectionKeeper.builder()
+                .client(client)
+                .loadBalancer(loadBalancer)
+                .minConnectionsPerEndpoint(MIN_CONNECTIONS)
+                .interval(Duration.ofMillis(100))
+                .dnsResolver(dnsResolver)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        keeper.close();
+        client.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldOpenConnections_AndResolveHosts_BeforeFirstCall() throws InterruptedException {
+        assertThat(keeper.refresh()).isEqualTo(MIN_CONNECTIONS);
+
+        var head1 = server.takeRequest(1, TimeUnit.SECONDS);
+        var head2 = server.takeRequest(1, TimeUnit.SECONDS);
+
+        var user = new UserApiClient(client, loadBalancer).getById(42);
+        var get = server.takeRequest(1, TimeUnit.SECONDS);
+
+        assertAll(
+                () -> assertThat(user).isPresent(),
+                () -> assertThat(head1.getSequenceNumber()).isZero(),
+                () -> assertThat(head2.getSequenceNumber()).isZero(),
+                () -> assertThat(get.getMethod()).isEqualTo("GET"),
+                () -> assertThat(get.getSequenceNumber()).describedAs("reused a warm connection").isPositive(),
+                () -> assertThat(dnsResolver.cachedHostCount()).isOne()
+        );
+    }
+
+    @Test
+    void shouldReuseWarmConnections_OnLaterRefreshes() throws InterruptedException {
+        keeper.refresh();
+        keeper.refresh();
+
+        for (var i = 0; i < 2 * MIN_CONNECTIONS; i++) {
+            var request = server.takeRequest(1, TimeUnit.SECONDS);
+            assertThat(request).isNotNull();
+            assertThat(request.getMethod()).isEqualTo("HEAD");
+            assertThat(request.getSequenceNumber()).isEqualTo(i < MIN_CONNECTIONS ? 0 : 1);
+        }
+    }
+
+    @Test
+    void shouldRefreshInBackground_OnceStarted() throws InterruptedException {
+        keeper.start();
+
+        for (var i = 0; i < 2 * MIN_CONNECTIONS; i++) {
+            assertThat(server.takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        }
+    }
+}
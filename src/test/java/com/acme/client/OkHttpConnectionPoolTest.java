@@ -0,0 +1,151 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.net.HttpHeaders;
+import io.dropwizard.client.JerseyClientBuilder;
+import io.dropwizard.client.JerseyClientConfiguration;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Duration;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests that the API clients return every pooled connection, using a Dropwizard client with a
+ * small connection pool and the OkHttp {@link MockWebServer}.
+ * <p>
+ * If any call leaked its response, the pool would drain after a few calls, and later calls
+ * would fail with a {@link ProcessingException} when they timed out waiting for a connection.
+ */
+@DisplayName("Connection pool")
+class OkHttpConnectionPoolTest {
+
+    private static final int MAX_CONNECTIONS = 2;
+    private static final int CALLS = 400;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private ExecutorService clientExecutor;
+    private ExecutorService callerExecutor;
+    private ResponseLeakDetector leakDetector;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        var config = new JerseyClientConfiguration();
+        config.setMaxConnections(MAX_CONNECTIONS);
+        config.setMaxConnectionsPerRoute(MAX_CONNECTIONS);
+        config.setConnectionRequestTimeout(Duration.milliseconds(500));
+        config.setTimeout(Duration.seconds(1));
+        config.setGzipEnabled(false);
+
+        clientExecutor = Executors.newCachedThreadPool();
+        callerExecutor = Executors.newFixedThreadPool(8);
+        leakDetector = new ResponseLeakDetector(1.0);
+        client = new JerseyClientBuilder(new MetricRegistry())
+                .using(config)
+                .using(clientExecutor, Jackson.newObjectMapper())
+                .build("connection-pool-test");
+        client.register(leakDetector);
+
+        serverExtension.server().setDispatcher(new MixedOutcomeDispatcher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        callerExecutor.shutdownNow();
+        client.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldNeverDrainPool_WhenCallsSucceedAndFail() throws Exception {
+        var userApiClient = new UserApiClient(client, serverExtension.uri());
+        var mathApiClient = new MathApiClient(client, serverExtension.uri());
+        var poolFailures = new ConcurrentLinkedQueue<ProcessingException>();
+
+        var calls = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < CALLS; i++) {
+            var call = i;
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    makeCall(call, userApiClient, mathApiClient);
+                } catch (ProcessingException e) {
+                    poolFailures.add(e);
+                } catch (IllegalArgumentException | IllegalStateException expected) {
+                    // error responses are expected; their connections must still be returned
+                }
+            }, callerExecutor));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertAll(
+                () -> assertThat(poolFailures).isEmpty(),
+                () -> assertThat(leakDetector.trackedCount()).isPositive(),
+                () -> assertThat(leakDetector.leakCount()).isZero()
+        );
+    }
+
+    private static void makeCall(int call, UserApiClient userApiClient, MathApiClient mathApiClient) {
+        switch (call % 6) {
+            case 0 -> userApiClient.getById(42);
+            case 1 -> userApiClient.getById(404);
+            case 2 -> userApiClient.create(User.newWithRedactedPassword(null, "new_user", "New User"));
+            case 3 -> userApiClient.update(User.newWithRedactedPassword(500L, "server_error", "Server Error"));
+            case 4 -> mathApiClient.add(2, 3);
+            default -> mathApiClient.add(-1, 3);
+        }
+    }
+
+    /**
+     * Answers each kind of call with a success or an error response with a body.
+     */
+    private static class MixedOutcomeDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            var path = request.getPath();
+            if ("/users/42".equals(path)) {
+                return jsonResponse(200, JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+            } else if ("/users".equals(path)) {
+                return jsonResponse(201, JSON_HELPER.toJson(User.newWithRedactedPassword(7L, "new_user", "New User")));
+            } else if ("/users/500".equals(path)) {
+                return jsonResponse(500, "{\"message\":\"" + "x".repeat(10_000) + "\"}");
+            } else if ("/math/add/2/3".equals(path)) {
+                return new MockResponse().setResponseCode(200).setHeader(HttpHeaders.CONTENT_TYPE, "text/plain").setBody("5");
+            } else if (path != null && path.startsWith("/math/add/")) {
+                return new MockResponse().setResponseCode(400).setBody("Negative numbers are not supported");
+            }
+            return jsonResponse(404, "{\"message\":\"not found\"}");
+        }
+
+        private static MockResponse jsonResponse(int status, String body) {
+            return new MockResponse()
+                    .setResponseCode(status)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .setBody(body);
+        }
+    }
+}
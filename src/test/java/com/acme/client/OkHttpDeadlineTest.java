@@ -0,0 +1,206 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of deadlines, per-operation timeouts, and retries in {@link ApiRequestExecutor}.
+ */
+@DisplayName("Deadlines and retries")
+class OkHttpDeadlineTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+
+        server = serverExtension.server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldSendRemainingTime_InDeadlineHeader() throws InterruptedException {
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+        server.enqueue(userResponse(42L));
+
+        var user = Deadline.after(Duration.ofSeconds(5)).call(() -> apiClient.getById(42));
+        assertThat(user).isPresent();
+
+        var recordedRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(recordedRequest).isNotNull();
+
+        var remainingMillis = Long.parseLong(recordedRequest.getHeader(Deadline.HEADER_NAME));
+        assertThat(remainingMillis).isBetween(1L, 5_000L);
+    }
+
+    @Test
+    void shouldNotSendDeadlineHeader_WhenThereIsNoDeadline() throws InterruptedException {
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+        server.enqueue(userResponse(42L));
+
+        assertThat(apiClient.getById(42)).isPresent();
+
+        var recordedRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader(Deadline.HEADER_NAME)).isNull();
+    }
+
+    @Test
+    void shouldNotSendRequest_WhenDeadlineHasAlreadyPassed() {
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+
+        assertThatExceptionOfType(DeadlineExceededException.class)
+                .isThrownBy(() -> Deadline.after(Duration.ofMillis(-1)).run(() -> apiClient.getById(42)));
+
+        assertThat(server.getRequestCount()).isZero();
+    }
+
+    @Test
+    void shouldUseEarlierDeadline_WhenDeadlinesAreNested() {
+        var outer = Deadline.after(Duration.ofMillis(100));
+
+        try (var ignoredOuter = outer.attach();
+             var ignoredInner = Deadline.after(Duration.ofMinutes(1)).attach()) {
+            assertThat(Deadline.current()).containsSame(outer);
+        }
+
+        assertThat(Deadline.current()).isEmpty();
+    }
+
+    @Test
+    void shouldFailSlowResponse_WhenOperationTimeoutElapses() {
+        var executor = ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .operationTimeouts(OperationTimeouts.builder()
+                        .timeout(UserApiClient.GET_BY_ID.name(), Duration.ofMillis(200))
+                        .build())
+                .build();
+        var apiClient = new UserApiClient(executor);
+
+        server.enqueue(userResponse(42L).setHeadersDelay(1, TimeUnit.SECONDS));
+
+        var start = System.nanoTime();
+        assertThatExceptionOfType(DeadlineExceededException.class)
+                .isThrownBy(() -> apiClient.getById(42));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldRetryIdempotentOperations() {
+        var apiClient = new UserApiClient(executorWithRetries(5));
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(userResponse(42L));
+
+        assertAll(
+                () -> assertThat(apiClient.getById(42)).isPresent(),
+                () -> assertThat(server.getRequestCount()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    void shouldReturnLastResponse_WhenAttemptsAreExhausted() {
+        var apiClient = new UserApiClient(executorWithRetries(2));
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThatIllegalStateException()
+                .isThrownBy(apiClient::list)
+                .withMessage("Received 503 response from /users");
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentOperations() {
+        var apiClient = new UserApiClient(executorWithRetries(5));
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        var newUser = new User(null, "j_smith", "password123", "Jane Smith");
+        assertThatIllegalStateException()
+                .isThrownBy(() -> apiClient.create(newUser))
+                .withMessage("Failed to create user (response code: 503)");
+
+        assertThat(server.getRequestCount()).isOne();
+    }
+
+    @Test
+    void shouldStopRetrying_WhenDeadlineIsReached() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(503)
+                        .setHeadersDelay(40, TimeUnit.MILLISECONDS);
+            }
+        });
+        var apiClient = new UserApiClient(executorWithRetries(100));
+
+        var start = System.nanoTime();
+        var thrown = catchThrowable(() -> Deadline.after(Duration.ofMillis(250)).run(apiClient::list));
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Depending on timing, the last attempt either times out or returns its 503 response
+        assertAll(
+                () -> assertThat(thrown).isInstanceOfAny(DeadlineExceededException.class, IllegalStateException.class),
+                () -> assertThat(elapsed).isLessThan(Duration.ofSeconds(1)),
+                () -> assertThat(server.getRequestCount()).isBetween(1, 10)
+        );
+    }
+
+    private ApiRequestExecutor executorWithRetries(int maxAttempts) {
+        return ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .retryPolicy(new RetryPolicy(maxAttempts, Duration.ofMillis(5), Duration.ofMillis(20), Set.of(502, 503)))
+                .build();
+    }
+
+    private static MockResponse userResponse(long id) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(new User(id, "j_smith", "[password hidden]", "Jane Smith")));
+    }
+}
@@ -0,0 +1,156 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.CreatedUser;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link UserApiClient#createIdempotently} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("Idempotent create")
+class OkHttpIdempotentCreateTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private UserApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        apiClient = new UserApiClient(ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .retryPolicy(RetryPolicy.defaults())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldSendSameKey_WhenRetryingAfterServerError() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(createdResponse());
+
+        var result = apiClient.createIdempotently(newUser());
+
+        var first = server.takeRequest(1, TimeUnit.SECONDS);
+        var second = server.takeRequest(1, TimeUnit.SECONDS);
+        assertAll(
+                () -> assertThat(result.outcome()).isEqualTo(CreatedUser.Outcome.CREATED),
+                () -> assertThat(result.user().id()).isEqualTo(42),
+                () -> assertThat(result.user().password()).isEqualTo(User.REDACTED_PASSWORD),
+                () -> assertThat(first.getHeader(UserApiClient.IDEMPOTENCY_KEY_HEADER)).isNotBlank(),
+                () -> assertThat(second.getHeader(UserApiClient.IDEMPOTENCY_KEY_HEADER))
+                        .isEqualTo(first.getHeader(UserApiClient.IDEMPOTENCY_KEY_HEADER))
+                        .isEqualTo(result.idempotencyKey())
+        );
+    }
+
+    @Test
+    void shouldRetry_WhenConnectionIsDroppedAfterRequest() throws InterruptedException {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(createdResponse().setHeader(UserApiClient.IDEMPOTENT_REPLAYED_HEADER, "true"));
+
+        var result = apiClient.createIdempotently(newUser(), "import-1:line-7");
+
+        assertThat(result.outcome()).isEqualTo(CreatedUser.Outcome.REPLAYED);
+        assertThat(result.replayed()).isTrue();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS).getHeader(UserApiClient.IDEMPOTENCY_KEY_HEADER))
+                .isEqualTo("import-1:line-7");
+    }
+
+    @Test
+    void shouldUseNewKey_ForEachLogicalCreate() {
+        server.enqueue(createdResponse());
+        server.enqueue(createdResponse());
+
+        var first = apiClient.createIdempotently(newUser());
+        var second = apiClient.createIdempotently(newUser());
+
+        assertThat(first.idempotencyKey()).isNotEqualTo(second.idempotencyKey());
+    }
+
+    @Test
+    void shouldThrowIdempotencyConflict_WhenSameKeyIsInProgress() {
+        server.enqueue(new MockResponse().setResponseCode(409));
+
+        assertThatExceptionOfType(IdempotencyConflictException.class)
+                .isThrownBy(() -> apiClient.createIdempotently(newUser(), "key-1"))
+                .withMessage("A create with idempotency key key-1 is still in progress")
+                .satisfies(e -> assertAll(
+                        () -> assertThat(e.idempotencyKey()).isEqualTo("key-1"),
+                        () -> assertThat(e.reason()).isEqualTo(IdempotencyConflictException.Reason.IN_PROGRESS)
+                ));
+    }
+
+    @Test
+    void shouldThrowIdempotencyConflict_WhenKeyWasUsedForDifferentUser() {
+        server.enqueue(new MockResponse().setResponseCode(422));
+
+        assertThatExceptionOfType(IdempotencyConflictException.class)
+                .isThrownBy(() -> apiClient.createIdempotently(newUser(), "key-1"))
+                .withMessage("Idempotency key key-1 was already used for a different user")
+                .satisfies(e -> assertAll(
+                        () -> assertThat(e.idempotencyKey()).isEqualTo("key-1"),
+                        () -> assertThat(e.reason()).isEqualTo(IdempotencyConflictException.Reason.KEY_MISMATCH)
+                ));
+    }
+
+    @Test
+    void shouldThrowIllegalState_WhenCreateFailsForOtherReasons() {
+        server.enqueue(new MockResponse().setResponseCode(400));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> apiClient.createIdempotently(newUser(), "key-1"))
+                .withMessage("Failed to create user (response code: 400)");
+    }
+
+    @Test
+    void shouldRequireIdempotencyKey() {
+        assertThatIllegalArgumentException().isThrownBy(() -> apiClient.createIdempotently(newUser(), " "));
+    }
+
+    private static User newUser() {
+        return new User(null, "s_white", "snowboarding", "Shaun White");
+    }
+
+    private static MockResponse createdResponse() {
+        return new MockResponse()
+                .setResponseCode(201)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(new User(42L, "s_white", "snowboarding", "Shaun White")));
+    }
+}
@@ -0,0 +1,204 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of how the clients handle very large error response bodies, e.g. the HTML error pages
+ * returned by a misbehaving backend or proxy.
+ */
+@DisplayName("Large error bodies")
+class OkHttpLargeErrorBodyTest {
+
+    private static final int LARGE_BODY_SIZE = 5 * 1024 * 1024;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private ApiRequestExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        executor = ApiRequestExecutor.of(client, serverExtension.uri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldReadOnlyPrefixOfLargeErrorBody() {
+        var mathClient = new MathApiClient(executor);
+        server.enqueue(htmlResponse(500, largeHtmlPage()));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> mathClient.add(2, 2))
+                .satisfies(e -> assertAll(
+                        () -> assertThat(e.getMessage()).startsWith("Unknown error: <html><body>xxxx"),
+                        () -> assertThat(e.getMessage()).endsWith(ErrorBodies.TRUNCATED_SUFFIX),
+                        () -> assertThat(e.getMessage()).hasSize("Unknown error: ".length() +
+                                ErrorBodyLimits.defaults().maxPrefixBytes() + ErrorBodies.TRUNCATED_SUFFIX.length())
+                ));
+    }
+
+    @Test
+    void shouldRespectConfiguredPrefixLimit() {
+        var limitedExecutor = ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .errorBodyLimits(new ErrorBodyLimits(8, 0))
+                .build();
+        var mathClient = new MathApiClient(limitedExecutor);
+        server.enqueue(htmlResponse(400, "overflow: the sum is too large"));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> mathClient.add(Integer.MAX_VALUE, 1))
+                .withMessage("Invalid arguments: overflow" + ErrorBodies.TRUNCATED_SUFFIX);
+    }
+
+    @Test
+    void shouldTrimTruncatedPrefix_ToLastCompleteCharacter() {
+        var limitedExecutor = ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .errorBodyLimits(new ErrorBodyLimits(7, 0))
+                .build();
+        var mathClient = new MathApiClient(limitedExecutor);
+        server.enqueue(htmlResponse(400, "sum: \u20ac\u20ac too large"));
+
+        // the 7 byte limit ends two bytes into the first three byte euro sign
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> mathClient.add(Integer.MAX_VALUE, 1))
+                .withMessage("Invalid arguments: sum: " + ErrorBodies.TRUNCATED_SUFFIX);
+    }
+
+    @Test
+    void shouldReadErrorBodyAsUtf8_WhenCharsetNameIsIllegal() {
+        var mathClient = new MathApiClient(executor);
+        server.enqueue(new MockResponse()
+                .setResponseCode(400)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain; charset=bogus!")
+                .setBody("overflow: \u20ac"));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> mathClient.add(Integer.MAX_VALUE, 1))
+                .withMessage("Invalid arguments: overflow: \u20ac");
+    }
+
+    @Test
+    void shouldCountOnlyCompleteUtf8Characters() {
+        var euro = "\u20ac".getBytes(StandardCharsets.UTF_8);
+        var emoji = "\uD83D\uDE00".getBytes(StandardCharsets.UTF_8);
+
+        assertAll(
+                () -> assertThat(ErrorBodies.completeUtf8Length(new byte[0])).isZero(),
+                () -> assertThat(ErrorBodies.completeUtf8Length("abc".getBytes(StandardCharsets.UTF_8))).isEqualTo(3),
+                () -> assertThat(ErrorBodies.completeUtf8Length(euro)).isEqualTo(3),
+                () -> assertThat(ErrorBodies.completeUtf8Length(Arrays.copyOf(euro, 2))).isZero(),
+                () -> assertThat(ErrorBodies.completeUtf8Length(emoji)).isEqualTo(4),
+                () -> assertThat(ErrorBodies.completeUtf8Length(Arrays.copyOf(emoji, 3))).isZero()
+        );
+    }
+
+    @Test
+    void shouldReuseConnection_AfterReadingPrefixOfErrorBody() throws InterruptedException {
+        var mathClient = new MathApiClient(executor);
+        var body = "x".repeat(ErrorBodyLimits.defaults().maxPrefixBytes() + 10 * 1024);
+        server.enqueue(htmlResponse(500, body));
+        server.enqueue(textResponse("4"));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> mathClient.add(2, 2))
+                .withMessageEndingWith(ErrorBodies.TRUNCATED_SUFFIX);
+        assertThat(mathClient.add(2, 2)).isEqualTo(4);
+
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+        var nextRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(nextRequest).isNotNull();
+        assertThat(nextRequest.getSequenceNumber())
+                .describedAs("the next request should use the same connection")
+                .isPositive();
+    }
+
+    @Test
+    void shouldNotReuseConnection_WhenErrorBodyRemainderIsTooLargeToSkip() throws InterruptedException {
+        var mathClient = new MathApiClient(executor);
+        server.enqueue(htmlResponse(500, largeHtmlPage()));
+        server.enqueue(textResponse("4"));
+
+        assertThatIllegalStateException().isThrownBy(() -> mathClient.add(2, 2));
+        assertThat(mathClient.add(2, 2)).isEqualTo(4);
+
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+        var nextRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(nextRequest).isNotNull();
+        assertThat(nextRequest.getSequenceNumber()).isZero();
+    }
+
+    @Test
+    void shouldContinueWorking_AfterManyLargeErrorBodies() {
+        var mathClient = new MathApiClient(executor);
+        var userClient = new UserApiClient(executor);
+
+        for (var i = 0; i < 5; i++) {
+            server.enqueue(htmlResponse(503, largeHtmlPage()));
+            server.enqueue(htmlResponse(404, largeHtmlPage()));
+        }
+        server.enqueue(textResponse("4"));
+
+        for (var i = 0; i < 5; i++) {
+            assertThatIllegalStateException()
+                    .isThrownBy(userClient::list)
+                    .withMessage("Received 503 response from /users");
+            assertThat(userClient.getById(42)).isEmpty();
+        }
+
+        assertThat(mathClient.add(2, 2)).isEqualTo(4);
+    }
+
+    private static MockResponse htmlResponse(int status, String body) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "text/html; charset=utf-8")
+                .setBody(body);
+    }
+
+    private static MockResponse textResponse(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                .setBody(body);
+    }
+
+    private static String largeHtmlPage() {
+        return "<html><body>" + "x".repeat(LARGE_BODY_SIZE) + "</body></html>";
+    }
+}
@@ -0,0 +1,159 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.client.ratelimit.OperationRateLimiter;
+import com.acme.client.ratelimit.RateLimit;
+import com.acme.client.ratelimit.RateLimitExceededException;
+import com.acme.client.ratelimit.RateLimitMode;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of client-side rate limiting in {@link ApiRequestExecutor}.
+ */
+@DisplayName("Rate limiting")
+class OkHttpRateLimitTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldFailFast_WithoutSendingRequest_WhenLimitIsExceeded() {
+        var apiClient = new UserApiClient(executorWith(OperationRateLimiter.builder()
+                .mode(RateLimitMode.FAIL_FAST)
+                .limit(UserApiClient.GET_BY_ID.name(), new RateLimit(1, 2))
+                .build()));
+
+        server.enqueue(userResponse());
+        server.enqueue(userResponse());
+
+        assertThat(apiClient.getById(42)).isPresent();
+        assertThat(apiClient.getById(42)).isPresent();
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(() -> apiClient.getById(42))
+                .withMessage("Rate limit exceeded for users.getById");
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLimitOperationsSeparately() {
+        var apiClient = new UserApiClient(executorWith(OperationRateLimiter.builder()
+                .mode(RateLimitMode.FAIL_FAST)
+                .limit(UserApiClient.GET_BY_ID.name(), new RateLimit(1, 1))
+                .build()));
+
+        server.enqueue(userResponse());
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody("[]"));
+
+        assertThat(apiClient.getById(42)).isPresent();
+        assertThat(apiClient.list()).isEmpty();
+    }
+
+    @Test
+    void shouldBlock_UntilPermitIsAvailable() {
+        var apiClient = new UserApiClient(executorWith(OperationRateLimiter.builder()
+                .defaultLimit(new RateLimit(10, 1))
+                .build()));
+
+        for (var i = 0; i < 3; i++) {
+            server.enqueue(userResponse());
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < 3; i++) {
+            assertThat(apiClient.getById(42)).isPresent();
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+    }
+
+    @Test
+    void shouldThrowDeadlineExceeded_WhenPermitIsNotAvailableBeforeDeadline() {
+        var apiClient = new UserApiClient(executorWith(OperationRateLimiter.builder()
+                .defaultLimit(new RateLimit(1, 1))
+                .build()));
+
+        server.enqueue(userResponse());
+        assertThat(apiClient.getById(42)).isPresent();
+
+        assertThatExceptionOfType(DeadlineExceededException.class)
+                .isThrownBy(() -> Deadline.after(Duration.ofMillis(100)).call(() -> apiClient.getById(42)));
+
+        assertThat(server.getRequestCount()).isOne();
+    }
+
+    @Test
+    void shouldStopSending_AfterTooManyRequestsResponse_UntilRetryAfterHasPassed() {
+        var apiClient = new UserApiClient(executorWith(OperationRateLimiter.builder()
+                .mode(RateLimitMode.FAIL_FAST)
+                .limit(UserApiClient.LIST.name(), new RateLimit(100, 100))
+                .build()));
+
+        server.enqueue(new MockResponse()
+                .setResponseCode(429)
+                .setHeader(HttpHeaders.RETRY_AFTER, "30"));
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(apiClient::list)
+                .withMessage("Received 429 response from /users");
+
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(apiClient::list);
+
+        assertThat(server.getRequestCount()).isOne();
+    }
+
+    private ApiRequestExecutor executorWith(OperationRateLimiter rateLimiter) {
+        return ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .rateLimiter(rateLimiter)
+                .build();
+    }
+
+    private static MockResponse userResponse() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+    }
+}
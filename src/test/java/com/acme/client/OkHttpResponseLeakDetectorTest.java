@@ -0,0 +1,136 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Test of {@link ResponseLeakDetector} using the OkHttp {@link MockWebServer}.
+ * <p>
+ * Leaks are only detected after garbage collection, so these tests request collections
+ * until the expected leaks have been reported, or give up after a few seconds.
+ */
+@DisplayName("ResponseLeakDetector")
+class OkHttpResponseLeakDetectorTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private List<ResponseLeakDetector.LeakedResponse> leaks;
+    private MockWebServer server;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        leaks = new CopyOnWriteArrayList<>();
+        server = serverExtension.server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldReportLeakedResponse_WithAllocationSite() throws InterruptedException {
+        var detector = new ResponseLeakDetector(1.0, leaks::add);
+        client = newClient(detector);
+        server.enqueue(userResponse());
+
+        leakResponse();
+        awaitGarbageCollection(() -> !leaks.isEmpty(), 50);
+
+        assertThat(leaks).hasSize(1);
+        var leak = leaks.get(0);
+        assertAll(
+                () -> assertThat(leak.request()).startsWith("GET ").contains("/users/42").endsWith("(200)"),
+                () -> assertThat(Arrays.stream(leak.allocationSite().getStackTrace()))
+                        .anyMatch(element -> element.getMethodName().equals("leakResponse")),
+                () -> assertThat(detector.leakCount()).isOne()
+        );
+    }
+
+    @Test
+    void shouldNotReport_ResponsesClosedByApiClients() throws InterruptedException {
+        var detector = new ResponseLeakDetector(1.0, leaks::add);
+        client = newClient(detector);
+        server.enqueue(userResponse());
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("not found"));
+        server.enqueue(new MockResponse().setResponseCode(400).setBody("bad arguments"));
+
+        var userApiClient = new UserApiClient(client, serverExtension.uri());
+        assertThat(userApiClient.getById(42)).isPresent();
+        assertThat(userApiClient.getById(43)).isEmpty();
+        var mathApiClient = new MathApiClient(client, serverExtension.uri());
+        try {
+            mathApiClient.add(1, 2);
+        } catch (IllegalArgumentException expected) {
+            // the response was closed by the executor
+        }
+
+        awaitGarbageCollection(() -> false, 5);
+
+        assertAll(
+                () -> assertThat(detector.trackedCount()).isEqualTo(3),
+                () -> assertThat(leaks).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldOnlyTrackSampledResponses() {
+        var detector = new ResponseLeakDetector(0.1, leaks::add, () -> 0.5);
+        client = newClient(detector);
+        server.enqueue(userResponse());
+
+        assertThat(new UserApiClient(client, serverExtension.uri()).getById(42)).isPresent();
+
+        assertThat(detector.trackedCount()).isZero();
+    }
+
+    private Client newClient(ResponseLeakDetector detector) {
+        return ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .register(detector)
+                .build();
+    }
+
+    @SuppressWarnings("resource")
+    private void leakResponse() {
+        var response = client.target(serverExtension.uri()).path("/users/42").request().get();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private static void awaitGarbageCollection(BooleanSupplier done, int maxCollections) throws InterruptedException {
+        for (var i = 0; i < maxCollections && !done.getAsBoolean(); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    private static MockResponse userResponse() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+    }
+}
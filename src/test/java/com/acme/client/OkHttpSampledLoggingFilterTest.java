@@ -0,0 +1,139 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.logging.ApiCallLogRecord;
+import com.acme.client.logging.SampledLoggingFilter;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link SampledLoggingFilter} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("SampledLoggingFilter")
+class OkHttpSampledLoggingFilterTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private BlockingQueue<ApiCallLogRecord> records;
+    private MockWebServer server;
+    private SampledLoggingFilter loggingFilter;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        records = new LinkedBlockingQueue<>();
+        server = serverExtension.server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        loggingFilter.close();
+    }
+
+    @Test
+    void shouldLogSampledCalls_WithRedactedPasswords() throws InterruptedException {
+        useFilter(new SampledLoggingFilter(1.0, 1_024, 10, records::add));
+        server.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(new User(42L, "j_smith", "not-so-secret-password", "Jane Smith"))));
+
+        var created = newApiClient().create(new User(null, "j_smith", "very-secret-password", "Jane Smith"));
+
+        var record = records.poll(1, TimeUnit.SECONDS);
+        assertThat(record).isNotNull();
+        assertAll(
+                () -> assertThat(created.id()).isEqualTo(42),
+                () -> assertThat(record.method()).isEqualTo("POST"),
+                () -> assertThat(record.uri().getPath()).isEqualTo("/users"),
+                () -> assertThat(record.status()).isEqualTo(201),
+                () -> assertThat(record.requestBody()).contains("j_smith", User.REDACTED_PASSWORD)
+                        .doesNotContain("very-secret-password"),
+                () -> assertThat(record.responseBody()).contains("Jane Smith", User.REDACTED_PASSWORD)
+                        .doesNotContain("not-so-secret-password"),
+                () -> assertThat(loggingFilter.loggedCount()).isOne()
+        );
+    }
+
+    @Test
+    void shouldTruncateBodies() throws InterruptedException {
+        useFilter(new SampledLoggingFilter(1.0, 16, 10, records::add));
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith"))));
+
+        newApiClient().getById(42);
+
+        var record = records.poll(1, TimeUnit.SECONDS);
+        assertThat(record).isNotNull();
+        assertThat(record.requestBody()).isEmpty();
+        assertThat(record.responseBody()).hasSize(16 + 3).endsWith("...");
+    }
+
+    @Test
+    void shouldNotLog_CallsThatAreNotSampled() throws InterruptedException {
+        useFilter(new SampledLoggingFilter(0.0, 1_024, 10, records::add));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        assertThat(newApiClient().getById(42)).isEmpty();
+
+        assertThat(records.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(loggingFilter.loggedCount()).isZero();
+    }
+
+    @Test
+    void shouldDropRecords_WhenQueueIsFull() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        useFilter(new SampledLoggingFilter(1.0, 1_024, 1, record -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        var apiClient = newApiClient();
+        for (var i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setResponseCode(404));
+            apiClient.getById(42);
+        }
+
+        // At most one record is in the sink and one in the queue; the calls did not wait for either
+        assertThat(loggingFilter.droppedCount()).isGreaterThanOrEqualTo(3);
+        release.countDown();
+    }
+
+    private void useFilter(SampledLoggingFilter filter) {
+        loggingFilter = filter;
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .register(filter)
+                .build();
+    }
+
+    private UserApiClient newApiClient() {
+        return new UserApiClient(client, serverExtension.uri());
+    }
+}
@@ -0,0 +1,142 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+import static org.kiwiproject.test.okhttp3.mockwebserver.RecordedRequestAssertions.assertThatRecordedRequest;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.acme.model.UserImportResult;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.kiwiproject.test.okhttp3.mockwebserver.RecordedRequests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test of the streaming bulk import in {@link UserApiClient}.
+ */
+@DisplayName("OkHttpUserApiClient (import)")
+class OkHttpUserApiClientImportTest {
+
+    private static final int USER_COUNT = 25_000;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    @TempDir
+    private Path tempDir;
+
+    private UserApiClient apiClient;
+    private Client client;
+    private MockWebServer server;
+    private String ndjson;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(5, TimeUnit.SECONDS)
+                .build();
+
+        server = serverExtension.server();
+        apiClient = new UserApiClient(client, serverExtension.uri());
+
+        ndjson = IntStream.rangeClosed(1, USER_COUNT)
+                .mapToObj(i -> new User(null, "user_" + i, "password_" + i + "_secret", "User " + i))
+                .map(JSON_HELPER::toJson)
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldImportUsers_FromPath() throws IOException {
+        var file = Files.writeString(tempDir.resolve("users.ndjson"), ndjson);
+        var fileSize = Files.size(file);
+        enqueueImportResult();
+
+        var progress = new ArrayList<long[]>();
+        var result = apiClient.importUsers(file, (written, total) -> progress.add(new long[] { written, total }));
+
+        assertThat(result).isEqualTo(new UserImportResult(USER_COUNT, USER_COUNT, 0));
+
+        assertAll(
+                () -> assertThat(progress).hasSizeGreaterThan(1),
+                () -> assertThat(progress).allSatisfy(entry -> assertThat(entry[1]).isEqualTo(fileSize)),
+                () -> assertThat(progress.get(progress.size() - 1)[0]).isEqualTo(fileSize)
+        );
+
+        assertImportRequest();
+    }
+
+    @Test
+    void shouldImportUsers_FromInputStream() {
+        enqueueImportResult();
+
+        var progress = new ArrayList<Long>();
+        var inputStream = new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+        var result = apiClient.importUsers(inputStream, (written, total) -> progress.add(written));
+
+        assertThat(result).isEqualTo(new UserImportResult(USER_COUNT, USER_COUNT, 0));
+        assertThat(progress).isSorted().last().isEqualTo((long) ndjson.length());
+
+        assertImportRequest();
+    }
+
+    @Test
+    void shouldThrow_IllegalState_WhenImportDoesNotReturn_200() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        var inputStream = new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+        var progressListener = UploadProgressListener.none();
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> apiClient.importUsers(inputStream, progressListener))
+                .withMessage("Failed to import users (response code: 500)");
+    }
+
+    private void enqueueImportResult() {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(new UserImportResult(USER_COUNT, USER_COUNT, 0))));
+    }
+
+    private void assertImportRequest() {
+        var recordedRequest = RecordedRequests.takeRequiredRequest(server);
+
+        assertThatRecordedRequest(recordedRequest)
+                .isPOST()
+                .hasPath("/users/import")
+                .hasBody(ndjson);
+
+        assertAll(
+                () -> assertThat(recordedRequest.getHeader(HttpHeaders.CONTENT_TYPE)).isEqualTo("application/x-ndjson"),
+                () -> assertThat(recordedRequest.getHeader(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked"),
+                () -> assertThat(recordedRequest.getChunkSizes()).isNotEmpty()
+        );
+    }
+}
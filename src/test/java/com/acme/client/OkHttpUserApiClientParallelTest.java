@@ -0,0 +1,120 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+import static org.kiwiproject.test.okhttp3.mockwebserver.RecordedRequestAssertions.assertThatRecordedRequest;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.junit.extension.RoutingDispatcher;
+import com.acme.junit.extension.TestRoute;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Test of the {@link UserApiClient} in which all tests run concurrently against one shared
+ * {@link MockWebServer}. Each test scripts its responses on its own {@link TestRoute}.
+ */
+@DisplayName("OkHttpUserApiClient (parallel, routed)")
+@Execution(ExecutionMode.CONCURRENT)
+class OkHttpUserApiClientParallelTest {
+
+    private static final RoutingDispatcher DISPATCHER = new RoutingDispatcher();
+
+    @RegisterExtension
+    static final MockWebServerExtension SERVER_EXTENSION = MockWebServerExtension.perClass(newRoutedServer());
+
+    private UserApiClient apiClient;
+    private Client client;
+    private TestRoute route;
+
+    private static MockWebServer newRoutedServer() {
+        var server = new MockWebServer();
+        server.setDispatcher(DISPATCHER);
+        return server;
+    }
+
+    @BeforeEach
+    void setUp() {
+        route = DISPATCHER.newRoute();
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .register(route)
+                .build();
+
+        apiClient = new UserApiClient(client, SERVER_EXTENSION.uri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        DISPATCHER.remove(route);
+    }
+
+    @RepeatedTest(10)
+    void shouldGetUserById() throws InterruptedException {
+        var id = RandomGenerator.getDefault().nextLong(1, 501);
+        route.enqueue(jsonResponse(JSON_HELPER.toJson(User.newWithRedactedPassword(id, "j_smith", "Jane Smith"))));
+
+        var user = apiClient.getById(id).orElseThrow();
+
+        assertThat(user.id()).isEqualTo(id);
+
+        assertThatRecordedRequest(route.takeRequiredRequest())
+                .isGET()
+                .hasPath("/users/" + id);
+        assertThat(route.hasNoMoreRequests()).isTrue();
+    }
+
+    @RepeatedTest(10)
+    void shouldThrow_IllegalState_WhenListUsersDoesNotReturn_200() throws InterruptedException {
+        route.enqueue(new MockResponse().setResponseCode(500));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> apiClient.list())
+                .withMessage("Received 500 response from /users");
+
+        assertThatRecordedRequest(route.takeRequiredRequest())
+                .isGET()
+                .hasPath("/users");
+    }
+
+    @Test
+    void shouldListUsers() {
+        route.enqueue(jsonResponse(JSON_HELPER.toJson(List.of(
+                User.newWithRedactedPassword(1L, "a_jones", "Alice Jones"),
+                User.newWithRedactedPassword(2L, "bob_hart", "Bob Hart")))));
+
+        var users = apiClient.list();
+
+        assertAll(
+                () -> assertThat(users).extracting(User::name).containsExactly("Alice Jones", "Bob Hart"),
+                () -> assertThat(route.takeRequiredRequest().getHeader(TestRoute.HEADER_NAME)).isEqualTo(route.id())
+        );
+    }
+
+    private static MockResponse jsonResponse(String json) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(json);
+    }
+}
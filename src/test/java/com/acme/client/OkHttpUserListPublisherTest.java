@@ -0,0 +1,231 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.json.UserDeduplicationModule;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import io.dropwizard.jackson.Jackson;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Test of {@link UserApiClient#listPublisher} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("UserApiClient listPublisher")
+class OkHttpUserListPublisherTest {
+
+    private static final int USER_COUNT = 1_000;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private ExecutorService subscriptionExecutor;
+    private UserApiClient apiClient;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        subscriptionExecutor = Executors.newCachedThreadPool();
+        apiClient = new UserApiClient(client, serverExtension.uri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptionExecutor.shutdownNow();
+        client.close();
+    }
+
+    @Test
+    void shouldPublishAllUsers_InBatchesRequestedBySubscriber() throws InterruptedException {
+        server.enqueue(usersResponse(USER_COUNT));
+        var subscriber = new RecordingSubscriber(10);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+
+        assertThat(subscriber.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertAll(
+                () -> assertThat(subscriber.users).hasSize(USER_COUNT),
+                () -> assertThat(subscriber.users).extracting(User::id).startsWith(1L, 2L, 3L).endsWith((long) USER_COUNT),
+                () -> assertThat(subscriber.completed).isTrue(),
+                () -> assertThat(subscriber.errors).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldPublishOnlyRequestedUsers() throws InterruptedException {
+        server.enqueue(usersResponse(USER_COUNT));
+        var subscriber = new RecordingSubscriber(0);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+        subscriber.subscription.request(3);
+        Thread.sleep(200);
+
+        assertThat(subscriber.users).extracting(User::id).containsExactly(1L, 2L, 3L);
+
+        subscriber.subscription.request(2);
+        Thread.sleep(200);
+
+        assertThat(subscriber.users).hasSize(5);
+        assertThat(subscriber.done.getCount()).isOne();
+    }
+
+    @Test
+    void shouldComplete_WhenSubscriberRequestsExactlyAllUsers() throws InterruptedException {
+        server.enqueue(usersResponse(USER_COUNT));
+        var subscriber = new RecordingSubscriber(0);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+        subscriber.subscription.request(USER_COUNT);
+
+        assertThat(subscriber.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertAll(
+                () -> assertThat(subscriber.users).hasSize(USER_COUNT),
+                () -> assertThat(subscriber.completed).isTrue(),
+                () -> assertThat(subscriber.errors).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldParseUsers_WithGivenObjectMapper() throws InterruptedException {
+        server.enqueue(usersResponse(3));
+        var subscriber = new RecordingSubscriber(10);
+        var objectMapper = Jackson.newObjectMapper().registerModule(new UserDeduplicationModule());
+
+        apiClient.listPublisher(subscriptionExecutor, objectMapper).subscribe(subscriber);
+
+        assertThat(subscriber.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.users)
+                .hasSize(3)
+                .allSatisfy(user -> assertThat(user.password()).isSameAs(User.REDACTED_PASSWORD));
+    }
+
+    @Test
+    void shouldStopPublishing_WhenCancelled() throws InterruptedException {
+        server.enqueue(usersResponse(USER_COUNT));
+        var subscriber = new RecordingSubscriber(0);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+        subscriber.subscription.request(5);
+        Thread.sleep(200);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+        Thread.sleep(200);
+
+        assertAll(
+                () -> assertThat(subscriber.users).hasSize(5),
+                () -> assertThat(subscriber.completed).isFalse(),
+                () -> assertThat(subscriber.errors).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldPublishError_WhenServerFails() throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        var subscriber = new RecordingSubscriber(10);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+
+        assertThat(subscriber.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.errors)
+                .singleElement()
+                .isInstanceOf(IllegalStateException.class)
+                .extracting(Throwable::getMessage)
+                .isEqualTo("Received 500 response from /users");
+    }
+
+    @Test
+    void shouldPublishError_WhenRequestIsNotPositive() throws InterruptedException {
+        server.enqueue(usersResponse(10));
+        var subscriber = new RecordingSubscriber(0);
+
+        apiClient.listPublisher(subscriptionExecutor).subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertThat(subscriber.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.errors).singleElement().isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MockResponse usersResponse(int count) {
+        var users = LongStream.rangeClosed(1, count)
+                .mapToObj(id -> User.newWithRedactedPassword(id, "user_" + id, "User " + id))
+                .toList();
+
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(users));
+    }
+
+    /**
+     * Requests {@code batchSize} users at a time, or nothing if zero, in which case the test
+     * makes the requests through {@link #subscription}.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<User> {
+
+        private final int batchSize;
+        private final List<User> users = new CopyOnWriteArrayList<>();
+        private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean completed;
+
+        RecordingSubscriber(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batchSize > 0) {
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onNext(User user) {
+            users.add(user);
+            if (batchSize > 0 && users.size() % batchSize == 0) {
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
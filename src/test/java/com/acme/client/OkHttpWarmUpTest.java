@@ -0,0 +1,126 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of client warm-up.
+ */
+@DisplayName("Client warm-up")
+class OkHttpWarmUpTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = serverExtension.server();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("HEAD".equals(request.getMethod())) {
+                    // Keep the HEAD requests overlapping, so each one needs its own connection
+                    return new MockResponse().setResponseCode(200).setHeadersDelay(200, TimeUnit.MILLISECONDS);
+                }
+
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldPrimeProviders_WithoutSendingRequests() {
+        client = ClientBuilder.newBuilder().register(WarmUpFilter.class).build();
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+
+        apiClient.warmUp(0);
+
+        assertThat(server.getRequestCount()).isZero();
+        assertThat(apiClient.getById(42)).isPresent();
+    }
+
+    @Test
+    void shouldPrimeMathClientProviders_WithoutSendingRequests() {
+        client = ClientBuilder.newBuilder().register(WarmUpFilter.class).build();
+        var apiClient = new MathApiClient(client, serverExtension.uri());
+
+        apiClient.warmUp(0);
+
+        assertThat(server.getRequestCount()).isZero();
+    }
+
+    @Test
+    void shouldOpenConnections() throws InterruptedException {
+        client = ClientBuilder.newBuilder().register(WarmUpFilter.class).build();
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+
+        apiClient.warmUp(3);
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+
+        var requests = new ArrayList<RecordedRequest>();
+        for (var i = 0; i < 3; i++) {
+            requests.add(server.takeRequest(1, TimeUnit.SECONDS));
+        }
+
+        assertThat(requests).allSatisfy(request -> {
+            assertThat(request.getMethod()).isEqualTo("HEAD");
+            assertThat(request.getPath()).isEqualTo("/");
+            assertThat(request.getSequenceNumber())
+                    .describedAs("each HEAD request should be the first on its connection")
+                    .isZero();
+        });
+    }
+
+    @Test
+    void shouldSkipProviderPriming_WhenWarmUpFilterIsNotRegistered() {
+        client = ClientBuilder.newBuilder().build();
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+
+        assertThatCode(() -> apiClient.warmUp(1)).doesNotThrowAnyException();
+
+        assertThat(server.getRequestCount()).isOne();
+    }
+
+    @Test
+    void shouldNotThrow_WhenConnectionsCannotBeOpened() throws Exception {
+        client = ClientBuilder.newBuilder()
+                .register(WarmUpFilter.class)
+                .connectTimeout(200, TimeUnit.MILLISECONDS)
+                .build();
+        var apiClient = new UserApiClient(client, serverExtension.uri());
+        server.shutdown();
+
+        assertThatCode(() -> apiClient.warmUp(2)).doesNotThrowAnyException();
+    }
+}
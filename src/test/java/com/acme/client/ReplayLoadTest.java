@@ -0,0 +1,187 @@
+package com.acme.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.junit.extension.CapturingDispatcher;
+import com.acme.junit.extension.LoadGenerator;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.junit.extension.ReplayDispatcher;
+import com.acme.junit.extension.TrafficFile;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Test that captures traffic from an "upstream" server, then replays it under load
+ * using {@link ReplayDispatcher} and {@link LoadGenerator}.
+ */
+@DisplayName("Replayed traffic under load")
+class ReplayLoadTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension upstreamExtension = new MockWebServerExtension();
+
+    @RegisterExtension
+    private final MockWebServerExtension captureExtension = new MockWebServerExtension();
+
+    @RegisterExtension
+    private final MockWebServerExtension replayExtension = new MockWebServerExtension();
+
+    @TempDir
+    private Path tempDir;
+
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+
+        upstreamExtension.server().setDispatcher(new UpstreamDispatcher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldCaptureAndReplayTraffic() throws InterruptedException {
+        var trafficFile = captureTraffic();
+        var exchanges = TrafficFile.read(trafficFile);
+
+        assertThat(exchanges)
+                .extracting(exchange -> exchange.requestKey())
+                .containsExactly(
+                        "GET /users/1", "GET /users/2", "GET /users/3", "GET /users/4", "GET /users/5",
+                        "GET /users",
+                        "GET /math/add/40/2");
+
+        replayExtension.server().setDispatcher(ReplayDispatcher.fromFile(trafficFile, 0, false));
+        var userClient = new UserApiClient(client, replayExtension.uri());
+        var mathClient = new MathApiClient(client, replayExtension.uri());
+
+        var report = new LoadGenerator(8, 50).run(iteration -> {
+            switch (iteration % 3) {
+                case 0 -> assertThat(userClient.getById(1 + (iteration % 5))).isPresent();
+                case 1 -> assertThat(userClient.list()).hasSize(2);
+                default -> assertThat(mathClient.add(40, 2)).isEqualTo(42);
+            }
+        });
+
+        assertAll(
+                () -> assertThat(report.requests()).isEqualTo(400),
+                () -> assertThat(report.errors()).isZero(),
+                () -> assertThat(report.throughput()).isPositive(),
+                () -> assertThat(report.p50()).isLessThanOrEqualTo(report.p99()),
+                () -> assertThat(report.p99()).isLessThanOrEqualTo(report.max())
+        );
+    }
+
+    @Test
+    void shouldLimitReplayedResponses_ToResponsesPerSecond() throws InterruptedException {
+        var trafficFile = captureTraffic();
+
+        replayExtension.server().setDispatcher(ReplayDispatcher.fromFile(trafficFile, 100, false));
+        var userClient = new UserApiClient(client, replayExtension.uri());
+
+        var report = new LoadGenerator(5, 10).run(iteration -> assertThat(userClient.list()).hasSize(2));
+
+        // 50 responses at 100 per second take about 500 ms; allow for permits the limiter stores
+        // while idle before the run starts
+        assertAll(
+                () -> assertThat(report.requests()).isEqualTo(50),
+                () -> assertThat(report.errors()).isZero(),
+                () -> assertThat(report.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(300)),
+                () -> assertThat(report.throughput()).isLessThan(170.0)
+        );
+    }
+
+    @Test
+    void shouldKeepUpstreamPathPrefix_WhenCapturing() throws InterruptedException {
+        var upstream = upstreamExtension.server();
+        captureExtension.server().setDispatcher(new CapturingDispatcher(upstream.url("/api/v1/").uri()));
+
+        // The upstream dispatcher only serves unprefixed paths, so the call itself fails
+        var userClient = new UserApiClient(client, captureExtension.uri());
+        assertThatIllegalStateException().isThrownBy(userClient::list);
+
+        var upstreamRequest = upstream.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(upstreamRequest).isNotNull();
+        assertThat(upstreamRequest.getPath()).isEqualTo("/api/v1/users");
+    }
+
+    @Test
+    void shouldReturnNotFound_ForRequestsThatWereNotCaptured() {
+        replayExtension.server().setDispatcher(new ReplayDispatcher(List.of()));
+        var userClient = new UserApiClient(client, replayExtension.uri());
+
+        assertThat(userClient.getById(42)).isEmpty();
+    }
+
+    private Path captureTraffic() {
+        var capturingDispatcher = new CapturingDispatcher(upstreamExtension.uri());
+        captureExtension.server().setDispatcher(capturingDispatcher);
+
+        var capturingUserClient = new UserApiClient(client, captureExtension.uri());
+        var capturingMathClient = new MathApiClient(client, captureExtension.uri());
+        LongStream.rangeClosed(1, 5).forEach(capturingUserClient::getById);
+        capturingUserClient.list();
+        capturingMathClient.add(40, 2);
+
+        var trafficFile = tempDir.resolve("traffic.bin");
+        capturingDispatcher.writeTo(trafficFile);
+        return trafficFile;
+    }
+
+    private static class UpstreamDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            var path = request.getPath();
+            if ("/users".equals(path)) {
+                return jsonResponse(JSON_HELPER.toJson(List.of(
+                        User.newWithRedactedPassword(1L, "a_jones", "Alice Jones"),
+                        User.newWithRedactedPassword(2L, "bob_hart", "Bob Hart"))));
+            } else if (path != null && path.startsWith("/users/")) {
+                var id = Long.parseLong(path.substring("/users/".length()));
+                return jsonResponse(JSON_HELPER.toJson(User.newWithRedactedPassword(id, "user_" + id, "User " + id)));
+            } else if ("/math/add/40/2".equals(path)) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                        .setBody("42");
+            }
+
+            return new MockResponse().setResponseCode(404);
+        }
+
+        private static MockResponse jsonResponse(String json) {
+            return new MockResponse()
+                    .setResponseCode(200)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .setBody(json);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.acme.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.model.User;
+import com.acme.model.VersionedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+class MappedUserCacheTest {
+
+    private static final long MAX_BYTES = 64 * 1024;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path file;
+    private AtomicLong millis;
+
+    @BeforeEach
+    void setUp() {
+        file = tempDir.resolve("users.cache");
+        millis = new AtomicLong(1_000);
+    }
+
+    @Test
+    void shouldNotCreateFile_UntilFirstUse() {
+        try (var cache = newCache(MAX_BYTES)) {
+            assertThat(file).doesNotExist();
+
+            assertThat(cache.get(1)).isEmpty();
+            assertThat(file).exists();
+        }
+    }
+
+    @Test
+    void shouldStoreAndReadUsers() {
+        try (var cache = newCache(MAX_BYTES)) {
+            var stored = versionedUser(42, "\"v1\"");
+            assertThat(cache.put(stored)).isTrue();
+
+            var entry = cache.get(42).orElseThrow();
+            assertAll(
+                    () -> assertThat(entry.user()).isEqualTo(stored),
+                    () -> assertThat(entry.storedAtMillis()).isEqualTo(1_000),
+                    () -> assertThat(cache.get(43)).isEmpty()
+            );
+        }
+    }
+
+    @Test
+    void shouldStoreNullFields() {
+        try (var cache = newCache(MAX_BYTES)) {
+            var stored = new VersionedUser(new User(7L, null, null, "José Ångström"), null);
+            cache.put(stored);
+
+            var expected = new VersionedUser(User.newWithRedactedPassword(7L, null, "José Ångström"), null);
+            assertThat(cache.get(7)).map(MappedUserCache.Entry::user).contains(expected);
+        }
+    }
+
+    @Test
+    void shouldNeverWritePasswords_ToFile() throws IOException {
+        try (var cache = newCache(MAX_BYTES)) {
+            cache.put(new VersionedUser(new User(3L, "user_3", "correct-horse-battery", "User 3"), "\"v1\""));
+
+            assertThat(cache.get(3))
+                    .map(entry -> entry.user().user().password())
+                    .contains(User.REDACTED_PASSWORD);
+        }
+
+        assertThat(Files.readString(file, StandardCharsets.ISO_8859_1))
+                .contains("user_3")
+                .doesNotContain("correct-horse-battery");
+    }
+
+    @Test
+    void shouldReplaceUser_AndRemoveUser() {
+        try (var cache = newCache(MAX_BYTES)) {
+            cache.put(versionedUser(1, "\"v1\""));
+            millis.set(2_000);
+            cache.put(versionedUser(1, "\"v2\""));
+
+            var entry = cache.get(1).orElseThrow();
+            assertThat(entry.user().etag()).isEqualTo("\"v2\"");
+            assertThat(entry.storedAtMillis()).isEqualTo(2_000);
+
+            cache.remove(1);
+            assertThat(cache.get(1)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSurviveReopening() {
+        try (var cache = newCache(MAX_BYTES)) {
+            LongStream.rangeClosed(1, 50).forEach(id -> cache.put(versionedUser(id, "\"" + id + "\"")));
+        }
+
+        try (var reopened = newCache(MAX_BYTES)) {
+            var found = LongStream.rangeClosed(1, 50).filter(id -> reopened.get(id).isPresent()).count();
+            assertThat(found).isEqualTo(50);
+            assertThat(reopened.get(25)).map(entry -> entry.user().etag()).contains("\"25\"");
+        }
+    }
+
+    @Test
+    void shouldStartEmpty_WhenReopenedWithDifferentSize() {
+        try (var cache = newCache(MAX_BYTES)) {
+            cache.put(versionedUser(1, "\"v1\""));
+        }
+
+        try (var reopened = newCache(MAX_BYTES * 2)) {
+            assertThat(reopened.get(1)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldNeverGrowBeyondMaxBytes_AndEvictOldestUsers() throws IOException {
+        try (var cache = newCache(MAX_BYTES)) {
+            for (long id = 1; id <= 10_000; id++) {
+                millis.incrementAndGet();
+                cache.put(versionedUser(id, "\"" + id + "\""));
+            }
+
+            var cachedCount = LongStream.rangeClosed(1, 10_000).filter(id -> cache.get(id).isPresent()).count();
+            assertAll(
+                    () -> assertThat(cachedCount).isPositive().isLessThanOrEqualTo(cache.capacity()),
+                    () -> assertThat(cache.get(10_000)).isPresent()
+            );
+        }
+
+        assertThat(Files.size(file)).isLessThanOrEqualTo(MAX_BYTES);
+    }
+
+    @Test
+    void shouldNotCacheUsersThatDoNotFitInSlot() {
+        try (var cache = newCache(MAX_BYTES)) {
+            cache.put(versionedUser(1, "\"v1\""));
+            var huge = new VersionedUser(User.newWithRedactedPassword(1L, "user_1", "x".repeat(1_000)), "\"v2\"");
+
+            assertThat(cache.put(huge)).isFalse();
+            assertThat(cache.get(1)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreCorruptedSlots() throws IOException {
+        try (var cache = newCache(MAX_BYTES)) {
+            cache.put(versionedUser(1, "\"v1\""));
+        }
+
+        // Flip one bit in every slot's record area, as if a write had been torn by a crash
+        try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+            for (long offset = 64 + 30; offset < raf.length(); offset += MappedUserCache.SLOT_SIZE) {
+                raf.seek(offset);
+                var value = raf.read();
+                raf.seek(offset);
+                raf.write(value ^ 1);
+            }
+        }
+
+        try (var reopened = newCache(MAX_BYTES)) {
+            assertThat(reopened.get(1)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRejectTooSmallMaxBytes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> newCache(1_024));
+    }
+
+    @Test
+    void shouldNotBeUsable_AfterClose() {
+        var cache = newCache(MAX_BYTES);
+        cache.close();
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> cache.get(1))
+                .withMessage("cache is closed");
+    }
+
+    private MappedUserCache newCache(long maxBytes) {
+        return new MappedUserCache(file, maxBytes, millis::get);
+    }
+
+    private static VersionedUser versionedUser(long id, String etag) {
+        return new VersionedUser(User.newWithRedactedPassword(id, "user_" + id, "User " + id), etag);
+    }
+}
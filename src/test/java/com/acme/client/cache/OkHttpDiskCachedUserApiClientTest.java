@@ -0,0 +1,162 @@
+package com.acme.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.ApiRequestExecutor;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test of {@link DiskCachedUserApiClient} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("DiskCachedUserApiClient")
+class OkHttpDiskCachedUserApiClientTest {
+
+    private static final Duration FRESH_FOR = Duration.ofMinutes(1);
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    @TempDir
+    private Path tempDir;
+
+    private Client client;
+    private MockWebServer server;
+    private AtomicLong millis;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        millis = new AtomicLong(1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldServeFreshUsersFromCache_AcrossRestarts() {
+        server.enqueue(userResponse("\"v1\"", "Jane Smith"));
+
+        try (var apiClient = newApiClient()) {
+            assertThat(apiClient.getById(42)).map(User::name).contains("Jane Smith");
+        }
+
+        try (var restartedClient = newApiClient()) {
+            assertThat(restartedClient.getById(42)).map(User::name).contains("Jane Smith");
+        }
+
+        assertThat(server.getRequestCount()).isOne();
+    }
+
+    @Test
+    void shouldRevalidateStaleUsers_WithETag() throws InterruptedException {
+        server.enqueue(userResponse("\"v1\"", "Jane Smith"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"v1\""));
+        server.enqueue(userResponse("\"v2\"", "Jane Doe"));
+
+        try (var apiClient = newApiClient()) {
+            apiClient.getById(42);
+
+            millis.addAndGet(FRESH_FOR.toMillis());
+            var notModified = apiClient.getById(42);
+
+            millis.addAndGet(FRESH_FOR.toMillis());
+            var modified = apiClient.getById(42);
+
+            assertAll(
+                    () -> assertThat(notModified).map(User::name).contains("Jane Smith"),
+                    () -> assertThat(modified).map(User::name).contains("Jane Doe")
+            );
+        }
+
+        var first = server.takeRequest(1, TimeUnit.SECONDS);
+        var second = server.takeRequest(1, TimeUnit.SECONDS);
+        var third = server.takeRequest(1, TimeUnit.SECONDS);
+        assertAll(
+                () -> assertThat(first.getHeader(HttpHeaders.IF_NONE_MATCH)).isNull(),
+                () -> assertThat(second.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\""),
+                () -> assertThat(third.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"")
+        );
+    }
+
+    @Test
+    void shouldRemoveDeletedUsers() {
+        server.enqueue(userResponse("\"v1\"", "Jane Smith"));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try (var apiClient = newApiClient()) {
+            apiClient.getById(42);
+            millis.addAndGet(FRESH_FOR.toMillis());
+
+            assertThat(apiClient.getById(42)).isEmpty();
+            assertThat(apiClient.getById(42)).isEmpty();
+        }
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnStaleUser_WhenRevalidationFails() {
+        server.enqueue(userResponse("\"v1\"", "Jane Smith"));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        try (var apiClient = newApiClient()) {
+            apiClient.getById(42);
+            millis.addAndGet(FRESH_FOR.toMillis());
+
+            assertThat(apiClient.getById(42)).map(User::name).contains("Jane Smith");
+        }
+    }
+
+    @Test
+    void shouldReturnEmpty_AndNotCache_WhenNothingIsCached_AndServerFails() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(userResponse("\"v1\"", "Jane Smith"));
+
+        try (var apiClient = newApiClient()) {
+            assertThat(apiClient.getById(42)).isEmpty();
+            assertThat(apiClient.getById(42)).map(User::name).contains("Jane Smith");
+        }
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    private DiskCachedUserApiClient newApiClient() {
+        var cache = new MappedUserCache(tempDir.resolve("users.cache"), 1024 * 1024, millis::get);
+        return new DiskCachedUserApiClient(ApiRequestExecutor.of(client, serverExtension.uri()), cache, FRESH_FOR, millis::get);
+    }
+
+    private static MockResponse userResponse(String etag, String name) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setHeader(HttpHeaders.ETAG, etag)
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", name)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.acme.client.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CachingDnsResolverTest {
+
+    private static final long SECONDS = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong nanos;
+    private CountingDnsResolver delegate;
+    private CachingDnsResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(1_000 * SECONDS);
+        delegate = new CountingDnsResolver();
+        resolver = new CachingDnsResolver(delegate, Duration.ofSeconds(60), nanos::get);
+    }
+
+    @Test
+    void shouldUseCachedAddresses_UntilTheyExpire() throws UnknownHostException {
+        var first = resolver.resolve("users.acme.com");
+        nanos.addAndGet(59 * SECONDS);
+        var second = resolver.resolve("users.acme.com");
+
+        assertThat(second).containsExactly(first);
+        assertThat(delegate.lookups.get()).isOne();
+
+        nanos.addAndGet(SECONDS);
+        resolver.resolve("users.acme.com");
+
+        assertThat(delegate.lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotExposeCachedArray() throws UnknownHostException {
+        resolver.resolve("users.acme.com")[0] = null;
+
+        assertThat(resolver.resolve("users.acme.com")).doesNotContainNull();
+    }
+
+    @Test
+    void shouldRefreshHosts_MoreThanHalfWayThroughTtl() throws UnknownHostException {
+        resolver.resolve("users.acme.com");
+        nanos.addAndGet(20 * SECONDS);
+        resolver.resolve("math.acme.com");
+        nanos.addAndGet(15 * SECONDS);
+
+        assertThat(resolver.refresh()).isOne();
+        assertThat(delegate.lookups.get()).isEqualTo(3);
+
+        // The refreshed host is served from the cache past its original expiry
+        nanos.addAndGet(40 * SECONDS);
+        resolver.resolve("users.acme.com");
+        assertThat(delegate.lookups.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepCachedAddresses_WhenRefreshFails() throws UnknownHostException {
+        var cached = resolver.resolve("users.acme.com");
+        nanos.addAndGet(40 * SECONDS);
+        delegate.failing = true;
+
+        assertThat(resolver.refresh()).isZero();
+        assertThat(resolver.resolve("users.acme.com")).containsExactly(cached);
+        assertThat(resolver.cachedHostCount()).isOne();
+    }
+
+    @Test
+    void shouldRejectInvalidTtl() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CachingDnsResolver(Duration.ZERO));
+    }
+
+    private static class CountingDnsResolver implements DnsResolver {
+
+        final AtomicInteger lookups = new AtomicInteger();
+        volatile boolean failing;
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            lookups.incrementAndGet();
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            var lastOctet = (byte) lookups.get();
+            return new InetAddress[] {InetAddress.getByAddress(host, new byte[] {10, 0, 0, lastOctet})};
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) {
+            return host;
+        }
+    }
+}
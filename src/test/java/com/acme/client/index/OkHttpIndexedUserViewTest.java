@@ -0,0 +1,168 @@
+package com.acme.client.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.UserApiClient;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Test of {@link IndexedUserView} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("IndexedUserView")
+class OkHttpIndexedUserViewTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private IndexedUserView view;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        view = new IndexedUserView(new UserApiClient(client, serverExtension.uri()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldIndexListedUsers() {
+        server.enqueue(jsonResponse(200, List.of(
+                User.newWithRedactedPassword(1L, "j_smith", "Jane Smith"),
+                User.newWithRedactedPassword(2L, "j_doe", "John Doe"))));
+
+        assertThat(view.refresh()).isEqualTo(2);
+
+        assertAll(
+                () -> assertThat(view.findByUsername("j_doe")).map(User::id).contains(2L),
+                () -> assertThat(view.findByNamePrefix("jane", 10)).extracting(User::id).containsExactly(1L)
+        );
+    }
+
+    @Test
+    void shouldIndexCreatedAndUpdatedUsers() {
+        server.enqueue(jsonResponse(200, List.of(User.newWithRedactedPassword(1L, "j_smith", "Jane Smith"))));
+        server.enqueue(jsonResponse(201, new User(2L, "j_doe", "password123456", "John Doe")));
+        server.enqueue(jsonResponse(200, new User(1L, "jane_s", "password123456", "Jane Smith")));
+
+        view.refresh();
+        var created = view.create(new User(null, "j_doe", "password123456", "John Doe"));
+        view.update(new User(1L, "jane_s", "password123456", "Jane Smith"));
+
+        assertAll(
+                () -> assertThat(view.size()).isEqualTo(2),
+                () -> assertThat(view.findByUsername("j_doe")).contains(created),
+                () -> assertThat(view.findByUsername("j_smith")).isEmpty(),
+                () -> assertThat(view.findByUsername("jane_s"))
+                        .map(User::password)
+                        .contains(User.REDACTED_PASSWORD)
+        );
+    }
+
+    @Test
+    void shouldReplaceContents_OnRefresh() {
+        server.enqueue(jsonResponse(200, List.of(User.newWithRedactedPassword(1L, "j_smith", "Jane Smith"))));
+        server.enqueue(jsonResponse(200, List.of(User.newWithRedactedPassword(2L, "j_doe", "John Doe"))));
+
+        view.refresh();
+        view.refresh();
+
+        assertAll(
+                () -> assertThat(view.size()).isOne(),
+                () -> assertThat(view.findById(1)).isEmpty(),
+                () -> assertThat(view.findById(2)).isPresent()
+        );
+    }
+
+    @Test
+    void shouldNeverSeePartialContents_WhileRefreshing() throws InterruptedException {
+        var users = LongStream.rangeClosed(1, 1_000)
+                .mapToObj(id -> User.newWithRedactedPassword(id, "user_" + id, "User " + id))
+                .toList();
+        IntStream.range(0, 21).forEach(ignored -> server.enqueue(jsonResponse(200, users)));
+        view.refresh();
+
+        var refreshing = new AtomicBoolean(true);
+        var incompleteReads = new AtomicInteger();
+        var reader = new Thread(() -> {
+            while (refreshing.get()) {
+                if (view.size() != 1_000 || view.findById(1_000).isEmpty() || view.findByUsername("user_1").isEmpty()) {
+                    incompleteReads.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        try {
+            IntStream.range(0, 20).forEach(ignored -> assertThat(view.refresh()).isEqualTo(1_000));
+        } finally {
+            refreshing.set(false);
+            reader.join(1_000);
+        }
+
+        assertThat(incompleteReads.get()).isZero();
+    }
+
+    @Test
+    void shouldKeepUsersCreatedDuringRefresh() throws InterruptedException {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("POST".equals(request.getMethod())) {
+                    return jsonResponse(201, new User(2L, "j_doe", "password123456", "John Doe"));
+                }
+                return jsonResponse(200, List.of(User.newWithRedactedPassword(1L, "j_smith", "Jane Smith")))
+                        .setHeadersDelay(300, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        var refresh = CompletableFuture.supplyAsync(view::refresh);
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+        view.create(new User(null, "j_doe", "password123456", "John Doe"));
+
+        assertThat(refresh.join()).isOne();
+        assertAll(
+                () -> assertThat(view.size()).isEqualTo(2),
+                () -> assertThat(view.findByUsername("j_doe")).map(User::id).contains(2L)
+        );
+    }
+
+    private static MockResponse jsonResponse(int status, Object entity) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(entity));
+    }
+}
@@ -0,0 +1,95 @@
+package com.acme.client.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class UserIndexTest {
+
+    private UserIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserIndex();
+        index.putAll(List.of(
+                user(1, "j_smith", "Jane Smith"),
+                user(2, "j_doe", "John Doe"),
+                user(3, "jsmith2", "jane smithers"),
+                user(4, "a_jones", "Alice Jones")
+        ));
+    }
+
+    @Test
+    void shouldFindByIdAndUsername() {
+        assertAll(
+                () -> assertThat(index.size()).isEqualTo(4),
+                () -> assertThat(index.findById(2)).map(User::username).contains("j_doe"),
+                () -> assertThat(index.findByUsername("a_jones")).map(User::id).contains(4L),
+                () -> assertThat(index.findByUsername("A_JONES")).isEmpty(),
+                () -> assertThat(index.findByUsername("nobody")).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldFindByNamePrefix_IgnoringCase_InNameOrder() {
+        assertAll(
+                () -> assertThat(index.findByNamePrefix("JANE", 10)).extracting(User::id).containsExactly(1L, 3L),
+                () -> assertThat(index.findByNamePrefix("jane smithe", 10)).extracting(User::id).containsExactly(3L),
+                () -> assertThat(index.findByNamePrefix("j", 2)).extracting(User::id).containsExactly(1L, 3L),
+                () -> assertThat(index.findByNamePrefix("", 10)).hasSize(4),
+                () -> assertThat(index.findByNamePrefix("zed", 10)).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldIncludeUsersWithSameName() {
+        index.put(user(5, "j_smith_2", "Jane Smith"));
+
+        assertThat(index.findByNamePrefix("jane smith", 10)).extracting(User::id).containsExactly(1L, 5L, 3L);
+    }
+
+    @Test
+    void shouldReplaceIndexEntries_WhenUserChanges() {
+        index.put(user(1, "jane_s", "Jane Brown"));
+
+        assertAll(
+                () -> assertThat(index.size()).isEqualTo(4),
+                () -> assertThat(index.findByUsername("j_smith")).isEmpty(),
+                () -> assertThat(index.findByUsername("jane_s")).map(User::id).contains(1L),
+                () -> assertThat(index.findByNamePrefix("jane smith", 10)).extracting(User::id).containsExactly(3L),
+                () -> assertThat(index.findByNamePrefix("jane b", 10)).extracting(User::id).containsExactly(1L)
+        );
+    }
+
+    @Test
+    void shouldRemoveFromAllIndexes() {
+        index.remove(1);
+        index.remove(42);
+
+        assertAll(
+                () -> assertThat(index.size()).isEqualTo(3),
+                () -> assertThat(index.findById(1)).isEmpty(),
+                () -> assertThat(index.findByUsername("j_smith")).isEmpty(),
+                () -> assertThat(index.findByNamePrefix("jane", 10)).extracting(User::id).containsExactly(3L)
+        );
+    }
+
+    @Test
+    void shouldRequireUserId() {
+        var newUser = new User(null, "new_user", "password123", "New User");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> index.put(newUser))
+                .withMessage("user must have an id");
+    }
+
+    private static User user(long id, String username, String name) {
+        return User.newWithRedactedPassword(id, username, name);
+    }
+}
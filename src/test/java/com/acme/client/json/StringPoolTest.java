@@ -0,0 +1,68 @@
+package com.acme.client.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+    @Test
+    void shouldReturnPooledInstance_ForEqualStrings() {
+        var pool = new StringPool(16);
+        var first = pool.intern(new String("Jane Smith"));
+        var second = pool.intern(new String("Jane Smith"));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldReturnPooledInstance_ForEqualCharacters() {
+        var pool = new StringPool(16);
+        var pooled = pool.intern("Jane Smith");
+        var chars = "xxJane Smithyy".toCharArray();
+
+        assertThat(pool.intern(chars, 2, 10)).isSameAs(pooled);
+    }
+
+    @Test
+    void shouldPoolStringsCreatedFromCharacters() {
+        var pool = new StringPool(16);
+        var created = pool.intern("Jane Smith".toCharArray(), 0, 10);
+
+        assertThat(created).isEqualTo("Jane Smith");
+        assertThat(pool.intern(new String("Jane Smith"))).isSameAs(created);
+    }
+
+    @Test
+    void shouldNotPoolLongStrings() {
+        var pool = new StringPool(16, 4);
+        var first = pool.intern(new String("Jane Smith"));
+        var second = pool.intern(new String("Jane Smith"));
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldStayBounded_WhenManyDistinctStringsAreInterned() {
+        var pool = new StringPool(8);
+        for (var i = 0; i < 10_000; i++) {
+            assertThat(pool.intern("value" + i)).isEqualTo("value" + i);
+        }
+
+        assertThat(pool.capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new StringPool(1).capacity()).isEqualTo(1);
+        assertThat(new StringPool(1_000).capacity()).isEqualTo(1_024);
+        assertThat(new StringPool(1_024).capacity()).isEqualTo(1_024);
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StringPool(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new StringPool(16, -1));
+    }
+}
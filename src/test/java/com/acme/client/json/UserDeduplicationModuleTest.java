@@ -0,0 +1,86 @@
+package com.acme.client.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.dropwizard.jackson.Jackson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+class UserDeduplicationModuleTest {
+
+    private static final TypeReference<List<User>> USER_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper deduplicatingMapper;
+
+    @BeforeEach
+    void setUp() {
+        plainMapper = Jackson.newObjectMapper();
+        deduplicatingMapper = Jackson.newObjectMapper().registerModule(new UserDeduplicationModule());
+    }
+
+    @Test
+    void shouldDeserializeSameUsers_AsDefaultDeserializer() throws JsonProcessingException {
+        var json = plainMapper.writeValueAsString(List.of(
+                User.newWithRedactedPassword(1L, "j_smith", "Jane Smith"),
+                new User(2L, "b_jones", "correct horse battery staple", "Bob Jones"),
+                new User(null, null, null, null)));
+
+        assertThat(deduplicatingMapper.readValue(json, USER_LIST)).isEqualTo(plainMapper.readValue(json, USER_LIST));
+    }
+
+    @Test
+    void shouldShareRepeatedNames_AndRedactedPasswordConstant() throws JsonProcessingException {
+        var json = plainMapper.writeValueAsString(LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> User.newWithRedactedPassword(id, "user_" + id, "Jane Smith"))
+                .toList());
+
+        var users = deduplicatingMapper.readValue(json, USER_LIST);
+
+        var firstName = users.get(0).name();
+        assertAll(
+                () -> assertThat(users).hasSize(100),
+                () -> assertThat(users).allSatisfy(user -> assertThat(user.name()).isSameAs(firstName)),
+                () -> assertThat(users).allSatisfy(user -> assertThat(user.password()).isSameAs(User.REDACTED_PASSWORD))
+        );
+    }
+
+    @Test
+    void shouldNotPoolPasswords() throws JsonProcessingException {
+        var json = plainMapper.writeValueAsString(List.of(
+                new User(1L, "j_smith", "correct horse battery staple", "Jane Smith"),
+                new User(2L, "b_jones", "correct horse battery staple", "Bob Jones")));
+
+        var users = deduplicatingMapper.readValue(json, USER_LIST);
+
+        assertThat(users.get(1).password()).isEqualTo(users.get(0).password()).isNotSameAs(users.get(0).password());
+    }
+
+    @Test
+    void shouldIgnoreUnknownProperties() throws JsonProcessingException {
+        var json = """
+                {"id": 42, "username": "j_smith", "roles": ["admin", {"scope": "all"}], "name": "Jane Smith"}
+                """;
+
+        var user = deduplicatingMapper.readValue(json, User.class);
+
+        assertThat(user).isEqualTo(new User(42L, "j_smith", null, "Jane Smith"));
+    }
+
+    @Test
+    void shouldRejectNonObjectUsers() {
+        assertThatExceptionOfType(MismatchedInputException.class)
+                .isThrownBy(() -> deduplicatingMapper.readValue("[\"not a user\"]", USER_LIST));
+    }
+}
@@ -0,0 +1,114 @@
+package com.acme.client.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class AdaptiveTimeoutsTest {
+
+    private static final String OPERATION = "users.getById";
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AtomicLong nanos;
+    private AdaptiveTimeouts timeouts;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        timeouts = new AdaptiveTimeouts(99.0, 2.0, Duration.ofMillis(50), Duration.ofSeconds(2), 10, null, nanos::get);
+    }
+
+    @Test
+    void shouldNotAdapt_UntilEnoughLatenciesAreRecorded() {
+        recordLatencies(9, 100);
+        assertThat(timeouts.readTimeoutFor(OPERATION)).isEmpty();
+
+        timeouts.record(OPERATION, 100 * MILLIS);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(timeouts.readTimeoutFor(OPERATION)).isPresent();
+    }
+
+    @Test
+    void shouldUseMultipleOfPercentile() {
+        recordLatencies(100, 100);
+
+        assertThat(timeouts.readTimeoutFor(OPERATION).orElseThrow())
+                .isBetween(Duration.ofMillis(200), Duration.ofMillis(230));
+    }
+
+    @Test
+    void shouldLimitTimeout_ToFloorAndCeiling() {
+        recordLatencies(100, 1);
+        assertThat(timeouts.readTimeoutFor(OPERATION)).contains(Duration.ofMillis(50));
+
+        recordLatencies(100, 5_000);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(timeouts.readTimeoutFor(OPERATION)).contains(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldNotRaiseTimeout_WhenRequestsTimeOut() {
+        recordLatencies(100, 100);
+        var timeout = timeouts.readTimeoutFor(OPERATION).orElseThrow();
+
+        // Every request now times out after waiting the current timeout
+        for (var round = 0; round < 5; round++) {
+            for (var i = 0; i < 100; i++) {
+                timeouts.recordTimeout(OPERATION, timeout.toNanos());
+            }
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+            assertThat(timeouts.readTimeoutFor(OPERATION)).contains(timeout);
+        }
+    }
+
+    @Test
+    void shouldKeepTimeoutsSeparatePerOperation() {
+        recordLatencies(100, 100);
+
+        assertThat(timeouts.readTimeoutFor("users.list")).isEmpty();
+        assertThat(timeouts.observedLatency(OPERATION, 50)).isPresent();
+        assertThat(timeouts.observedLatency("users.list", 50)).isEmpty();
+    }
+
+    @Test
+    void shouldNotRecordOrAdapt_WhenDisabled() {
+        var disabled = AdaptiveTimeouts.disabled();
+        for (var i = 0; i < 1_000; i++) {
+            disabled.record(OPERATION, 100 * MILLIS);
+        }
+
+        assertThat(disabled.readTimeoutFor(OPERATION)).isEmpty();
+        assertThat(disabled.observedLatency(OPERATION, 99)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AdaptiveTimeouts.builder()
+                .floor(Duration.ofSeconds(2))
+                .ceiling(Duration.ofSeconds(1))
+                .build());
+        assertThatIllegalArgumentException().isThrownBy(() -> AdaptiveTimeouts.builder()
+                .floor(Duration.ZERO)
+                .ceiling(Duration.ofSeconds(1))
+                .build());
+        assertThatIllegalArgumentException().isThrownBy(() -> AdaptiveTimeouts.builder()
+                .multiplier(0.5)
+                .floor(Duration.ofMillis(10))
+                .ceiling(Duration.ofSeconds(1))
+                .build());
+    }
+
+    private void recordLatencies(int count, long latencyMillis) {
+        for (var i = 0; i < count; i++) {
+            timeouts.record(OPERATION, latencyMillis * MILLIS);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.acme.client.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class RollingLatencyHistogramTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SECONDS = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong nanos;
+    private RollingLatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(1_000 * SECONDS);
+        histogram = new RollingLatencyHistogram(Duration.ofSeconds(60), 6, nanos::get);
+    }
+
+    @Test
+    void shouldBeEmpty_BeforeAnythingIsRecorded() {
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(99)).isEmpty();
+    }
+
+    @Test
+    void shouldReportPercentiles_WithinBucketPrecision() {
+        for (var i = 1; i <= 100; i++) {
+            histogram.record(i * MILLIS);
+        }
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.percentile(50).orElseThrow())
+                .isBetween(Duration.ofMillis(50), Duration.ofMillis(57));
+        assertThat(histogram.percentile(99).orElseThrow())
+                .isBetween(Duration.ofMillis(99), Duration.ofMillis(112));
+        assertThat(histogram.percentile(100).orElseThrow())
+                .isBetween(Duration.ofMillis(100), Duration.ofMillis(113));
+    }
+
+    @Test
+    void shouldDropLatencies_OlderThanWindow() {
+        histogram.record(500 * MILLIS);
+        nanos.addAndGet(30 * SECONDS);
+        histogram.record(10 * MILLIS);
+
+        assertThat(histogram.count()).isEqualTo(2);
+
+        nanos.addAndGet(35 * SECONDS);
+        assertThat(histogram.count()).isOne();
+        assertThat(histogram.percentile(100).orElseThrow()).isLessThan(Duration.ofMillis(12));
+
+        nanos.addAndGet(60 * SECONDS);
+        assertThat(histogram.count()).isZero();
+    }
+
+    @Test
+    void shouldReuseSlices_WhenWindowMovesOn() {
+        histogram.record(500 * MILLIS);
+        nanos.addAndGet(60 * SECONDS);
+        histogram.record(10 * MILLIS);
+
+        assertThat(histogram.count()).isOne();
+    }
+
+    @Test
+    void shouldPlaceLatenciesInBucketsThatContainThem() {
+        for (var micros : new long[] {0, 1, 15, 16, 17, 100, 1_000, 123_456, 10_000_000, Long.MAX_VALUE / 1_000}) {
+            var index = RollingLatencyHistogram.bucketIndex(micros);
+
+            assertThat(RollingLatencyHistogram.bucketUpperBoundMicros(index)).isGreaterThanOrEqualTo(micros);
+            if (index > 0) {
+                assertThat(RollingLatencyHistogram.bucketUpperBoundMicros(index - 1)).isLessThan(micros);
+            }
+        }
+    }
+
+    @Test
+    void shouldRoundDownToBucketUpperBound() {
+        for (var micros = 0L; micros < 1_000_000; micros += 997) {
+            var rounded = RollingLatencyHistogram.roundDownToBucketUpperBoundMicros(micros);
+
+            assertThat(rounded).isLessThanOrEqualTo(micros);
+            assertThat(RollingLatencyHistogram.bucketUpperBoundMicros(RollingLatencyHistogram.bucketIndex(rounded)))
+                    .isEqualTo(rounded);
+            assertThat(RollingLatencyHistogram.roundDownToBucketUpperBoundMicros(rounded)).isEqualTo(rounded);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RollingLatencyHistogram(Duration.ofSeconds(1), 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> histogram.percentile(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> histogram.percentile(101));
+    }
+}
@@ -0,0 +1,168 @@
+package com.acme.client.loadbalance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+class LoadBalancerTest {
+
+    private static final URI URI_A = URI.create("http://a.acme.com:8080");
+    private static final URI URI_B = URI.create("http://b.acme.com:8080");
+    private static final URI URI_C = URI.create("http://c.acme.com:8080");
+
+    private AtomicLong nanos;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+    }
+
+    @Test
+    void shouldRequireAtLeastOneUri() {
+        var strategy = LoadBalancingStrategy.roundRobin();
+        var policy = EjectionPolicy.defaults();
+        List<URI> uris = List.of();
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new LoadBalancer(uris, strategy, policy))
+                .withMessage("uris must not be empty");
+    }
+
+    @Nested
+    class Strategies {
+
+        @Test
+        void shouldSelectRoundRobin() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), EjectionPolicy.disabled());
+
+            var selected = IntStream.range(0, 6)
+                    .mapToObj(ignored -> loadBalancer.select().uri())
+                    .toList();
+
+            assertThat(selected).containsExactly(URI_A, URI_B, URI_C, URI_A, URI_B, URI_C);
+        }
+
+        @Test
+        void shouldSelectLeastOutstandingRequests() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.leastOutstandingRequests(), EjectionPolicy.disabled());
+            var endpoints = loadBalancer.endpoints();
+
+            endpoints.get(0).requestStarted();
+            endpoints.get(0).requestStarted();
+            endpoints.get(1).requestStarted();
+
+            assertThat(loadBalancer.select().uri()).isEqualTo(URI_C);
+
+            endpoints.get(2).requestStarted();
+            endpoints.get(2).requestStarted();
+
+            assertThat(loadBalancer.select().uri()).isEqualTo(URI_B);
+        }
+
+        @Test
+        void shouldSelectPowerOfTwoChoices_NeverChoosingTheBusiestEndpoint() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.powerOfTwoChoices(), EjectionPolicy.disabled());
+            var busiest = loadBalancer.endpoints().get(1);
+            IntStream.range(0, 5).forEach(ignored -> busiest.requestStarted());
+
+            var selected = IntStream.range(0, 100)
+                    .mapToObj(ignored -> loadBalancer.select().uri())
+                    .toList();
+
+            assertThat(selected)
+                    .doesNotContain(URI_B)
+                    .contains(URI_A, URI_C);
+        }
+    }
+
+    @Nested
+    class Ejection {
+
+        private EjectionPolicy policy;
+
+        @BeforeEach
+        void setUp() {
+            policy = new EjectionPolicy(0.5, 4, Duration.ofSeconds(10), Duration.ofSeconds(30));
+        }
+
+        @Test
+        void shouldEjectEndpoint_WhenFailureRateExceedsThreshold() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), policy);
+            var endpointA = loadBalancer.endpoints().get(0);
+
+            recordOutcomes(endpointA, false, true, false, true);
+
+            assertThat(endpointA.isEjected()).isTrue();
+            var selected = IntStream.range(0, 4)
+                    .mapToObj(ignored -> loadBalancer.select().uri())
+                    .toList();
+            assertThat(selected).containsOnly(URI_B, URI_C);
+        }
+
+        @Test
+        void shouldNotEject_BeforeMinimumRequests() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), policy);
+            var endpointA = loadBalancer.endpoints().get(0);
+
+            recordOutcomes(endpointA, true, true, true);
+
+            assertThat(endpointA.isEjected()).isFalse();
+        }
+
+        @Test
+        void shouldReturnEndpointToRotation_AfterEjectionDuration() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), policy);
+            var endpointA = loadBalancer.endpoints().get(0);
+
+            recordOutcomes(endpointA, true, true, true, true);
+            assertThat(endpointA.isEjected()).isTrue();
+
+            nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+            assertThat(endpointA.isEjected()).isFalse();
+        }
+
+        @Test
+        void shouldStartNewWindow_AfterWindowElapses() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), policy);
+            var endpointA = loadBalancer.endpoints().get(0);
+
+            recordOutcomes(endpointA, true, true, true);
+            nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+            recordOutcomes(endpointA, true, false, false);
+
+            assertThat(endpointA.isEjected()).isFalse();
+        }
+
+        @Test
+        void shouldUseAllEndpoints_WhenAllAreEjected() {
+            var loadBalancer = newLoadBalancer(LoadBalancingStrategy.roundRobin(), policy);
+            loadBalancer.endpoints().forEach(endpoint -> recordOutcomes(endpoint, true, true, true, true));
+
+            var selected = IntStream.range(0, 3)
+                    .mapToObj(ignored -> loadBalancer.select().uri())
+                    .toList();
+
+            assertThat(selected).containsExactly(URI_A, URI_B, URI_C);
+        }
+
+        private void recordOutcomes(Endpoint endpoint, boolean... failures) {
+            for (var failed : failures) {
+                endpoint.requestStarted();
+                endpoint.requestCompleted(failed);
+            }
+        }
+    }
+
+    private LoadBalancer newLoadBalancer(LoadBalancingStrategy strategy, EjectionPolicy policy) {
+        return new LoadBalancer(List.of(URI_A, URI_B, URI_C), strategy, policy, nanos::get);
+    }
+}
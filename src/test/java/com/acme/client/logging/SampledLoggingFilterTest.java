@@ -0,0 +1,40 @@
+package com.acme.client.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.acme.model.User;
+import org.junit.jupiter.api.Test;
+
+class SampledLoggingFilterTest {
+
+    @Test
+    void shouldRedactPasswordFields() {
+        var body = "{\"id\":1,\"username\":\"j_smith\",\"password\":\"s3cr\\\"et\",\"name\":\"Jane\"}";
+
+        assertThat(SampledLoggingFilter.redactPasswords(body))
+                .isEqualTo("{\"id\":1,\"username\":\"j_smith\",\"password\":\"" + User.REDACTED_PASSWORD + "\",\"name\":\"Jane\"}");
+    }
+
+    @Test
+    void shouldRedactPasswords_CutShortByTruncation() {
+        assertThat(SampledLoggingFilter.redactPasswords("[{\"password\" : \"s3cr"))
+                .isEqualTo("[{\"password\" : \"" + User.REDACTED_PASSWORD + "\"");
+        assertThat(SampledLoggingFilter.redactPasswords("[{\"password\":\"s3cr\\"))
+                .isEqualTo("[{\"password\":\"" + User.REDACTED_PASSWORD + "\"");
+    }
+
+    @Test
+    void shouldNotChange_ValuesThatAreNotPasswordFields() {
+        var body = "{\"name\":\"password\",\"hint\":\"the password is long\"}";
+
+        assertThat(SampledLoggingFilter.redactPasswords(body)).isEqualTo(body);
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SampledLoggingFilter(1.5));
+        assertThatIllegalArgumentException().isThrownBy(() -> new SampledLoggingFilter(0.5, -1, 10, record -> {}));
+        assertThatIllegalArgumentException().isThrownBy(() -> new SampledLoggingFilter(0.5, 100, 0, record -> {}));
+    }
+}
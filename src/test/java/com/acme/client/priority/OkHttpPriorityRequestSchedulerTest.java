@@ -0,0 +1,142 @@
+package com.acme.client.priority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.ApiRequestExecutor;
+import com.acme.client.UserApiClient;
+import com.acme.client.loadbalance.LoadBalancer;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test of {@link PriorityRequestScheduler} with an {@link ApiRequestExecutor}, using the
+ * OkHttp {@link MockWebServer}.
+ */
+@DisplayName("PriorityRequestScheduler")
+class OkHttpPriorityRequestSchedulerTest {
+
+    private static final long LIST_DELAY_MILLIS = 300;
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private ExecutorService batchExecutor;
+    private AtomicInteger concurrentLists;
+    private AtomicInteger maxConcurrentLists;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+
+        batchExecutor = Executors.newFixedThreadPool(4);
+        concurrentLists = new AtomicInteger();
+        maxConcurrentLists = new AtomicInteger();
+
+        serverExtension.server().setDispatcher(new SlowListDispatcher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutor.shutdownNow();
+        client.close();
+    }
+
+    @Test
+    void shouldKeepCapacityForInteractiveRequests_WhileBatchRequestsQueue() throws Exception {
+        var scheduler = new PriorityRequestScheduler(2, 1);
+        var apiClient = new UserApiClient(ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .scheduler(scheduler)
+                .build());
+
+        var batchCalls = new ArrayList<CompletableFuture<List<User>>>();
+        for (var i = 0; i < 4; i++) {
+            batchCalls.add(CompletableFuture.supplyAsync(() -> RequestPriority.BATCH.call(apiClient::list), batchExecutor));
+        }
+        Thread.sleep(50);
+
+        var start = System.nanoTime();
+        var user = apiClient.getById(42);
+        var interactiveElapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        CompletableFuture.allOf(batchCalls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertAll(
+                () -> assertThat(user).map(User::id).contains(42L),
+                () -> assertThat(interactiveElapsed).isLessThan(Duration.ofMillis(LIST_DELAY_MILLIS)),
+                () -> assertThat(maxConcurrentLists).hasValue(1),
+                () -> assertThat(scheduler.inUse()).isZero()
+        );
+    }
+
+    @Test
+    void shouldUseAllCapacity_ForInteractiveRequests() throws Exception {
+        var apiClient = new UserApiClient(ApiRequestExecutor.builder()
+                .client(client)
+                .loadBalancer(LoadBalancer.singleEndpoint(serverExtension.uri()))
+                .scheduler(new PriorityRequestScheduler(2, 1))
+                .build());
+
+        var calls = new ArrayList<CompletableFuture<List<User>>>();
+        for (var i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(apiClient::list, batchExecutor));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(maxConcurrentLists).hasValue(2);
+    }
+
+    private class SlowListDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if ("/users/42".equals(request.getPath())) {
+                return jsonResponse(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith")));
+            }
+
+            var concurrent = concurrentLists.incrementAndGet();
+            maxConcurrentLists.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(LIST_DELAY_MILLIS);
+            } finally {
+                concurrentLists.decrementAndGet();
+            }
+            return jsonResponse("[]");
+        }
+
+        private static MockResponse jsonResponse(String body) {
+            return new MockResponse()
+                    .setResponseCode(200)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .setBody(body);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.acme.client.priority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+class PriorityRequestSchedulerTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldLimitBatchRequests_ToUnreservedCapacity() throws InterruptedException {
+        var scheduler = new PriorityRequestScheduler(3, 1);
+
+        assertThat(scheduler.acquire(RequestPriority.BATCH, 0)).isNotNull();
+        assertThat(scheduler.acquire(RequestPriority.BATCH, 0)).isNotNull();
+        assertThat(scheduler.acquire(RequestPriority.BATCH, 0)).isNull();
+
+        assertThat(scheduler.acquire(RequestPriority.INTERACTIVE, 0)).isNotNull();
+        assertThat(scheduler.acquire(RequestPriority.INTERACTIVE, 0)).isNull();
+        assertThat(scheduler.inUse()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldServeWaitingInteractiveRequests_BeforeBatchRequests() throws Exception {
+        var scheduler = new PriorityRequestScheduler(2, 1);
+        var first = scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+        var second = scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+
+        var batch = CompletableFuture.supplyAsync(() -> acquire(scheduler, RequestPriority.BATCH), executor);
+        var interactive = CompletableFuture.supplyAsync(() -> acquire(scheduler, RequestPriority.INTERACTIVE), executor);
+        waitUntilWaiting(scheduler);
+
+        first.release();
+        var interactivePermit = interactive.get(1, TimeUnit.SECONDS);
+        assertThat(interactivePermit).isNotNull();
+        assertThat(batch).isNotDone();
+
+        second.release();
+        interactivePermit.release();
+        assertThat(batch.get(1, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void shouldLetBatchRequestsProceed_WhenInteractiveWaiterGivesUp() throws Exception {
+        var scheduler = new PriorityRequestScheduler(3, 1);
+        var interactive1 = scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+        var interactive2 = scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+        var interactive3 = scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+
+        assertThat(scheduler.acquire(RequestPriority.INTERACTIVE, TimeUnit.MILLISECONDS.toNanos(20))).isNull();
+
+        interactive1.release();
+        interactive2.release();
+        assertThat(scheduler.acquire(RequestPriority.BATCH, 0)).isNotNull();
+        interactive3.release();
+    }
+
+    @Test
+    void shouldLetEveryWaitingBatchRequestProceed_WhenInteractiveWaiterIsServed() throws Exception {
+        var scheduler = new PriorityRequestScheduler(6, 1);
+        var held = new ArrayList<PriorityRequestScheduler.Permit>();
+        for (var i = 0; i < 6; i++) {
+            held.add(scheduler.acquire(RequestPriority.INTERACTIVE, 0));
+        }
+
+        var batches = IntStream.range(0, 3)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> acquire(scheduler, RequestPriority.BATCH), executor))
+                .toList();
+        var interactive = CompletableFuture.supplyAsync(() -> acquire(scheduler, RequestPriority.INTERACTIVE), executor);
+        Thread.sleep(100);
+
+        // With one still held, the interactive request and all three batch requests fit in the five batch slots
+        held.subList(1, 6).forEach(PriorityRequestScheduler.Permit::release);
+
+        assertThat(interactive.get(1, TimeUnit.SECONDS)).isNotNull();
+        for (var batch : batches) {
+            assertThat(batch.get(1, TimeUnit.SECONDS)).isNotNull();
+        }
+        assertThat(scheduler.inUse()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldIgnoreRepeatedRelease() throws InterruptedException {
+        var scheduler = new PriorityRequestScheduler(2, 1);
+        var permit = scheduler.acquire(RequestPriority.BATCH, 0);
+        scheduler.acquire(RequestPriority.INTERACTIVE, 0);
+
+        permit.release();
+        permit.release();
+
+        assertThat(scheduler.inUse()).isOne();
+    }
+
+    @Test
+    void shouldNotLimit_WhenUnlimited() throws InterruptedException {
+        var scheduler = PriorityRequestScheduler.unlimited();
+
+        for (var i = 0; i < 1_000; i++) {
+            var permit = scheduler.acquire(RequestPriority.BATCH, 0);
+            assertThat(permit).isNotNull();
+            assertThat(permit.waitNanos()).isZero();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidCapacity() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new PriorityRequestScheduler(0, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new PriorityRequestScheduler(2, 2));
+        assertThatIllegalArgumentException().isThrownBy(() -> new PriorityRequestScheduler(2, -1));
+    }
+
+    @Test
+    void shouldRestorePreviousPriority_WhenScopeCloses() {
+        assertThat(RequestPriority.current()).isEqualTo(RequestPriority.INTERACTIVE);
+
+        RequestPriority.BATCH.run(() -> {
+            assertThat(RequestPriority.current()).isEqualTo(RequestPriority.BATCH);
+            var nested = RequestPriority.INTERACTIVE.call(RequestPriority::current);
+            assertThat(nested).isEqualTo(RequestPriority.INTERACTIVE);
+            assertThat(RequestPriority.current()).isEqualTo(RequestPriority.BATCH);
+        });
+
+        assertThat(RequestPriority.current()).isEqualTo(RequestPriority.INTERACTIVE);
+    }
+
+    private static PriorityRequestScheduler.Permit acquire(PriorityRequestScheduler scheduler, RequestPriority priority) {
+        try {
+            return scheduler.acquire(priority, ONE_SECOND);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The scheduler does not expose its queues, so give the waiting threads time to block.
+     */
+    private static void waitUntilWaiting(PriorityRequestScheduler scheduler) throws InterruptedException {
+        assertThat(scheduler.inUse()).isEqualTo(2);
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,179 @@
+package com.acme.client.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AtomicLong nanos;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+    }
+
+    @Test
+    void shouldAllowBurst_ThenOnePermitPerInterval() {
+        var bucket = new TokenBucket(new RateLimit(10, 3), nanos::get);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(-1);
+
+        nanos.addAndGet(100 * MILLIS);
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldReturnWaitTime_WhenWillingToWait() {
+        var bucket = new TokenBucket(new RateLimit(10, 1), nanos::get);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(Long.MAX_VALUE)).isEqualTo(100 * MILLIS);
+        assertThat(bucket.tryAcquire(Long.MAX_VALUE)).isEqualTo(200 * MILLIS);
+    }
+
+    @Test
+    void shouldNotReserve_WhenWaitIsTooLong() {
+        var bucket = new TokenBucket(new RateLimit(10, 1), nanos::get);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(50 * MILLIS)).isEqualTo(-1);
+        assertThat(bucket.tryAcquire(100 * MILLIS)).isEqualTo(100 * MILLIS);
+    }
+
+    @Test
+    void shouldRefillBurst_AfterQuietPeriod() {
+        var bucket = new TokenBucket(new RateLimit(10, 2), nanos::get);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldRejectNegativeMaxWait() {
+        var bucket = new TokenBucket(new RateLimit(10, 1), nanos::get);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> bucket.tryAcquire(-1))
+                .withMessage("maxWaitNanos must not be negative");
+    }
+
+    @Test
+    void shouldNeverGrantMoreThanBurst_WhenCalledConcurrently() throws InterruptedException {
+        var bucket = new TokenBucket(new RateLimit(1, 50), nanos::get);
+        var granted = new AtomicInteger();
+        var threads = 8;
+        var done = new CountDownLatch(threads);
+        var executor = Executors.newFixedThreadPool(threads);
+
+        for (var i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (var j = 0; j < 100; j++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(granted).hasValue(50);
+    }
+
+    @Nested
+    class Throttling {
+
+        @Test
+        void shouldGrantNoPermits_UntilRetryAfterHasPassed() {
+            var bucket = new TokenBucket(new RateLimit(100, 10), nanos::get);
+
+            bucket.throttled(Duration.ofSeconds(2));
+
+            assertThat(bucket.tryAcquire(0)).isEqualTo(-1);
+            assertThat(bucket.tryAcquire(Long.MAX_VALUE)).isEqualTo(Duration.ofSeconds(2).toNanos());
+
+            nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+
+        @Test
+        void shouldHalveRate_DownToMinimum() {
+            var bucket = new TokenBucket(new RateLimit(64, 1), nanos::get);
+
+            bucket.throttled(Duration.ZERO);
+            assertThat(bucket.permitsPerSecond()).isEqualTo(32.0);
+
+            for (var i = 0; i < 10; i++) {
+                bucket.throttled(Duration.ZERO);
+            }
+            assertThat(bucket.permitsPerSecond()).isEqualTo(4.0);
+        }
+
+        @Test
+        void shouldRecoverConfiguredRate_AfterAcceptedRequests() {
+            var bucket = new TokenBucket(new RateLimit(64, 1), nanos::get);
+            bucket.throttled(Duration.ZERO);
+            bucket.throttled(Duration.ZERO);
+
+            bucket.accepted();
+            assertThat(bucket.permitsPerSecond()).isBetween(16.0, 64.0);
+
+            for (var i = 0; i < 1_000; i++) {
+                bucket.accepted();
+            }
+            assertThat(bucket.permitsPerSecond()).isEqualTo(64.0);
+        }
+    }
+
+    @Nested
+    class ParseRetryAfter {
+
+        @Test
+        void shouldParseSeconds() {
+            assertThat(OperationRateLimiter.parseRetryAfter("120")).isEqualTo(Duration.ofMinutes(2));
+        }
+
+        @Test
+        void shouldParseHttpDate() {
+            var date = ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(5);
+            var retryAfter = DateTimeFormatter.RFC_1123_DATE_TIME.format(date);
+
+            assertThat(OperationRateLimiter.parseRetryAfter(retryAfter))
+                    .isBetween(Duration.ofMinutes(4), Duration.ofMinutes(5));
+        }
+
+        @Test
+        void shouldReturnZero_ForMissingOrInvalidValues() {
+            assertThat(OperationRateLimiter.parseRetryAfter(null)).isZero();
+            assertThat(OperationRateLimiter.parseRetryAfter(" ")).isZero();
+            assertThat(OperationRateLimiter.parseRetryAfter("soon")).isZero();
+            assertThat(OperationRateLimiter.parseRetryAfter("-5")).isZero();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.acme.client.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.UserApiClient;
+import com.acme.junit.extension.MockWebServerExtension;
+import com.acme.model.User;
+import com.acme.model.UserChanges;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link UserReplica} using the OkHttp {@link MockWebServer}.
+ */
+@DisplayName("UserReplica")
+class OkHttpUserReplicaTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+    private UserReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+
+        server = serverExtension.server();
+        replica = new UserReplica(new UserApiClient(client, serverExtension.uri()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.close();
+        client.close();
+    }
+
+    @Test
+    void shouldLoadFullDirectory_ThenFetchOnlyChanges() throws InterruptedException {
+        server.enqueue(changesResponse(new UserChanges(10, true, List.of(user(1), user(2)), List.of())));
+        server.enqueue(changesResponse(new UserChanges(12, false, List.of(user(3)), List.of(1L))));
+
+        replica.sync();
+        var snapshot = replica.sync();
+
+        assertAll(
+                () -> assertThat(snapshot.version()).isEqualTo(12),
+                () -> assertThat(replica.list()).extracting(User::id).containsExactlyInAnyOrder(2L, 3L),
+                () -> assertThat(replica.getById(1)).isEmpty()
+        );
+
+        var fullLoadRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(fullLoadRequest).isNotNull();
+        assertThat(fullLoadRequest.getPath()).isEqualTo("/users/changes?since=0");
+
+        var changesRequest = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(changesRequest).isNotNull();
+        assertThat(changesRequest.getPath()).isEqualTo("/users/changes?since=10");
+    }
+
+    @Test
+    void shouldKeepServingLastSnapshot_WhenSyncFails() {
+        server.enqueue(changesResponse(new UserChanges(10, true, List.of(user(1)), List.of())));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        var loaded = replica.sync();
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> replica.sync())
+                .withMessage("Received 503 response from /users/changes");
+
+        assertThat(replica.snapshot()).isSameAs(loaded);
+    }
+
+    @Test
+    void shouldPollForChanges_InBackground() throws InterruptedException {
+        server.enqueue(changesResponse(new UserChanges(10, true, List.of(user(1)), List.of())));
+        server.enqueue(changesResponse(new UserChanges(11, false, List.of(user(2)), List.of())));
+        server.enqueue(changesResponse(new UserChanges(11, false, List.of(), List.of())));
+
+        replica.startPolling(Duration.ofMillis(50));
+        assertThat(replica.snapshot().version()).isGreaterThanOrEqualTo(10);
+
+        var giveUpAt = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (replica.getById(2).isEmpty() && System.nanoTime() - giveUpAt < 0) {
+            Thread.sleep(10);
+        }
+
+        assertThat(replica.getById(2)).isPresent();
+    }
+
+    private static MockResponse changesResponse(UserChanges changes) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(changes));
+    }
+
+    private static User user(long id) {
+        return User.newWithRedactedPassword(id, "user_" + id, "User " + id);
+    }
+}
@@ -0,0 +1,113 @@
+package com.acme.client.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import com.acme.model.User;
+import com.acme.model.UserChanges;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+class UserSnapshotTest {
+
+    @Test
+    void shouldBeEmpty_Initially() {
+        var snapshot = UserSnapshot.empty();
+
+        assertAll(
+                () -> assertThat(snapshot.version()).isZero(),
+                () -> assertThat(snapshot.size()).isZero(),
+                () -> assertThat(snapshot.users()).isEmpty(),
+                () -> assertThat(snapshot.get(1)).isEmpty()
+        );
+    }
+
+    @Test
+    void shouldApplyFullLoad() {
+        var snapshot = UserSnapshot.empty().apply(full(5, users(1, 3)));
+
+        assertAll(
+                () -> assertThat(snapshot.version()).isEqualTo(5),
+                () -> assertThat(snapshot.size()).isEqualTo(3),
+                () -> assertThat(snapshot.users()).extracting(User::id).containsExactlyInAnyOrder(1L, 2L, 3L),
+                () -> assertThat(snapshot.get(2)).map(User::username).contains("user_2")
+        );
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletions_WithoutModifyingPreviousSnapshot() {
+        var original = UserSnapshot.empty().apply(full(1, users(1, 3)));
+        var renamed = User.newWithRedactedPassword(2L, "user_2", "Renamed");
+
+        var updated = original.apply(new UserChanges(2, false, List.of(renamed, user(4)), List.of(1L)));
+
+        assertAll(
+                () -> assertThat(updated.version()).isEqualTo(2),
+                () -> assertThat(updated.size()).isEqualTo(3),
+                () -> assertThat(updated.get(1)).isEmpty(),
+                () -> assertThat(updated.get(2)).map(User::name).contains("Renamed"),
+                () -> assertThat(updated.get(4)).isPresent(),
+                () -> assertThat(updated.users()).extracting(User::id).containsExactlyInAnyOrder(2L, 3L, 4L),
+
+                () -> assertThat(original.version()).isEqualTo(1),
+                () -> assertThat(original.size()).isEqualTo(3),
+                () -> assertThat(original.get(1)).isPresent(),
+                () -> assertThat(original.get(2)).map(User::name).contains("User 2")
+        );
+    }
+
+    @Test
+    void shouldNotCountDeletionsOfUnknownUsers() {
+        var snapshot = UserSnapshot.empty().apply(full(1, users(1, 2)))
+                .apply(new UserChanges(2, false, List.of(), List.of(42L)));
+
+        assertThat(snapshot.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReplaceEverything_WhenFullLoadFollowsChanges() {
+        var snapshot = UserSnapshot.empty().apply(full(1, users(1, 10)))
+                .apply(new UserChanges(2, false, List.of(user(11)), List.of(1L)))
+                .apply(full(3, users(100, 101)));
+
+        assertAll(
+                () -> assertThat(snapshot.size()).isEqualTo(2),
+                () -> assertThat(snapshot.get(11)).isEmpty(),
+                () -> assertThat(snapshot.users()).extracting(User::id).containsExactlyInAnyOrder(100L, 101L)
+        );
+    }
+
+    @Test
+    void shouldKeepLayerCountLogarithmic_UnderManySmallChanges() {
+        var snapshot = UserSnapshot.empty().apply(full(1, users(1, 10_000)));
+
+        for (var version = 2; version <= 5_000; version++) {
+            var id = 20_000L + version;
+            snapshot = snapshot.apply(new UserChanges(version, false, List.of(user(id)), List.of((long) version)));
+        }
+
+        var finalSnapshot = snapshot;
+        assertAll(
+                () -> assertThat(finalSnapshot.layerCount()).isLessThanOrEqualTo(16),
+                () -> assertThat(finalSnapshot.size()).isEqualTo(10_000),
+                () -> assertThat(finalSnapshot.get(2)).isEmpty(),
+                () -> assertThat(finalSnapshot.get(5_001)).isPresent(),
+                () -> assertThat(finalSnapshot.get(25_000)).isPresent(),
+                () -> assertThat(finalSnapshot.users()).hasSize(10_000)
+        );
+    }
+
+    private static UserChanges full(long version, List<User> users) {
+        return new UserChanges(version, true, users, List.of());
+    }
+
+    private static List<User> users(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId).mapToObj(UserSnapshotTest::user).toList();
+    }
+
+    private static User user(long id) {
+        return User.newWithRedactedPassword(id, "user_" + id, "User " + id);
+    }
+}
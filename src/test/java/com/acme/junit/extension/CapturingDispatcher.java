@@ -0,0 +1,110 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.google.common.net.HttpHeaders;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A {@link Dispatcher} that forwards every request to a real upstream server, records the
+ * request/response pair, and returns the upstream response to the caller.
+ * <p>
+ * Request paths are appended to the upstream URI, so an upstream such as
+ * {@code http://localhost:8080/api} receives {@code GET /users} as {@code GET /api/users}.
+ * <p>
+ * Point the client under test at a {@code MockWebServer} using this dispatcher to capture
+ * traffic, then save it with {@link #writeTo(Path)} and replay it using {@link ReplayDispatcher}.
+ */
+public class CapturingDispatcher extends Dispatcher {
+
+    private static final Set<String> FORWARDED_REQUEST_HEADERS = Set.of(
+            HttpHeaders.ACCEPT.toLowerCase(),
+            HttpHeaders.CONTENT_TYPE.toLowerCase());
+
+    private static final Set<String> DROPPED_RESPONSE_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            ":status");
+
+    private final URI upstreamUri;
+    private final String upstreamPrefix;
+    private final HttpClient httpClient;
+    private final ConcurrentLinkedQueue<RecordedExchange> exchanges = new ConcurrentLinkedQueue<>();
+
+    public CapturingDispatcher(URI upstreamUri) {
+        this.upstreamUri = requireNotNull(upstreamUri, "upstreamUri must not be null");
+        var uri = upstreamUri.toString();
+        this.upstreamPrefix = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        var path = requireNotNull(request.getPath());
+        var method = request.getMethod();
+        var body = request.getBody().readByteArray();
+
+        // Append rather than resolve, since resolving an absolute path drops the upstream's path prefix
+        var upstreamRequest = HttpRequest.newBuilder(URI.create(upstreamPrefix + path))
+                .method(method, body.length == 0 ?
+                        HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        var requestHeaders = request.getHeaders();
+        requestHeaders.names().stream()
+                .filter(name -> FORWARDED_REQUEST_HEADERS.contains(name.toLowerCase()))
+                .forEach(name -> requestHeaders.values(name).forEach(value -> upstreamRequest.header(name, value)));
+
+        HttpResponse<byte[]> upstreamResponse;
+        var startNanos = System.nanoTime();
+        try {
+            upstreamResponse = httpClient.send(upstreamRequest.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to forward request to " + upstreamUri, e);
+        }
+        var durationNanos = System.nanoTime() - startNanos;
+
+        var headers = upstreamResponse.headers().map().entrySet().stream()
+                .filter(entry -> !DROPPED_RESPONSE_HEADERS.contains(entry.getKey().toLowerCase()))
+                .flatMap(entry -> entry.getValue().stream().map(value -> Map.entry(entry.getKey(), value)))
+                .toList();
+
+        var exchange = new RecordedExchange(
+                method, path, upstreamResponse.statusCode(), headers, upstreamResponse.body(), durationNanos);
+        exchanges.add(exchange);
+
+        return ReplayDispatcher.toMockResponse(exchange);
+    }
+
+    /**
+     * @return the exchanges captured so far, in the order they completed
+     */
+    public List<RecordedExchange> exchanges() {
+        return List.copyOf(exchanges);
+    }
+
+    /**
+     * Write the exchanges captured so far to a {@link TrafficFile}.
+     */
+    public void writeTo(Path path) {
+        TrafficFile.write(path, exchanges());
+    }
+}
@@ -0,0 +1,83 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.google.common.net.HttpHeaders;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Dispatcher} that degrades the responses of another dispatcher according to a
+ * {@link FaultProfile}.
+ * <p>
+ * For each request, the first matching {@link FaultProfile.Rule} decides whether the
+ * connection is dropped, whether an error response is returned instead of the delegate's
+ * response, how long the headers are delayed, and how fast the body is sent. Injected
+ * errors are returned without consulting the delegate, so they do not consume scripted
+ * responses. Requests that match no rule receive the delegate's response unchanged.
+ * <p>
+ * Random choices use the profile's seed, so a single client issuing the same requests sees
+ * the same faults on every run. Concurrent connections are dispatched on separate threads,
+ * so with concurrent clients only the overall mix of faults is repeatable.
+ */
+public class FaultInjectingDispatcher extends Dispatcher {
+
+    /**
+     * Throttled bodies are sent in chunks this often, so slow bodies trickle rather than burst.
+     */
+    private static final long THROTTLE_PERIOD_MILLIS = 100;
+
+    private final FaultProfile profile;
+    private final Dispatcher delegate;
+    private final Random random;
+
+    public FaultInjectingDispatcher(FaultProfile profile, Dispatcher delegate) {
+        this.profile = requireNotNull(profile, "profile must not be null");
+        this.delegate = requireNotNull(delegate, "delegate must not be null");
+        this.random = profile.seed() == null ? new Random() : new Random(profile.seed());
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        var rule = profile.rules().stream()
+                .filter(candidate -> candidate.matches(request.getMethod(), request.getPath()))
+                .findFirst()
+                .orElse(null);
+        if (rule == null) {
+            return delegate.dispatch(request);
+        }
+
+        var drop = rule.dropRate() > 0 && random.nextDouble() < rule.dropRate();
+        var error = !drop && rule.errorRate() > 0 && random.nextDouble() < rule.errorRate();
+        var latencyMillis = rule.latency() == null ? 0 : rule.latency().sampleMillis(random);
+
+        var response = error ? errorResponse(rule.errorStatus()) : delegate.dispatch(request);
+        if (drop) {
+            response.setSocketPolicy(rule.dropPolicy());
+        }
+        if (latencyMillis > 0) {
+            response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        if (rule.bytesPerSecond() != null) {
+            var bytesPerPeriod = Math.max(1, rule.bytesPerSecond() * THROTTLE_PERIOD_MILLIS / 1_000);
+            response.throttleBody(bytesPerPeriod, THROTTLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private static MockResponse errorResponse(int status) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                .setBody("Injected fault");
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+}
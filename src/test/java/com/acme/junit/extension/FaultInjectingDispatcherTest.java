@@ -0,0 +1,191 @@
+package com.acme.junit.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.acme.junit.extension.FaultProfile.Latency;
+import com.acme.junit.extension.FaultProfile.Rule;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@DisplayName("FaultInjectingDispatcher")
+class FaultInjectingDispatcherTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = new MockWebServerExtension();
+
+    private Client client;
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() {
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+        server = serverExtension.server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void shouldPassThroughDelegateResponse_WhenNoRuleMatches() {
+        useProfile(new FaultProfile(1L, List.of(errorRule("/users/{id}", 1.0))));
+
+        assertThat(get("/users/changes?since=1")).isEqualTo(200);
+        assertThat(get("/math/add/1/2")).isEqualTo(200);
+    }
+
+    @Test
+    void shouldInjectErrors_ForMatchingPaths() {
+        useProfile(new FaultProfile(1L, List.of(errorRule("/users/{id}", 1.0))));
+
+        assertThat(get("/users/42")).isEqualTo(503);
+        assertThat(get("/users/42?fields=name")).isEqualTo(503);
+        assertThat(get("/users")).isEqualTo(200);
+    }
+
+    @Test
+    void shouldMatchRemainingSegments_WithTrailingWildcard() {
+        useProfile(new FaultProfile(1L, List.of(errorRule("/math/add/**", 1.0))));
+
+        assertThat(get("/math/add/1/2")).isEqualTo(503);
+        assertThat(get("/math/subtract/1/2")).isEqualTo(200);
+    }
+
+    @Test
+    void shouldDelayHeaders_ByLatency() {
+        useProfile(new FaultProfile(1L, List.of(
+                new Rule(null, "/users/{id}", Latency.fixed(300), null, null, null, null, null))));
+
+        var start = System.nanoTime();
+        assertThat(get("/users/42")).isEqualTo(200);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void shouldThrottleBody_ToBytesPerSecond() {
+        useProfile(new FaultProfile(1L, List.of(
+                new Rule("GET", "/users", null, 1_000L, null, null, null, null))),
+                () -> new MockResponse().setResponseCode(200).setBody("x".repeat(500)));
+
+        var start = System.nanoTime();
+        var body = client.target(serverExtension.uri()).path("/users").request().get(String.class);
+
+        assertThat(body).hasSize(500);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+    }
+
+    @Test
+    void shouldDropConnections_ForMatchingPaths() {
+        useProfile(new FaultProfile(1L, List.of(
+                new Rule(null, "/users/{id}", null, null, null, null, 1.0, null))));
+
+        assertThatExceptionOfType(ProcessingException.class).isThrownBy(() -> get("/users/42"));
+    }
+
+    @Test
+    void shouldInjectSameFaults_ForSameSeed() {
+        var profile = new FaultProfile(1234L, List.of(errorRule("/users/{id}", 0.5)));
+
+        useProfile(profile);
+        var first = statuses("/users/42", 20);
+        useProfile(profile);
+        var second = statuses("/users/42", 20);
+
+        assertThat(first).contains(200, 503).isEqualTo(second);
+    }
+
+    @Test
+    void shouldLoadProfile_FromYaml() {
+        var profile = FaultProfile.fromResource("fault-profiles/degraded-backend.yml");
+
+        assertThat(profile.seed()).isEqualTo(42L);
+        assertThat(profile.rules()).extracting(Rule::path).containsExactly("/users/{id}", "/users", "/math/add/**");
+        assertThat(profile.rules().get(0).errorStatus()).isEqualTo(503);
+        assertThat(profile.rules().get(1).matches("POST", "/users")).isFalse();
+        assertThat(profile.rules().get(2).dropPolicy()).isEqualTo(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+    }
+
+    @Test
+    void shouldSampleLatencies_WithinDistribution() {
+        var random = new Random(1);
+        var uniform = Latency.uniform(10, 20);
+        var logNormal = Latency.logNormal(20, 400);
+
+        var logNormalSamples = new ArrayList<Long>();
+        for (var i = 0; i < 1_000; i++) {
+            assertThat(uniform.sampleMillis(random)).isBetween(10L, 20L);
+            logNormalSamples.add(logNormal.sampleMillis(random));
+        }
+
+        logNormalSamples.sort(null);
+        assertThat(logNormalSamples.get(500)).isBetween(15L, 25L);
+        assertThat(logNormalSamples.get(990)).isBetween(250L, 600L);
+    }
+
+    @Test
+    void shouldRejectInvalidRules() {
+        assertThatIllegalArgumentException().isThrownBy(() -> errorRule("users", 0.5));
+        assertThatIllegalArgumentException().isThrownBy(() -> errorRule("/users", 1.5));
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new Rule(null, "/users", null, null, null, null, 0.1, SocketPolicy.DISCONNECT_AT_START));
+        assertThatIllegalArgumentException().isThrownBy(() -> Latency.uniform(20, 10));
+    }
+
+    private void useProfile(FaultProfile profile) {
+        useProfile(profile, () -> new MockResponse().setResponseCode(200).setBody("ok"));
+    }
+
+    private void useProfile(FaultProfile profile, Supplier<MockResponse> responses) {
+        server.setDispatcher(new FaultInjectingDispatcher(profile, new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responses.get();
+            }
+        }));
+    }
+
+    private static Rule errorRule(String path, double errorRate) {
+        return new Rule(null, path, null, null, errorRate, null, null, null);
+    }
+
+    private List<Integer> statuses(String path, int count) {
+        var statuses = new ArrayList<Integer>();
+        for (var i = 0; i < count; i++) {
+            statuses.add(get(path));
+        }
+        return statuses;
+    }
+
+    private int get(String path) {
+        var target = client.target(serverExtension.uri().resolve(path));
+        try (var response = target.request().get()) {
+            response.readEntity(String.class);
+            return response.getStatus();
+        }
+    }
+}
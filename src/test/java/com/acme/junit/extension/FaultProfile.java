@@ -0,0 +1,231 @@
+package com.acme.junit.extension;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNullElse;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.dropwizard.jackson.Jackson;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A declarative description of a degraded backend, used by a {@link FaultInjectingDispatcher}.
+ * <p>
+ * Profiles are usually loaded from YAML (or JSON, which is also valid YAML), e.g.
+ * <pre>
+ * seed: 42
+ * rules:
+ *   - path: /users/{id}
+ *     latency: { distribution: LOG_NORMAL, medianMillis: 20, p99Millis: 400 }
+ *     errorRate: 0.02
+ *     errorStatus: 503
+ *   - path: /users
+ *     bytesPerSecond: 65536
+ *   - path: /math/add/**
+ *     dropRate: 0.01
+ *     dropPolicy: DISCONNECT_DURING_RESPONSE_BODY
+ * </pre>
+ * The first rule that matches a request applies to it; requests that match no rule are not
+ * degraded. A {@code {name}} path segment matches any single segment, and a trailing
+ * {@code /**} matches any remainder; query strings are ignored. The seed makes the random
+ * choices repeatable for the same sequence of requests.
+ *
+ * @param seed  the seed for random choices; may be null for a random seed
+ * @param rules the rules, in priority order
+ */
+public record FaultProfile(Long seed, List<Rule> rules) {
+
+    private static final ObjectMapper YAML_MAPPER = Jackson.newObjectMapper(new YAMLFactory());
+
+    public FaultProfile {
+        rules = List.copyOf(requireNonNullElse(rules, List.of()));
+    }
+
+    /**
+     * Load a profile from a YAML or JSON file.
+     */
+    public static FaultProfile fromFile(Path path) {
+        try (var in = Files.newInputStream(path)) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read fault profile: " + path, e);
+        }
+    }
+
+    /**
+     * Load a profile from a YAML or JSON classpath resource.
+     */
+    public static FaultProfile fromResource(String resourceName) {
+        try (var in = FaultProfile.class.getClassLoader().getResourceAsStream(resourceName)) {
+            checkArgument(in != null, "resource not found: %s", resourceName);
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read fault profile: " + resourceName, e);
+        }
+    }
+
+    /**
+     * Parse a profile from YAML or JSON.
+     */
+    public static FaultProfile fromYaml(String yaml) {
+        try {
+            return YAML_MAPPER.readValue(yaml, FaultProfile.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to parse fault profile", e);
+        }
+    }
+
+    private static FaultProfile read(InputStream in) throws IOException {
+        return YAML_MAPPER.readValue(in, FaultProfile.class);
+    }
+
+    /**
+     * The faults to inject into responses to matching requests.
+     *
+     * @param method         the HTTP method to match; may be null to match any method
+     * @param path           the path template to match, e.g. {@code /users/{id}}
+     * @param latency        the delay before the response headers are sent, i.e. slow headers; may be null for none
+     * @param bytesPerSecond the rate at which the response body is sent; may be null for no limit
+     * @param errorRate      the fraction of responses replaced by error responses, from 0.0 to 1.0
+     * @param errorStatus    the status of error responses; defaults to 503
+     * @param dropRate       the fraction of connections dropped, from 0.0 to 1.0
+     * @param dropPolicy     how connections are dropped; one of {@code DISCONNECT_AFTER_REQUEST} (the default),
+     *                       {@code DISCONNECT_DURING_RESPONSE_BODY} or {@code NO_RESPONSE}
+     */
+    public record Rule(String method,
+                       String path,
+                       Latency latency,
+                       Long bytesPerSecond,
+                       Double errorRate,
+                       Integer errorStatus,
+                       Double dropRate,
+                       SocketPolicy dropPolicy) {
+
+        /**
+         * The socket policies that MockWebServer honors on a dispatched response; the others are
+         * only checked when a connection starts or before the request body is read.
+         */
+        private static final Set<SocketPolicy> DROP_POLICIES = EnumSet.of(
+                SocketPolicy.DISCONNECT_AFTER_REQUEST,
+                SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY,
+                SocketPolicy.NO_RESPONSE);
+
+        public Rule {
+            requireNotNull(path, "path must not be null");
+            checkArgument(path.startsWith("/"), "path must start with /");
+            errorRate = requireNonNullElse(errorRate, 0.0);
+            errorStatus = requireNonNullElse(errorStatus, 503);
+            dropRate = requireNonNullElse(dropRate, 0.0);
+            dropPolicy = requireNonNullElse(dropPolicy, SocketPolicy.DISCONNECT_AFTER_REQUEST);
+            checkArgument(errorRate >= 0.0 && errorRate <= 1.0, "errorRate must be between 0.0 and 1.0");
+            checkArgument(dropRate >= 0.0 && dropRate <= 1.0, "dropRate must be between 0.0 and 1.0");
+            checkArgument(DROP_POLICIES.contains(dropPolicy), "dropPolicy must be one of %s", DROP_POLICIES);
+            checkArgument(bytesPerSecond == null || bytesPerSecond > 0, "bytesPerSecond must be positive");
+        }
+
+        /**
+         * @return true if this rule applies to a request with the given method and path, ignoring any query
+         */
+        public boolean matches(String requestMethod, String requestPath) {
+            if (method != null && !method.equalsIgnoreCase(requestMethod)) {
+                return false;
+            }
+
+            var queryStart = requestPath.indexOf('?');
+            var pathOnly = queryStart < 0 ? requestPath : requestPath.substring(0, queryStart);
+            return matchesTemplate(path.split("/", -1), pathOnly.split("/", -1));
+        }
+
+        private static boolean matchesTemplate(String[] template, String[] segments) {
+            for (var i = 0; i < template.length; i++) {
+                if (i == template.length - 1 && template[i].equals("**")) {
+                    return segments.length >= template.length;
+                }
+                if (i >= segments.length) {
+                    return false;
+                }
+                var isVariable = template[i].startsWith("{") && template[i].endsWith("}");
+                if (isVariable ? segments[i].isEmpty() : !template[i].equals(segments[i])) {
+                    return false;
+                }
+            }
+            return template.length == segments.length;
+        }
+    }
+
+    /**
+     * A distribution of latencies.
+     *
+     * @param distribution the kind of distribution
+     * @param millis       the latency, for {@code FIXED}
+     * @param minMillis    the lowest latency, for {@code UNIFORM}
+     * @param maxMillis    the highest latency, for {@code UNIFORM}
+     * @param medianMillis the median latency, for {@code LOG_NORMAL}
+     * @param p99Millis    the 99th percentile latency, for {@code LOG_NORMAL}
+     */
+    public record Latency(Distribution distribution,
+                          Long millis,
+                          Long minMillis,
+                          Long maxMillis,
+                          Long medianMillis,
+                          Long p99Millis) {
+
+        /**
+         * The standard normal distribution's 99th percentile.
+         */
+        private static final double Z_99 = 2.326;
+
+        public enum Distribution {
+            FIXED, UNIFORM, LOG_NORMAL
+        }
+
+        public Latency {
+            requireNotNull(distribution, "distribution must not be null");
+            switch (distribution) {
+                case FIXED -> checkArgument(millis != null && millis >= 0, "FIXED latency requires millis");
+                case UNIFORM -> checkArgument(minMillis != null && maxMillis != null && 0 <= minMillis && minMillis <= maxMillis,
+                        "UNIFORM latency requires minMillis <= maxMillis");
+                case LOG_NORMAL -> checkArgument(medianMillis != null && p99Millis != null && 0 < medianMillis && medianMillis <= p99Millis,
+                        "LOG_NORMAL latency requires 0 < medianMillis <= p99Millis");
+            }
+        }
+
+        public static Latency fixed(long millis) {
+            return new Latency(Distribution.FIXED, millis, null, null, null, null);
+        }
+
+        public static Latency uniform(long minMillis, long maxMillis) {
+            return new Latency(Distribution.UNIFORM, null, minMillis, maxMillis, null, null);
+        }
+
+        public static Latency logNormal(long medianMillis, long p99Millis) {
+            return new Latency(Distribution.LOG_NORMAL, null, null, null, medianMillis, p99Millis);
+        }
+
+        /**
+         * @return a latency drawn from this distribution
+         */
+        public long sampleMillis(Random random) {
+            return switch (distribution) {
+                case FIXED -> millis;
+                case UNIFORM -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+                case LOG_NORMAL -> {
+                    var mu = Math.log(medianMillis);
+                    var sigma = (Math.log(p99Millis) - mu) / Z_99;
+                    yield Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+                }
+            };
+        }
+    }
+}
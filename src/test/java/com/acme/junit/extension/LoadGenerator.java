@@ -0,0 +1,105 @@
+package com.acme.junit.extension;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives an operation, such as a call to {@code UserApiClient} or {@code MathApiClient},
+ * from many threads and reports throughput and latency percentiles.
+ * <p>
+ * Every thread runs the operation a fixed number of times, and all threads start at the
+ * same moment. The latency of each operation, including failed ones, is recorded.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    /**
+     * An operation executed by the load generator; the argument is the zero-based iteration
+     * number within the executing thread.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run(int iteration) throws Exception;
+    }
+
+    private final int threads;
+    private final int iterationsPerThread;
+
+    public LoadGenerator(int threads, int iterationsPerThread) {
+        checkArgument(threads > 0, "threads must be positive");
+        checkArgument(iterationsPerThread > 0, "iterationsPerThread must be positive");
+        this.threads = threads;
+        this.iterationsPerThread = iterationsPerThread;
+    }
+
+    /**
+     * Run the operation and return the results.
+     */
+    public LoadReport run(Operation operation) throws InterruptedException {
+        requireNotNull(operation, "operation must not be null");
+
+        var errors = new LongAdder();
+        var startLatch = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<long[]>>(threads);
+            for (var t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> runIterations(operation, startLatch, errors)));
+            }
+
+            var startNanos = System.nanoTime();
+            startLatch.countDown();
+
+            var latencies = new long[threads * iterationsPerThread];
+            var offset = 0;
+            for (var future : futures) {
+                var threadLatencies = getUnchecked(future);
+                System.arraycopy(threadLatencies, 0, latencies, offset, threadLatencies.length);
+                offset += threadLatencies.length;
+            }
+            var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+            var report = LoadReport.from(latencies, errors.sum(), elapsed);
+            log.info("Load run with {} threads: {}", threads, report.summary());
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] runIterations(Operation operation, CountDownLatch startLatch, LongAdder errors)
+            throws InterruptedException {
+
+        var latencies = new long[iterationsPerThread];
+        startLatch.await();
+        for (var i = 0; i < iterationsPerThread; i++) {
+            var start = System.nanoTime();
+            try {
+                operation.run(i);
+            } catch (Exception e) {
+                errors.increment();
+                log.trace("Operation failed", e);
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long[] getUnchecked(Future<long[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load generator thread failed", e.getCause());
+        }
+    }
+}
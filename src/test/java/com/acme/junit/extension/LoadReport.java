@@ -0,0 +1,71 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiStrings.f;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Throughput and latency results of a {@link LoadGenerator} run.
+ *
+ * @param requests   the number of operations that were executed
+ * @param errors     the number of operations that threw an exception
+ * @param elapsed    the wall-clock time of the run
+ * @param throughput the number of operations completed per second
+ * @param p50        the median latency
+ * @param p90        the 90th percentile latency
+ * @param p99        the 99th percentile latency
+ * @param p999       the 99.9th percentile latency
+ * @param max        the maximum latency
+ */
+public record LoadReport(
+        long requests,
+        long errors,
+        Duration elapsed,
+        double throughput,
+        Duration p50,
+        Duration p90,
+        Duration p99,
+        Duration p999,
+        Duration max
+) {
+
+    static LoadReport from(long[] latencyNanos, long errors, Duration elapsed) {
+        var sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+
+        var seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+        return new LoadReport(
+                sorted.length,
+                errors,
+                elapsed,
+                sorted.length / seconds,
+                percentile(sorted, 50.0),
+                percentile(sorted, 90.0),
+                percentile(sorted, 99.0),
+                percentile(sorted, 99.9),
+                sorted.length == 0 ? Duration.ZERO : Duration.ofNanos(sorted[sorted.length - 1]));
+    }
+
+    private static Duration percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+
+        var rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * @return a one-line, human-readable summary
+     */
+    public String summary() {
+        return f("{} requests ({} errors) in {} ms: {} req/s, p50={}µs p90={}µs p99={}µs p99.9={}µs max={}µs",
+                requests, errors, elapsed.toMillis(), Math.round(throughput),
+                micros(p50), micros(p90), micros(p99), micros(p999), micros(max));
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1_000;
+    }
+}
@@ -1,25 +1,86 @@
 package com.acme.junit.extension;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
 import lombok.Getter;
 import lombok.experimental.Accessors;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.QueueDispatcher;
+import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.kiwiproject.base.KiwiPreconditions;
 import org.kiwiproject.io.KiwiIO;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
- * A JUnit Jupiter extension that starts a {@link MockWebServer}
- * before <em>each</em> test, and shuts it down after <em>each</em> test.
+ * A JUnit Jupiter extension that manages a {@link MockWebServer}.
+ * <p>
+ * By default, the extension starts a server before <em>each</em> test, and shuts
+ * it down after <em>each</em> test. Since binding and closing a socket for every test
+ * adds up in large suites, the server can instead be shared by all tests in a class
+ * ({@link #perClass()}) or by all test classes in the suite ({@link #perSuite()}).
+ * Shared servers must be registered in a {@code static} field. They are also used by
+ * {@code @Nested} classes, which do not start servers of their own.
+ * <p>
+ * Servers shared per class are reset before each test: enqueued responses are discarded,
+ * the original dispatcher is restored, and requests recorded by earlier tests are drained.
+ * Note that {@link MockWebServer#getRequestCount()} is <em>not</em> reset.
+ * <p>
+ * Since test classes run in parallel, the suite server is never reset. Instead, it always
+ * uses a {@link RoutingDispatcher}, and each test scripts its responses and takes its
+ * requests on its own {@link TestRoute}, obtained from {@link #newRoute()}. Do not enqueue
+ * responses on, take requests from, or change the dispatcher of the suite server itself.
  * <p>
- * Optionally, you can specify your own {@code MockWebServer} if you
- * need specific features, such as when you need to make TLS requests.
+ * Use {@link #https()} or {@link #https(Lifecycle)} for a server that accepts only HTTPS
+ * connections, using the {@link TestCertificates}. Clients must then trust the test root
+ * certificate, e.g. {@code ClientBuilder.newBuilder().sslContext(TestCertificates.clientSslContext())}.
+ * Optionally, you can specify your own {@code MockWebServer} if you need other specific features.
  */
-public class MockWebServerExtension implements BeforeEachCallback, AfterEachCallback {
+public class MockWebServerExtension
+        implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    /**
+     * Defines how long a server lives, and which tests share it.
+     */
+    public enum Lifecycle {
+
+        /**
+         * A server is started before each test and shut down after it.
+         */
+        PER_TEST,
+
+        /**
+         * A server is started before all tests in a class and shut down after them.
+         */
+        PER_CLASS,
+
+        /**
+         * A single server is started the first time it is needed, and shut down
+         * when the test suite finishes. Tests are isolated using {@link TestRoute}s.
+         */
+        PER_SUITE
+    }
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(MockWebServerExtension.class);
+
+    private static final String SUITE_SERVER_KEY = "suiteServer";
+
+    @Getter
+    @Accessors(fluent = true)
+    private final Lifecycle lifecycle;
+
+    private final Supplier<MockWebServer> serverSupplier;
 
     @Getter
     @Accessors(fluent = true)
@@ -29,23 +90,220 @@ public class MockWebServerExtension implements BeforeEachCallback, AfterEachCall
     @Accessors(fluent = true)
     private URI uri;
 
+    private Dispatcher originalDispatcher;
+    private RoutingDispatcher routingDispatcher;
+    private String startedByUniqueId;
+    private boolean started;
+
     public MockWebServerExtension() {
-        this(new MockWebServer());
+        this(MockWebServer::new, Lifecycle.PER_TEST);
     }
 
     public MockWebServerExtension(MockWebServer server) {
-        this.server = KiwiPreconditions.requireNotNull(server, "server must not be nul");
+        this(server, Lifecycle.PER_TEST);
+    }
+
+    public MockWebServerExtension(MockWebServer server, Lifecycle lifecycle) {
+        this(singleUse(KiwiPreconditions.requireNotNull(server, "server must not be null")), lifecycle);
+    }
+
+    /**
+     * Create an extension that obtains servers from the given supplier. Use this for
+     * {@link Lifecycle#PER_TEST} extensions registered in a {@code static} field that need a
+     * custom server, since each server can only be started once.
+     */
+    public MockWebServerExtension(Supplier<MockWebServer> serverSupplier, Lifecycle lifecycle) {
+        this.serverSupplier = KiwiPreconditions.requireNotNull(serverSupplier, "serverSupplier must not be null");
+        this.lifecycle = KiwiPreconditions.requireNotNull(lifecycle, "lifecycle must not be null");
+    }
+
+    /**
+     * @return an extension that shares one server among all tests in a class
+     */
+    public static MockWebServerExtension perClass() {
+        return perClass(new MockWebServer());
+    }
+
+    /**
+     * @return an extension that shares the given server among all tests in a class
+     */
+    public static MockWebServerExtension perClass(MockWebServer server) {
+        return new MockWebServerExtension(server, Lifecycle.PER_CLASS);
+    }
+
+    /**
+     * @return an extension that starts an HTTPS server before each test
+     */
+    public static MockWebServerExtension https() {
+        return https(Lifecycle.PER_TEST);
+    }
+
+    /**
+     * Create an extension that manages HTTPS servers. The suite server is shared by all classes
+     * regardless of scheme, so {@link Lifecycle#PER_SUITE} is not supported.
+     *
+     * @return an extension that manages HTTPS servers with the given lifecycle
+     */
+    public static MockWebServerExtension https(Lifecycle lifecycle) {
+        checkArgument(lifecycle != Lifecycle.PER_SUITE, "HTTPS servers cannot be shared per suite");
+        return new MockWebServerExtension(TestCertificates::newHttpsServer, lifecycle);
+    }
+
+    /**
+     * @return an extension that shares one server among all test classes in the suite
+     */
+    public static MockWebServerExtension perSuite() {
+        return perSuite(MockWebServer::new);
+    }
+
+    /**
+     * Create an extension that shares one server among all test classes in the suite. The
+     * supplier is only called by the first test class to need the server; later classes use
+     * the existing server even if they specify a different supplier. The server's dispatcher
+     * is replaced by a {@link RoutingDispatcher}.
+     *
+     * @return an extension that shares one server among all test classes in the suite
+     */
+    public static MockWebServerExtension perSuite(Supplier<MockWebServer> serverSupplier) {
+        return new MockWebServerExtension(serverSupplier, Lifecycle.PER_SUITE);
+    }
+
+    /**
+     * Create and register a new route on the suite server's {@link RoutingDispatcher}. Register
+     * the route on the test's client, and {@link #removeRoute(TestRoute) remove} it after the test.
+     *
+     * @throws IllegalStateException if this extension does not manage a {@link Lifecycle#PER_SUITE} server
+     *                               or the server has not been started
+     */
+    public TestRoute newRoute() {
+        checkState(routingDispatcher != null, "routes are only available for started PER_SUITE servers");
+        return routingDispatcher.newRoute();
+    }
+
+    /**
+     * Stop routing requests to the given route.
+     *
+     * @throws IllegalStateException if this extension does not manage a {@link Lifecycle#PER_SUITE} server
+     *                               or the server has not been started
+     */
+    public void removeRoute(TestRoute route) {
+        checkState(routingDispatcher != null, "routes are only available for started PER_SUITE servers");
+        routingDispatcher.remove(route);
     }
 
     @Override
-    public void beforeEach(ExtensionContext context) throws IOException {
-        server = new MockWebServer();
-        server.start();
-        uri = server.url("/").uri();
+    public void beforeAll(ExtensionContext context) {
+        if (started) {
+            // a @Nested class uses the server started for its enclosing class
+            return;
+        }
+
+        switch (lifecycle) {
+            case PER_CLASS -> {
+                start(serverSupplier.get());
+                startedByUniqueId = context.getUniqueId();
+            }
+            case PER_SUITE -> {
+                var suiteServer = context.getRoot()
+                        .getStore(NAMESPACE)
+                        .getOrComputeIfAbsent(SUITE_SERVER_KEY,
+                                key -> SuiteServer.start(serverSupplier.get()),
+                                SuiteServer.class);
+                useStartedServer(suiteServer.server(), suiteServer.dispatcher());
+                routingDispatcher = suiteServer.dispatcher();
+            }
+            case PER_TEST -> {
+                // servers are started before each test
+            }
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (lifecycle == Lifecycle.PER_TEST) {
+            start(serverSupplier.get());
+            return;
+        }
+
+        checkState(started,
+                "%s servers must be registered in a static field so they are started before all tests",
+                lifecycle);
+        if (lifecycle == Lifecycle.PER_CLASS) {
+            reset();
+        }
     }
 
     @Override
     public void afterEach(ExtensionContext context) {
-        KiwiIO.closeQuietly(server);
+        if (lifecycle == Lifecycle.PER_TEST) {
+            KiwiIO.closeQuietly(server);
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (lifecycle == Lifecycle.PER_CLASS && context.getUniqueId().equals(startedByUniqueId)) {
+            KiwiIO.closeQuietly(server);
+        }
+        // PER_SUITE servers are closed by the root store when the suite finishes
+    }
+
+    private void start(MockWebServer newServer) {
+        var startedServer = startServer(newServer);
+        useStartedServer(startedServer, startedServer.getDispatcher());
+    }
+
+    private void useStartedServer(MockWebServer startedServer, Dispatcher dispatcher) {
+        server = startedServer;
+        uri = server.url("/").uri();
+        originalDispatcher = dispatcher;
+        started = true;
+    }
+
+    private static MockWebServer startServer(MockWebServer server) {
+        try {
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start MockWebServer", e);
+        }
+    }
+
+    private void reset() {
+        server.setDispatcher(originalDispatcher instanceof QueueDispatcher ? new QueueDispatcher() : originalDispatcher);
+
+        try {
+            while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+                // discard requests recorded by previous tests
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Supplier<MockWebServer> singleUse(MockWebServer server) {
+        var supplied = new boolean[1];
+        return () -> {
+            checkState(!supplied[0],
+                    "a MockWebServer can only be started once; use the Supplier constructor for static PER_TEST extensions");
+            supplied[0] = true;
+            return server;
+        };
+    }
+
+    @SuppressWarnings("deprecation")
+    private record SuiteServer(MockWebServer server, RoutingDispatcher dispatcher)
+            implements ExtensionContext.Store.CloseableResource {
+
+        static SuiteServer start(MockWebServer server) {
+            var dispatcher = new RoutingDispatcher();
+            server.setDispatcher(dispatcher);
+            return new SuiteServer(startServer(server), dispatcher);
+        }
+
+        @Override
+        public void close() {
+            KiwiIO.closeQuietly(server);
+        }
     }
 }
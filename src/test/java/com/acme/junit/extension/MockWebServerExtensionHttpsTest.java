@@ -0,0 +1,81 @@
+package com.acme.junit.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.constants.KiwiTestConstants.JSON_HELPER;
+
+import com.acme.client.UserApiClient;
+import com.acme.model.User;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link MockWebServerExtension} with an HTTPS server.
+ */
+@DisplayName("MockWebServerExtension (HTTPS)")
+class MockWebServerExtensionHttpsTest {
+
+    @RegisterExtension
+    private final MockWebServerExtension serverExtension = MockWebServerExtension.https();
+
+    @Test
+    void shouldServeHttps_ToClientsThatTrustTestRoot() throws InterruptedException {
+        var server = serverExtension.server();
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setBody(JSON_HELPER.toJson(User.newWithRedactedPassword(42L, "j_smith", "Jane Smith"))));
+
+        var client = ClientBuilder.newBuilder()
+                .sslContext(TestCertificates.clientSslContext())
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+        try {
+            var user = new UserApiClient(client, serverExtension.uri()).getById(42);
+
+            var request = server.takeRequest(1, TimeUnit.SECONDS);
+            assertAll(
+                    () -> assertThat(serverExtension.uri().getScheme()).isEqualTo("https"),
+                    () -> assertThat(user).map(User::name).contains("Jane Smith"),
+                    () -> assertThat(request).isNotNull(),
+                    () -> assertThat(request.getHandshake()).isNotNull()
+            );
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void shouldRejectClients_ThatDoNotTrustTestRoot() {
+        var client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .build();
+        try {
+            var apiClient = new UserApiClient(client, serverExtension.uri());
+
+            assertThatExceptionOfType(ProcessingException.class)
+                    .isThrownBy(() -> apiClient.getById(42))
+                    .withCauseInstanceOf(SSLHandshakeException.class);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void shouldNotShareHttpsServersPerSuite() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> MockWebServerExtension.https(MockWebServerExtension.Lifecycle.PER_SUITE));
+    }
+}
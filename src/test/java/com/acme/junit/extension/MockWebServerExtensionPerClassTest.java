@@ -0,0 +1,94 @@
+package com.acme.junit.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link MockWebServerExtension} sharing a custom server among all tests in a class.
+ * The tests run in order, since each one checks what the previous one left behind, and the
+ * nested class runs after them.
+ */
+@DisplayName("MockWebServerExtension (per class)")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MockWebServerExtensionPerClassTest {
+
+    private static final MockWebServer CUSTOM_SERVER = new MockWebServer();
+
+    @RegisterExtension
+    static final MockWebServerExtension SERVER_EXTENSION = MockWebServerExtension.perClass(CUSTOM_SERVER);
+
+    private static URI firstUri;
+
+    @Test
+    @Order(1)
+    void shouldUseInjectedServer() throws IOException, InterruptedException {
+        assertThat(SERVER_EXTENSION.server()).isSameAs(CUSTOM_SERVER);
+        assertThat(SERVER_EXTENSION.lifecycle()).isEqualTo(MockWebServerExtension.Lifecycle.PER_CLASS);
+        firstUri = SERVER_EXTENSION.uri();
+
+        SERVER_EXTENSION.server().enqueue(new MockResponse().setResponseCode(202));
+        SERVER_EXTENSION.server().enqueue(new MockResponse().setResponseCode(204));
+
+        assertThat(get("/first")).isEqualTo(202);
+
+        // leave one response enqueued and one request recorded for the next test
+    }
+
+    @Test
+    @Order(2)
+    void shouldReuseServer_AndResetBetweenTests() throws IOException, InterruptedException {
+        assertThat(SERVER_EXTENSION.server()).isSameAs(CUSTOM_SERVER);
+        assertThat(SERVER_EXTENSION.uri()).isEqualTo(firstUri);
+
+        assertThat(SERVER_EXTENSION.server().takeRequest(0, TimeUnit.MILLISECONDS))
+                .describedAs("requests from the previous test should have been drained")
+                .isNull();
+
+        SERVER_EXTENSION.server().enqueue(new MockResponse().setResponseCode(200));
+
+        assertThat(get("/second"))
+                .describedAs("responses enqueued by the previous test should have been discarded")
+                .isEqualTo(200);
+
+        var recordedRequest = SERVER_EXTENSION.server().takeRequest(1, TimeUnit.SECONDS);
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getPath()).isEqualTo("/second");
+    }
+
+    @Nested
+    class NestedClass {
+
+        @Test
+        void shouldUseServerOfEnclosingClass() throws IOException, InterruptedException {
+            assertThat(SERVER_EXTENSION.server()).isSameAs(CUSTOM_SERVER);
+            assertThat(SERVER_EXTENSION.uri()).isEqualTo(firstUri);
+
+            SERVER_EXTENSION.server().enqueue(new MockResponse().setResponseCode(201));
+
+            assertThat(get("/nested")).isEqualTo(201);
+        }
+    }
+
+    private static int get(String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(SERVER_EXTENSION.uri().resolve(path)).GET().build();
+        return HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
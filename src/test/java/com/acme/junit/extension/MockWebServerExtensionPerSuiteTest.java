@@ -0,0 +1,100 @@
+package com.acme.junit.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import okhttp3.mockwebserver.MockResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test of {@link MockWebServerExtension} sharing one server among all test classes in the suite.
+ * The tests run concurrently, and are isolated from each other using {@link TestRoute}s.
+ */
+@DisplayName("MockWebServerExtension (per suite)")
+@Execution(ExecutionMode.CONCURRENT)
+class MockWebServerExtensionPerSuiteTest {
+
+    @RegisterExtension
+    static final MockWebServerExtension SERVER_EXTENSION = MockWebServerExtension.perSuite();
+
+    private TestRoute route;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        route = SERVER_EXTENSION.newRoute();
+        client = ClientBuilder.newBuilder()
+                .connectTimeout(500, TimeUnit.MILLISECONDS)
+                .readTimeout(500, TimeUnit.MILLISECONDS)
+                .register(route)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        SERVER_EXTENSION.removeRoute(route);
+    }
+
+    @RepeatedTest(10)
+    void shouldServeEachTest_FromItsOwnRoute() throws InterruptedException {
+        var status = 200 + (route.id().hashCode() & 0x3);
+        route.enqueue(new MockResponse().setResponseCode(status));
+
+        try (var response = client.target(SERVER_EXTENSION.uri()).path("/routed").request().get()) {
+            assertThat(response.getStatus()).isEqualTo(status);
+        }
+
+        assertThat(route.takeRequiredRequest().getPath()).isEqualTo("/routed");
+        assertThat(route.hasNoMoreRequests()).isTrue();
+    }
+
+    @Test
+    void shouldUseRoutingDispatcher() {
+        assertThat(SERVER_EXTENSION.lifecycle()).isEqualTo(MockWebServerExtension.Lifecycle.PER_SUITE);
+        assertThat(SERVER_EXTENSION.server().getDispatcher()).isInstanceOf(RoutingDispatcher.class);
+    }
+
+    @Test
+    void shouldRejectRequests_WithoutRoute() {
+        var unroutedClient = ClientBuilder.newClient();
+        try (var response = unroutedClient.target(SERVER_EXTENSION.uri()).path("/unrouted").request().get()) {
+            assertThat(response.getStatus()).isEqualTo(421);
+        } finally {
+            unroutedClient.close();
+        }
+    }
+
+    @Test
+    void shouldNotProvideRoutes_ForOtherLifecycles() {
+        var extension = new MockWebServerExtension();
+
+        assertThatIllegalStateException().isThrownBy(extension::newRoute);
+    }
+
+    @Nested
+    class NestedClass {
+
+        @Test
+        void shouldShareSuiteServer_WithEnclosingClass() {
+            route.enqueue(new MockResponse().setResponseCode(202));
+
+            try (var response = client.target(SERVER_EXTENSION.uri()).path("/nested").request().get()) {
+                assertThat(response.getStatus()).isEqualTo(202);
+            }
+            assertThat(SERVER_EXTENSION.server().getDispatcher()).isInstanceOf(RoutingDispatcher.class);
+        }
+    }
+}
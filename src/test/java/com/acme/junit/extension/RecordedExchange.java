@@ -0,0 +1,44 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A captured HTTP request/response pair.
+ *
+ * @param method          the request method
+ * @param path            the request path, including the query string
+ * @param status          the response status code
+ * @param responseHeaders the response headers that are replayed
+ * @param responseBody    the response body; empty if there was none
+ * @param durationNanos   how long the upstream server took to respond when captured
+ */
+public record RecordedExchange(
+        String method,
+        String path,
+        int status,
+        List<Map.Entry<String, String>> responseHeaders,
+        byte[] responseBody,
+        long durationNanos
+) {
+
+    public RecordedExchange {
+        requireNotNull(method, "method must not be null");
+        requireNotNull(path, "path must not be null");
+        responseHeaders = List.copyOf(requireNotNull(responseHeaders, "responseHeaders must not be null"));
+        requireNotNull(responseBody, "responseBody must not be null");
+    }
+
+    /**
+     * @return the key used to match requests to exchanges during replay, e.g. {@code GET /users/42}
+     */
+    public String requestKey() {
+        return requestKey(method, path);
+    }
+
+    static String requestKey(String method, String path) {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,93 @@
+package com.acme.junit.extension;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toUnmodifiableMap;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.google.common.util.concurrent.RateLimiter;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Dispatcher} that serves previously captured {@link RecordedExchange}s.
+ * <p>
+ * Requests are matched to exchanges by method and path. When several exchanges were
+ * captured for the same request, they are served in capture order, cycling back to the
+ * first one when all have been served. Requests that were never captured receive a 404.
+ * <p>
+ * Optionally, responses can be limited to a maximum rate, and can be delayed by the
+ * time the upstream server took to respond when the traffic was captured.
+ */
+public class ReplayDispatcher extends Dispatcher {
+
+    private final Map<String, List<RecordedExchange>> exchangesByRequest;
+    private final Map<String, AtomicInteger> nextIndexByRequest;
+    private final RateLimiter rateLimiter;
+    private final boolean replayLatency;
+
+    /**
+     * Create a dispatcher that serves responses as fast as possible, without replaying latency.
+     */
+    public ReplayDispatcher(List<RecordedExchange> exchanges) {
+        this(exchanges, 0, false);
+    }
+
+    /**
+     * @param exchanges           the exchanges to serve
+     * @param responsesPerSecond  the maximum number of responses per second, or zero for no limit
+     * @param replayLatency       whether to delay each response by its captured duration
+     */
+    public ReplayDispatcher(List<RecordedExchange> exchanges, double responsesPerSecond, boolean replayLatency) {
+        requireNotNull(exchanges, "exchanges must not be null");
+        checkArgument(responsesPerSecond >= 0, "responsesPerSecond must not be negative");
+
+        this.exchangesByRequest = exchanges.stream().collect(groupingBy(RecordedExchange::requestKey));
+        this.nextIndexByRequest = exchangesByRequest.keySet().stream()
+                .collect(toUnmodifiableMap(key -> key, key -> new AtomicInteger()));
+        this.rateLimiter = responsesPerSecond > 0 ? RateLimiter.create(responsesPerSecond) : null;
+        this.replayLatency = replayLatency;
+    }
+
+    /**
+     * Create a dispatcher that serves the exchanges in a {@link TrafficFile}.
+     */
+    public static ReplayDispatcher fromFile(Path path, double responsesPerSecond, boolean replayLatency) {
+        return new ReplayDispatcher(TrafficFile.read(path), responsesPerSecond, replayLatency);
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+
+        var key = RecordedExchange.requestKey(request.getMethod(), request.getPath());
+        var exchanges = exchangesByRequest.get(key);
+        if (exchanges == null) {
+            return new MockResponse().setResponseCode(404);
+        }
+
+        var index = Math.floorMod(nextIndexByRequest.get(key).getAndIncrement(), exchanges.size());
+        var exchange = exchanges.get(index);
+        var response = toMockResponse(exchange);
+        if (replayLatency) {
+            response.setHeadersDelay(exchange.durationNanos(), TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+
+    static MockResponse toMockResponse(RecordedExchange exchange) {
+        var response = new MockResponse().setResponseCode(exchange.status());
+        exchange.responseHeaders().forEach(header -> response.addHeader(header.getKey(), header.getValue()));
+        return response.setBody(new Buffer().write(exchange.responseBody()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link Dispatcher} that serves each request from the response script of the
+ * {@link TestRoute} named in its {@link TestRoute#HEADER_NAME} header.
+ * <p>
+ * Install it on a shared {@code MockWebServer} (e.g. using {@link MockWebServerExtension#perClass(okhttp3.mockwebserver.MockWebServer)})
+ * to let tests run in parallel against the same server. Requests without a route header,
+ * or for a route that is not registered, receive a 421 (Misdirected Request) response.
+ */
+public class RoutingDispatcher extends Dispatcher {
+
+    private final Map<String, TestRoute> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Create and register a new route.
+     */
+    public TestRoute newRoute() {
+        var route = TestRoute.newRoute();
+        routes.put(route.id(), route);
+        return route;
+    }
+
+    /**
+     * Stop routing requests to the given route.
+     */
+    public void remove(TestRoute route) {
+        routes.remove(requireNotNull(route, "route must not be null").id());
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        var routeId = request.getHeader(TestRoute.HEADER_NAME);
+        var route = routeId == null ? null : routes.get(routeId);
+        if (route == null) {
+            return new MockResponse().setResponseCode(421);
+        }
+        return route.dispatch(request);
+    }
+}
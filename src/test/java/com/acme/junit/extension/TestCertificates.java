@@ -0,0 +1,88 @@
+package com.acme.junit.extension;
+
+import lombok.experimental.UtilityClass;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+import javax.net.ssl.SSLContext;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Certificates for HTTPS tests, generated once per JVM since generating keys is slow.
+ * <p>
+ * The server certificate is issued by a throwaway root certificate for {@code localhost}
+ * and the loopback address. Clients that should trust the server use {@link #clientSslContext()},
+ * e.g. {@code ClientBuilder.newBuilder().sslContext(TestCertificates.clientSslContext())}.
+ */
+@UtilityClass
+public class TestCertificates {
+
+    private static final HeldCertificate ROOT = new HeldCertificate.Builder()
+            .certificateAuthority(0)
+            .commonName("Test Root CA")
+            .build();
+
+    private static final HeldCertificate SERVER = new HeldCertificate.Builder()
+            .signedBy(ROOT)
+            .commonName("localhost")
+            .addSubjectAlternativeName("localhost")
+            .addSubjectAlternativeName("127.0.0.1")
+            .addSubjectAlternativeName(canonicalLocalHostName())
+            .build();
+
+    private static final HandshakeCertificates SERVER_CERTIFICATES = new HandshakeCertificates.Builder()
+            .heldCertificate(SERVER)
+            .build();
+
+    private static final HandshakeCertificates CLIENT_CERTIFICATES = new HandshakeCertificates.Builder()
+            .addTrustedCertificate(ROOT.certificate())
+            .build();
+
+    /**
+     * @return the certificates a server uses to accept HTTPS connections
+     */
+    public static HandshakeCertificates serverCertificates() {
+        return SERVER_CERTIFICATES;
+    }
+
+    /**
+     * @return an SSL context that trusts the server certificate; it is shared, so tests that
+     * change its session cache should use {@link #newClientSslContext()} instead
+     */
+    public static SSLContext clientSslContext() {
+        return CLIENT_CERTIFICATES.sslContext();
+    }
+
+    /**
+     * @return a new SSL context that trusts the server certificate, with its own session cache
+     */
+    public static SSLContext newClientSslContext() {
+        return new HandshakeCertificates.Builder()
+                .addTrustedCertificate(ROOT.certificate())
+                .build()
+                .sslContext();
+    }
+
+    /**
+     * @return a new, unstarted server that accepts only HTTPS connections
+     */
+    public static MockWebServer newHttpsServer() {
+        var server = new MockWebServer();
+        server.useHttps(SERVER_CERTIFICATES.sslSocketFactory());
+        return server;
+    }
+
+    /**
+     * MockWebServer URLs use the canonical name of the loopback address, which is not always
+     * {@code localhost}, so the certificate must be valid for it too.
+     */
+    private static String canonicalLocalHostName() {
+        try {
+            return InetAddress.getByName("localhost").getCanonicalHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
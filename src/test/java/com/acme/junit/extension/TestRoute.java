@@ -0,0 +1,87 @@
+package com.acme.junit.extension;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifies the requests made by a single test, so that tests running in parallel
+ * can share one test server without seeing each other's responses or requests.
+ * <p>
+ * Register the route on the test's JAX-RS {@code Client} so that every request carries the
+ * {@link #HEADER_NAME} header. A server-side {@link RoutingDispatcher} (or a resource that
+ * reads the header) then uses the header to choose the per-test response script.
+ */
+public class TestRoute implements ClientRequestFilter {
+
+    /**
+     * The request header containing the route id.
+     */
+    public static final String HEADER_NAME = "X-Test-Route";
+
+    @Getter
+    @Accessors(fluent = true)
+    private final String id;
+
+    private final BlockingQueue<MockResponse> responses = new LinkedBlockingQueue<>();
+    private final BlockingQueue<RecordedRequest> requests = new LinkedBlockingQueue<>();
+
+    public TestRoute(String id) {
+        this.id = requireNotNull(id, "id must not be null");
+    }
+
+    /**
+     * @return a new route with a random id
+     */
+    public static TestRoute newRoute() {
+        return new TestRoute(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        requestContext.getHeaders().putSingle(HEADER_NAME, id);
+    }
+
+    /**
+     * Add a response to this route's script. Responses are served in the order they are enqueued.
+     */
+    public void enqueue(MockResponse response) {
+        responses.add(requireNotNull(response, "response must not be null"));
+    }
+
+    /**
+     * Take the next request received on this route, waiting up to one second.
+     *
+     * @throws IllegalStateException if no request is received in time
+     */
+    public RecordedRequest takeRequiredRequest() throws InterruptedException {
+        var request = requests.poll(1, TimeUnit.SECONDS);
+        if (request == null) {
+            throw new IllegalStateException("no request received on route " + id);
+        }
+        return request;
+    }
+
+    /**
+     * @return true if this route has received no more requests
+     */
+    public boolean hasNoMoreRequests() {
+        return requests.isEmpty();
+    }
+
+    MockResponse dispatch(RecordedRequest request) {
+        requests.add(request);
+        var response = responses.poll();
+        return response != null ? response : new MockResponse().setResponseCode(404);
+    }
+}
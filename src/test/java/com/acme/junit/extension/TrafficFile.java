@@ -0,0 +1,90 @@
+package com.acme.junit.extension;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes {@link RecordedExchange}s using a compact, gzipped binary format.
+ * <p>
+ * The format is a magic number and version, the number of exchanges, then each exchange
+ * as: method, path (modified UTF-8), status (short), capture duration (long), header count
+ * (short) followed by name/value pairs, and the body length (int) followed by the body bytes.
+ */
+@UtilityClass
+public class TrafficFile {
+
+    private static final int MAGIC = 0x41434D45;
+    private static final int VERSION = 1;
+
+    public static void write(Path path, List<RecordedExchange> exchanges) {
+        try (var out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path))))) {
+
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(exchanges.size());
+
+            for (var exchange : exchanges) {
+                out.writeUTF(exchange.method());
+                out.writeUTF(exchange.path());
+                out.writeShort(exchange.status());
+                out.writeLong(exchange.durationNanos());
+                out.writeShort(exchange.responseHeaders().size());
+                for (var header : exchange.responseHeaders()) {
+                    out.writeUTF(header.getKey());
+                    out.writeUTF(header.getValue());
+                }
+                out.writeInt(exchange.responseBody().length);
+                out.write(exchange.responseBody());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write traffic file: " + path, e);
+        }
+    }
+
+    public static List<RecordedExchange> read(Path path) {
+        try (var in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+
+            checkState(in.readInt() == MAGIC, "%s is not a traffic file", path);
+            var version = in.readByte();
+            checkState(version == VERSION, "unsupported traffic file version: %s", version);
+
+            var count = in.readInt();
+            var exchanges = new ArrayList<RecordedExchange>(count);
+            for (var i = 0; i < count; i++) {
+                var method = in.readUTF();
+                var requestPath = in.readUTF();
+                var status = in.readUnsignedShort();
+                var durationNanos = in.readLong();
+                var headerCount = in.readUnsignedShort();
+                var headers = new ArrayList<Map.Entry<String, String>>(headerCount);
+                for (var h = 0; h < headerCount; h++) {
+                    headers.add(Map.entry(in.readUTF(), in.readUTF()));
+                }
+                var body = new byte[in.readInt()];
+                in.readFully(body);
+
+                exchanges.add(new RecordedExchange(method, requestPath, status, headers, body, durationNanos));
+            }
+            return exchanges;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read traffic file: " + path, e);
+        }
+    }
+}